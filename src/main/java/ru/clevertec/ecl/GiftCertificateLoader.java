@@ -0,0 +1,46 @@
+package ru.clevertec.ecl;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.clevertec.ecl.dto.load.LoadEntity;
+import ru.clevertec.ecl.dto.load.LoadFormat;
+import ru.clevertec.ecl.dto.load.LoadReport;
+import ru.clevertec.ecl.service.load.CopyLoadService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Command-line entry of {@link CopyLoadService}.
+ * <p>
+ * Usage: {@code ./gradlew load --args="<certificates|tags|users> <file> [csv|ndjson] [--spring.property=value...]"}
+ * <p>
+ * Running servers don't know about this load: their tag index finds loaded certificates by tags
+ * only after restart, see {@link ru.clevertec.ecl.service.index.TagBitmapIndex}.
+ */
+public class GiftCertificateLoader {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: <certificates|tags|users> <file> [csv|ndjson] [--spring.property=value...]");
+            System.exit(1);
+        }
+        LoadEntity entity = LoadEntity.of(args[0]);
+        Path file = Path.of(args[1]);
+        boolean hasFormat = args.length > 2 && !args[2].startsWith("--");
+        LoadFormat format = hasFormat ? LoadFormat.of(args[2]) : LoadFormat.CSV;
+        String[] springArgs = Arrays.copyOfRange(args, hasFormat ? 3 : 2, args.length);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GiftCertificateRunner.class)
+                .web(WebApplicationType.NONE)
+                .run(springArgs);
+             InputStream input = Files.newInputStream(file)) {
+            LoadReport report = context.getBean(CopyLoadService.class).load(entity, format, input);
+            System.out.println(report);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.clevertec.ecl.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of bulk certificate import.
+ *
+ * @param chunkSize number of certificates written and committed in one transaction
+ */
+@ConfigurationProperties(prefix = "bulk-import")
+public record BulkImportProperties(@DefaultValue("1000") int chunkSize) {
+}
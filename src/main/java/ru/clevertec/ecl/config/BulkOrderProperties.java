@@ -0,0 +1,16 @@
+package ru.clevertec.ecl.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of batch order endpoint.
+ *
+ * @param chunkSize   number of orders inserted and committed in one transaction
+ * @param concurrency max number of chunks written at once, {@code 0} - half of connection pool;
+ *                    never exceeds half of connection pool
+ */
+@ConfigurationProperties(prefix = "bulk-order")
+public record BulkOrderProperties(@DefaultValue("500") int chunkSize,
+                                  @DefaultValue("0") int concurrency) {
+}
@@ -0,0 +1,29 @@
+package ru.clevertec.ecl.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of order placement.
+ *
+ * @param mode          {@code direct} - every order is inserted in its own transaction,
+ *                      {@code batched} - orders are queued and inserted in groups
+ * @param batchSize     max number of orders inserted in one transaction
+ * @param maxDelay      max time the first order of group waits for others
+ * @param queueCapacity max number of queued orders, callers wait up to {@code maxDelay} for free space
+ * @param maxWait       max time caller waits for its queued order to be inserted
+ */
+@ConfigurationProperties(prefix = "order-ingestion")
+public record OrderIngestionProperties(@DefaultValue("direct") Mode mode,
+                                       @DefaultValue("100") int batchSize,
+                                       @DefaultValue("10ms") Duration maxDelay,
+                                       @DefaultValue("10000") int queueCapacity,
+                                       @DefaultValue("5s") Duration maxWait) {
+
+    public enum Mode {
+        DIRECT,
+        BATCHED
+    }
+}
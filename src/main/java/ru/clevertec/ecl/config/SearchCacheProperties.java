@@ -0,0 +1,18 @@
+package ru.clevertec.ecl.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of cache of certificate search results.
+ *
+ * @param maxSize max number of cached pages
+ * @param ttl     time page lives after it's cached, it's a safety net:
+ *                pages are invalidated by writes of certificates and tags
+ */
+@ConfigurationProperties(prefix = "search-cache")
+public record SearchCacheProperties(@DefaultValue("10000") long maxSize,
+                                    @DefaultValue("5m") Duration ttl) {
+}
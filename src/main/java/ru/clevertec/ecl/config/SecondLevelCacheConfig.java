@@ -0,0 +1,53 @@
+package ru.clevertec.ecl.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caffeine caches behind regions of Hibernate second-level cache.
+ * <p>
+ * Hit and miss counts of regions are exported by Hibernate statistics
+ * as {@code hibernate.second.level.cache.requests} metrics.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Cache manager is created per application context, so contexts of tests
+     * with different settings don't share regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        properties.regions().forEach((name, region) -> cacheManager.createCache(name, configurationOf(region)));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configurationOf(SecondLevelCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (region.maxSize() != null) {
+            configuration.setMaximumSize(OptionalLong.of(region.maxSize()));
+        }
+        if (region.ttl() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.clevertec.ecl.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Regions of Hibernate second-level cache.
+ *
+ * @param regions region name to its settings, every region used by entities,
+ *                collections and cacheable queries must be listed
+ */
+@ConfigurationProperties(prefix = "second-level-cache")
+public record SecondLevelCacheProperties(@DefaultValue Map<String, Region> regions) {
+
+    /**
+     * Settings of one region.
+     *
+     * @param maxSize max number of entries, unbounded if not set
+     * @param ttl     time entry lives after it's written, doesn't expire if not set
+     */
+    public record Region(Long maxSize, Duration ttl) {
+    }
+}
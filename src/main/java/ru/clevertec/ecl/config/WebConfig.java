@@ -0,0 +1,39 @@
+package ru.clevertec.ecl.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.clevertec.ecl.dto.certificate.Facet;
+import ru.clevertec.ecl.dto.certificate.MatchMode;
+import ru.clevertec.ecl.dto.certificate.TagMatch;
+import ru.clevertec.ecl.dto.load.LoadEntity;
+import ru.clevertec.ecl.dto.load.LoadFormat;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, Facet.class, Facet::of);
+        registry.addConverter(String.class, MatchMode.class, MatchMode::of);
+        registry.addConverter(String.class, TagMatch.class, TagMatch::of);
+        registry.addConverter(String.class, LoadEntity.class, LoadEntity::of);
+        registry.addConverter(String.class, LoadFormat.class, LoadFormat::of);
+    }
+
+    /**
+     * Pages of certificates and tags have no single version to compare with,
+     * so their entity tags are hashes of response bodies. Pages are still built
+     * (mostly from caches), but unchanged ones aren't sent to clients again.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listETagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/gift-certificates", "/tags");
+        return registration;
+    }
+}
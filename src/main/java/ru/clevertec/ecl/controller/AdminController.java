@@ -0,0 +1,52 @@
+package ru.clevertec.ecl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.clevertec.ecl.dto.load.LoadEntity;
+import ru.clevertec.ecl.dto.load.LoadFormat;
+import ru.clevertec.ecl.dto.load.LoadReport;
+import ru.clevertec.ecl.service.load.CopyLoadService;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final CopyLoadService loadService;
+
+    /**
+     * Endpoint for loading large files directly into tables.
+     * <p>
+     * Whole body is loaded in one transaction, names that already exist are skipped.
+     * Columns of every entity are described in {@link LoadEntity}.
+     * <p>
+     * Examples of url:
+     * {@code /admin/import/certificates} with CSV body
+     * <pre>
+     * name,description,price,duration,tags
+     * spa,weekend in spa,120.5,14,beauty|spa
+     * </pre>
+     * {@code /admin/import/users?format=ndjson} with body {@code {"name": "john"}}
+     *
+     * @param entity {@code certificates}, {@code tags} or {@code users}
+     * @param format {@code csv} (default) with header line or {@code ndjson}
+     * @param body   request body
+     * @return numbers of read and inserted rows and rows per second
+     */
+    @PostMapping("/import/{entity}")
+    public ResponseEntity<LoadReport> load(
+            @PathVariable LoadEntity entity,
+            @RequestParam(defaultValue = "csv", name = "format") LoadFormat format,
+            InputStream body
+    ) {
+        LoadReport report = loadService.load(entity, format, body);
+        return ResponseEntity.ok(report);
+    }
+}
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,46 +13,124 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.clevertec.ecl.dto.bulk.BulkImportResponse;
+import ru.clevertec.ecl.dto.certificate.CertificateVersion;
+import ru.clevertec.ecl.dto.certificate.Facet;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
-import ru.clevertec.ecl.service.GiftCertificateService;
+import ru.clevertec.ecl.dto.certificate.MatchMode;
+import ru.clevertec.ecl.dto.certificate.TagMatch;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.exception.PreconditionFailedException;
+import ru.clevertec.ecl.service.GiftCertificateBulkService;
+import ru.clevertec.ecl.service.api.IGiftCertificateService;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping(value = "/gift-certificates")
 @RequiredArgsConstructor
 public class GiftCertificateController {
 
-    private final GiftCertificateService certificateService;
+    private final IGiftCertificateService certificateService;
+    private final GiftCertificateBulkService bulkService;
 
     /**
      * Endpoint for getting all certificates considering passed parameters.
      * All parameters are optional and can be used in conjunction.
+     * Sorting is supported by {@code id, name, price, duration, createDate, lastUpdateDate}.
      * <p>
      * Examples of url:
-     * {@code /gift-certificates?tag-name=anyName&sort-by-date=asc&sort-by-name=desc&description=beauty&page=10&size=5}
+     * {@code /gift-certificates?tag-name=beauty&tag-name=spa&min-price=10&max-price=50&sort=createDate,desc&page=10&size=5},
+     * {@code /gift-certificates?text=spa+weekend&match=fulltext},
+     * {@code /gift-certificates?tag-name=beauty&tag-name=spa&tag-match=any&sort=id,desc},
+     * {@code /gift-certificates?description=massage&facets=tags}
      *
-     * @param tagName     tag name. If it is presented then endpoint returns list of certificates
-     *                    which contains tag with such name.
+     * @param tagNames    tag names. If they are presented then endpoint returns list of certificates
+     *                    which contain tags with such names.
+     * @param tagMatch    {@code all} (default) - certificate has every tag,
+     *                    {@code any} - certificate has at least one of tags
+     * @param name        part of name in desired certificates. Case-insensitive
      * @param description part of description in desired certificates. If it's passed endpoint will return certificates
      *                    which contain passed description as substring. Case-insensitive
+     * @param text        text searched in both name and description
+     * @param match       {@code substring} (default) - case-insensitive substring of name or description,
+     *                    {@code fulltext} - all words of text, unsorted results are ordered by relevance
+     * @param minPrice    lower bound of price, inclusive
+     * @param maxPrice    upper bound of price, inclusive
+     * @param facets      {@code tags} - page additionally contains numbers of all matching certificates
+     *                    per tag name in {@code facets.tags}
      * @return list of found gift certificates
      */
     @GetMapping
     public ResponseEntity<Page<GiftCertificateResponse>> getAllCertificates(
-            @RequestParam(required = false, name = "tag-name") String tagName,
+            @RequestParam(required = false, name = "tag-name") List<String> tagNames,
+            @RequestParam(defaultValue = "all", name = "tag-match") TagMatch tagMatch,
+            @RequestParam(required = false, name = "name") String name,
             @RequestParam(required = false, name = "description") String description,
+            @RequestParam(required = false, name = "text") String text,
+            @RequestParam(defaultValue = "substring", name = "match") MatchMode match,
+            @RequestParam(required = false, name = "min-price") Double minPrice,
+            @RequestParam(required = false, name = "max-price") Double maxPrice,
+            @RequestParam(required = false, name = "facets") Set<Facet> facets,
             @PageableDefault(size = 20) Pageable pageable
     ) {
-        Page<GiftCertificateResponse> certificates = certificateService
-                .findAll(
-                        tagName,
-                        description,
-                        pageable
+        GiftCertificateFilter filter = toFilter(tagNames, tagMatch, name, description, text, match, minPrice, maxPrice);
+        Page<GiftCertificateResponse> certificates = facets == null || facets.isEmpty()
+                ? certificateService.findAll(filter, pageable)
+                : certificateService.findAllWithFacets(filter, pageable, facets);
+        return ResponseEntity.ok(certificates);
+    }
+
+    /**
+     * Endpoint for getting certificates with keyset pagination.
+     * Certificates are ordered by creation date and id. Filters are the same as in
+     * {@link #getAllCertificates(List, TagMatch, String, String, String, MatchMode, Double, Double, Set, Pageable)}, total count isn't calculated.
+     * <p>
+     * Examples of url:
+     * {@code /gift-certificates?cursor=&size=20} - first page,
+     * {@code /gift-certificates?cursor=MjAyMy0wNC0yMlQxMzoyMzo0Mlp8Mw&size=20} - next page
+     *
+     * @param tagNames    tag names filter
+     * @param tagMatch    how tag names are combined
+     * @param name        name substring filter
+     * @param description description substring filter
+     * @param text        text filter
+     * @param match       mode of text filter
+     * @param minPrice    lower bound of price, inclusive
+     * @param maxPrice    upper bound of price, inclusive
+     * @param cursor      {@code nextCursor} from previous page, empty for the first page
+     * @param size        page size, max 100
+     * @return page of certificates with cursor of the next page
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<GiftCertificateResponse>> getCertificatesByCursor(
+            @RequestParam(required = false, name = "tag-name") List<String> tagNames,
+            @RequestParam(defaultValue = "all", name = "tag-match") TagMatch tagMatch,
+            @RequestParam(required = false, name = "name") String name,
+            @RequestParam(required = false, name = "description") String description,
+            @RequestParam(required = false, name = "text") String text,
+            @RequestParam(defaultValue = "substring", name = "match") MatchMode match,
+            @RequestParam(required = false, name = "min-price") Double minPrice,
+            @RequestParam(required = false, name = "max-price") Double maxPrice,
+            @RequestParam(required = false, name = "cursor") String cursor,
+            @RequestParam(defaultValue = "20", name = "size") int size
+    ) {
+        CursorPage<GiftCertificateResponse> certificates = certificateService
+                .findAllByCursor(
+                        toFilter(tagNames, tagMatch, name, description, text, match, minPrice, maxPrice),
+                        cursor,
+                        size
                 );
         return ResponseEntity.ok(certificates);
     }
@@ -86,19 +166,58 @@ public class GiftCertificateController {
                 .build();
     }
 
+    /**
+     * Endpoint for creating many certificates at once.
+     * <p>
+     * Body is a JSON array of certificates in the same format as in {@link #createCertificate(GiftCertificateRequest)}
+     * or newline-delimited JSON ({@code application/x-ndjson}) with one certificate per line.
+     * Body is read as a stream and certificates are committed in chunks of {@code bulk-import.chunk-size},
+     * so failure of one chunk doesn't cancel already imported ones.
+     * <p>
+     * URL: {@code /gift-certificates/bulk}
+     *
+     * @param body request body
+     * @return result of every item: id of created certificate or error
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResponse> importCertificates(InputStream body) {
+        BulkImportResponse response = bulkService.importAll(body);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint for getting certificate by id.
      * <p>
+     * Response carries {@code ETag} and {@code Last-Modified} headers.
+     * Requests with {@code If-None-Match} or {@code If-Modified-Since} get 304 code(NOT_MODIFIED)
+     * when certificate wasn't changed, which is decided without loading certificate.
+     * Validators of other requests are taken from loaded certificate.
+     * <p>
      * URL: {@code /gift-certificates/{id}}
      *
-     * @param id desired certificate id
-     * @return certificate dto
+     * @param id      desired certificate id
+     * @param request request with conditional headers
+     * @return certificate dto or empty body with 304 code
      * @throws RuntimeException when object not found
      */
     @GetMapping("/{id}")
-    public ResponseEntity<GiftCertificateResponse> getCertificateById(@PathVariable Integer id) {
+    public ResponseEntity<GiftCertificateResponse> getCertificateById(@PathVariable Integer id,
+                                                                      WebRequest request) {
+        if (isConditional(request)) {
+            // version is read before certificate, so concurrent update can only make tag older than body
+            CertificateVersion version = certificateService.findVersion(id);
+            if (request.checkNotModified(version.eTag(), version.lastModified())) {
+                return null;
+            }
+            // validators of the version are already set by the check
+            return ResponseEntity.ok(certificateService.find(id));
+        }
         GiftCertificateResponse certificateDTO = certificateService.find(id);
-        return ResponseEntity.ok(certificateDTO);
+        CertificateVersion version = CertificateVersion.of(certificateDTO);
+        return ResponseEntity.ok()
+                .eTag(version.eTag())
+                .lastModified(version.lastModified())
+                .body(certificateDTO);
     }
 
     /**
@@ -130,17 +249,59 @@ public class GiftCertificateController {
      *     ]
      * }}
      * <pre/>
+     * With {@code If-Match} header holding entity tag of certificate, update is applied
+     * only if neither certificate nor names of its tags were changed since,
+     * otherwise 412 code(PRECONDITION_FAILED) is returned.
+     * Only single strong entity tag or {@code *} are supported.
+     * Response carries entity tag of updated certificate.
+     * <p>
      * URL: {@code /gift-certificates/{id}}
      *
      * @param id id of certificate to update
+     * @param ifMatch entity tag of certificate known to client
      * @param certificateRequestDTO request dto
      * @return updated certificate
      */
     @PatchMapping("/{id}")
     public ResponseEntity<GiftCertificateResponse> updateCertificate(
             @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody GiftCertificateRequest certificateRequestDTO) {
-        GiftCertificateResponse certificateDTO = certificateService.update(id, certificateRequestDTO);
-        return ResponseEntity.ok(certificateDTO);
+        GiftCertificateResponse certificateDTO;
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            certificateDTO = certificateService.update(id, certificateRequestDTO);
+        } else {
+            CertificateVersion.EntityTag expected = CertificateVersion.parseETag(ifMatch, id)
+                    .orElseThrow(() -> new PreconditionFailedException("Entity tag doesn't match certificate", id));
+            certificateDTO = certificateService.update(id, certificateRequestDTO, expected);
+        }
+        return ResponseEntity.ok()
+                .eTag(CertificateVersion.of(certificateDTO).eTag())
+                .body(certificateDTO);
+    }
+
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+               || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private static GiftCertificateFilter toFilter(List<String> tagNames,
+                                                  TagMatch tagMatch,
+                                                  String name,
+                                                  String description,
+                                                  String text,
+                                                  MatchMode match,
+                                                  Double minPrice,
+                                                  Double maxPrice) {
+        return GiftCertificateFilter.builder()
+                .tagNames(tagNames == null ? new ArrayList<>() : tagNames)
+                .tagMatch(tagMatch)
+                .name(name)
+                .description(description)
+                .text(text)
+                .match(match)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
     }
 }
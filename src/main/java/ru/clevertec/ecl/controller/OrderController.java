@@ -0,0 +1,39 @@
+package ru.clevertec.ecl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.clevertec.ecl.dto.bulk.BulkImportResponse;
+import ru.clevertec.ecl.dto.order.BulkOrderItem;
+import ru.clevertec.ecl.service.order.BulkOrderService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/orders")
+@RequiredArgsConstructor
+public class OrderController {
+
+    private final BulkOrderService bulkOrderService;
+
+    /**
+     * Endpoint for creating orders of many users at once.
+     * <p>
+     * Body is a JSON array of {@code {"userId": 1, "certificateId": 2}} items.
+     * Orders are committed in chunks of {@code bulk-order.chunk-size},
+     * so failure of one chunk doesn't cancel other ones.
+     * <p>
+     * URL: {@code /orders/batch}
+     *
+     * @param items pairs of user and certificate
+     * @return result of every item: id of created order or error
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BulkImportResponse> orderAll(@RequestBody List<BulkOrderItem> items) {
+        BulkImportResponse response = bulkOrderService.orderAll(items);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,6 +21,7 @@ import ru.clevertec.ecl.dto.tag.TagResponse;
 import ru.clevertec.ecl.service.TagService;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 
@@ -48,6 +50,9 @@ public class TagController {
     /**
      * Endpoint for getting tag by id
      * <p>
+     * Response carries {@code ETag} header, requests with matching {@code If-None-Match}
+     * get 304 code(NOT_MODIFIED). Tags have no modification date, so {@code Last-Modified} isn't sent.
+     * <p>
      * URL: {@code /tags/{id}}
      *
      * @param id id of desired tag
@@ -56,7 +61,9 @@ public class TagController {
     @GetMapping("/{id}")
     public ResponseEntity<TagResponse> getTag(@PathVariable Integer id) {
         TagResponse tag = tagService.find(id);
-        return ResponseEntity.ok(tag);
+        return ResponseEntity.ok()
+                .eTag(eTagOf(tag))
+                .body(tag);
     }
 
     /**
@@ -117,4 +124,11 @@ public class TagController {
                 .noContent()
                 .build();
     }
+
+    /**
+     * Tag is read from second-level cache, so entity tag is derived from tag itself.
+     */
+    private static String eTagOf(TagResponse tag) {
+        return tag.getId() + "-" + DigestUtils.md5DigestAsHex(tag.getName().getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -1,6 +1,7 @@
 package ru.clevertec.ecl.controller;
 
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,12 +12,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.clevertec.ecl.dto.order.BasketOrderRequest;
 import ru.clevertec.ecl.dto.order.OrderRequest;
 import ru.clevertec.ecl.dto.order.OrderResponse;
+import ru.clevertec.ecl.dto.page.CursorPage;
 import ru.clevertec.ecl.model.User;
-import ru.clevertec.ecl.service.OrderService;
 import ru.clevertec.ecl.service.UserService;
+import ru.clevertec.ecl.service.api.IOrderService;
 
 @RestController
 @RequestMapping("/users")
@@ -24,7 +28,7 @@ import ru.clevertec.ecl.service.UserService;
 public class UserController {
 
     private final UserService userService;
-    private final OrderService orderService;
+    private final IOrderService orderService;
 
     /**
      * Finds user by id.
@@ -67,6 +71,21 @@ public class UserController {
         return ResponseEntity.ok(order);
     }
 
+    /**
+     * Makes one order of many certificates for user.
+     *
+     * @param userId  user id
+     * @param request dto with ids of bought gift certificates
+     * @return order dto with line items
+     */
+    @PostMapping("/{user_id}/orders/basket")
+    public ResponseEntity<OrderResponse> makeBasketOrder(
+            @PathVariable("user_id") Integer userId,
+            @Valid @RequestBody BasketOrderRequest request) {
+        OrderResponse order = orderService.makeOrder(userId, request.getCertificateIds());
+        return ResponseEntity.ok(order);
+    }
+
     /**
      * Finds user orders by user id.
      *
@@ -81,4 +100,26 @@ public class UserController {
         Page<OrderResponse> orders = orderService.getUserOrders(userId, pageable);
         return ResponseEntity.ok(orders);
     }
-}
\ No newline at end of file
+
+    /**
+     * Finds user orders newest first with keyset pagination.
+     * Every page costs the same regardless of its depth and no total count is calculated.
+     * <p>
+     * Examples of url:
+     * {@code /users/1/orders?cursor=&size=20} - first page,
+     * {@code /users/1/orders?cursor=MjAyMy0wNC0yNlQwOToyMjo1NFp8MQ&size=20} - next page
+     *
+     * @param userId user id
+     * @param cursor {@code nextCursor} from previous page, empty for the first page
+     * @param size   page size, max 100
+     * @return page of order dto with cursor of the next page
+     */
+    @GetMapping(value = "/{user_id}/orders", params = "cursor")
+    public ResponseEntity<CursorPage<OrderResponse>> getUserOrdersByCursor(
+            @PathVariable("user_id") Integer userId,
+            @RequestParam(required = false, name = "cursor") String cursor,
+            @RequestParam(defaultValue = "20", name = "size") int size) {
+        CursorPage<OrderResponse> orders = orderService.getUserOrdersByCursor(userId, cursor, size);
+        return ResponseEntity.ok(orders);
+    }
+}
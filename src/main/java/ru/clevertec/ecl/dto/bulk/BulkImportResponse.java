@@ -0,0 +1,30 @@
+package ru.clevertec.ecl.dto.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Results of bulk import in order of items in request body.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResponse {
+
+    private int created;
+    private int failed;
+    private List<BulkItemResult> items = new ArrayList<>();
+
+    public void add(BulkItemResult result) {
+        items.add(result);
+        if (result.getError() == null) {
+            created++;
+        } else {
+            failed++;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.clevertec.ecl.dto.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of import of one item of bulk request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+
+    /**
+     * Zero-based position of item in request body.
+     */
+    private int index;
+
+    /**
+     * Id of created entity, {@code null} if item failed.
+     */
+    private Integer id;
+
+    /**
+     * Reason of failure, {@code null} if item is created.
+     */
+    private String error;
+
+    public static BulkItemResult created(int index, Integer id) {
+        return new BulkItemResult(index, id, null);
+    }
+
+    public static BulkItemResult failed(int index, String error) {
+        return new BulkItemResult(index, null, error);
+    }
+}
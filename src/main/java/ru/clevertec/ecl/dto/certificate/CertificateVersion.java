@@ -0,0 +1,85 @@
+package ru.clevertec.ecl.dto.certificate;
+
+import org.springframework.util.DigestUtils;
+import ru.clevertec.ecl.model.Tag;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Validators of certificate representation for conditional requests.
+ * <p>
+ * Entity tag is {@code <id>-<version>-<digest of tags>}: version changes with every update
+ * of certificate, digest changes when its tags are renamed.
+ *
+ * @param id           id of certificate
+ * @param version      version of certificate
+ * @param tagsDigest   MD5 of {@code id:name} of certificate tags ordered by id and joined with {@code |}
+ * @param lastModified last update date of certificate in milliseconds since epoch
+ */
+public record CertificateVersion(Integer id, long version, String tagsDigest, long lastModified) {
+
+    /**
+     * Validators of certificate that was just read or written.
+     */
+    public static CertificateVersion of(GiftCertificateResponse certificate) {
+        return new CertificateVersion(certificate.getId(),
+                certificate.getVersion(),
+                tagsDigest(certificate.getTags()),
+                certificate.getLastUpdateDate().toInstant().toEpochMilli());
+    }
+
+    /**
+     * Digest of tags computed the same way as by
+     * {@link ru.clevertec.ecl.repository.GiftCertificateRepository#findVersionById(Integer)}.
+     */
+    public static String tagsDigest(Collection<Tag> tags) {
+        String joined = tags.stream()
+                .sorted(Comparator.comparing(Tag::getId))
+                .map(tag -> tag.getId() + ":" + tag.getName())
+                .collect(Collectors.joining("|"));
+        return DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses entity tag sent by client.
+     *
+     * @param eTag strong entity tag in quotes
+     * @param id   id of certificate that entity tag must belong to
+     * @return version and digest of tags, empty if entity tag is weak or isn't an entity tag of this certificate
+     */
+    public static Optional<EntityTag> parseETag(String eTag, Integer id) {
+        String value = eTag.trim();
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            return Optional.empty();
+        }
+        String[] parts = value.substring(1, value.length() - 1).split("-");
+        if (parts.length != 3 || !parts[0].equals(String.valueOf(id))) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new EntityTag(Long.parseLong(parts[1]), parts[2]));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return strong entity tag without quotes
+     */
+    public String eTag() {
+        return id + "-" + version + "-" + tagsDigest;
+    }
+
+    /**
+     * Parts of entity tag that are compared by conditional update, both must match current ones.
+     *
+     * @param version    version of certificate
+     * @param tagsDigest digest of certificate tags
+     */
+    public record EntityTag(long version, String tagsDigest) {
+    }
+}
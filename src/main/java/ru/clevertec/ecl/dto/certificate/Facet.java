@@ -0,0 +1,29 @@
+package ru.clevertec.ecl.dto.certificate;
+
+import java.util.Locale;
+
+/**
+ * Facets that can be counted alongside certificate search results.
+ */
+public enum Facet {
+
+    /**
+     * Number of matching certificates per tag name.
+     */
+    TAGS;
+
+    /**
+     * Parses facet from its case-insensitive name.
+     *
+     * @param value name of facet, e.g. {@code tags}
+     * @return facet
+     * @throws IllegalArgumentException if there is no facet with such name
+     */
+    public static Facet of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.clevertec.ecl.dto.certificate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search criteria of certificates. All fields are optional,
+ * only passed ones are turned into predicates.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GiftCertificateFilter {
+
+    /**
+     * Tags of certificate, combined according to {@link #tagMatch}.
+     */
+    @Builder.Default
+    private List<String> tagNames = new ArrayList<>();
+
+    @Builder.Default
+    private TagMatch tagMatch = TagMatch.ALL;
+
+    /**
+     * Substring of certificate name, case-insensitive.
+     */
+    private String name;
+
+    /**
+     * Substring of certificate description, case-insensitive.
+     */
+    private String description;
+
+    /**
+     * Text searched in both name and description according to {@link #match}.
+     */
+    private String text;
+
+    @Builder.Default
+    private MatchMode match = MatchMode.SUBSTRING;
+
+    private Double minPrice;
+    private Double maxPrice;
+}
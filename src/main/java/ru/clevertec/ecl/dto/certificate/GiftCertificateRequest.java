@@ -11,7 +11,6 @@ import lombok.Setter;
 import lombok.ToString;
 import ru.clevertec.ecl.model.Tag;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Getter
@@ -31,5 +30,9 @@ public class GiftCertificateRequest {
 
     @Positive
     private Integer duration;
-    private List<Tag> tags = new ArrayList<>();
+
+    /**
+     * {@code null} if tags weren't passed: they are kept by update and certificate is created without tags.
+     */
+    private List<Tag> tags;
 }
@@ -1,6 +1,7 @@
 package ru.clevertec.ecl.dto.certificate;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -36,4 +37,24 @@ public class GiftCertificateResponse {
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-YYYY hh:mm:ss", timezone = "UTC")
     private ZonedDateTime lastUpdateDate;
+
+    /**
+     * Version of certificate, it's sent in {@code ETag} header instead of body.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
+    /**
+     * Constructor for JPQL projections, tags are attached afterwards.
+     */
+    public GiftCertificateResponse(Integer id,
+                                   String name,
+                                   Double price,
+                                   String description,
+                                   Integer duration,
+                                   ZonedDateTime createDate,
+                                   ZonedDateTime lastUpdateDate) {
+        this(id, name, price, description, duration, new ArrayList<>(), createDate, lastUpdateDate, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package ru.clevertec.ecl.dto.certificate;
+
+import java.util.Locale;
+
+/**
+ * Mode of matching {@link GiftCertificateFilter#getText()} against certificate name and description.
+ */
+public enum MatchMode {
+
+    /**
+     * Case-insensitive substring of name or description.
+     */
+    SUBSTRING,
+
+    /**
+     * All words of the text are present in name or description.
+     * Results are ordered by relevance unless other sort is requested.
+     */
+    FULLTEXT;
+
+    /**
+     * Parses mode from its case-insensitive name.
+     *
+     * @param value name of mode, e.g. {@code fulltext}
+     * @return mode
+     * @throws IllegalArgumentException if there is no mode with such name
+     */
+    public static MatchMode of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
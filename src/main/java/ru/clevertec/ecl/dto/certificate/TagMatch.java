@@ -0,0 +1,30 @@
+package ru.clevertec.ecl.dto.certificate;
+
+import java.util.Locale;
+
+/**
+ * How {@link GiftCertificateFilter#getTagNames()} are combined.
+ */
+public enum TagMatch {
+
+    /**
+     * Certificate has every tag.
+     */
+    ALL,
+
+    /**
+     * Certificate has at least one of tags.
+     */
+    ANY;
+
+    /**
+     * Parses match from its case-insensitive name.
+     *
+     * @param value name of match, e.g. {@code any}
+     * @return tag match
+     * @throws IllegalArgumentException if there is no match with such name
+     */
+    public static TagMatch of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,38 @@
+package ru.clevertec.ecl.dto.load;
+
+import java.util.Locale;
+
+/**
+ * Table loaded by {@link ru.clevertec.ecl.service.load.CopyLoadService}.
+ * Columns of CSV header and fields of NDJSON objects are listed for every table.
+ */
+public enum LoadEntity {
+
+    /**
+     * {@code name, description, price, duration, tags}, where CSV tags are separated with {@code |}
+     * and NDJSON tags are array of names or of objects with name.
+     * Missing tags are created.
+     */
+    CERTIFICATES,
+
+    /**
+     * {@code name}, existing names are skipped.
+     */
+    TAGS,
+
+    /**
+     * {@code name}, existing names are skipped.
+     */
+    USERS;
+
+    /**
+     * Parses entity from its case-insensitive name.
+     *
+     * @param value name of entity, e.g. {@code certificates}
+     * @return entity
+     * @throws IllegalArgumentException if there is no entity with such name
+     */
+    public static LoadEntity of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
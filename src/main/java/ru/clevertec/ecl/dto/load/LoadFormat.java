@@ -0,0 +1,30 @@
+package ru.clevertec.ecl.dto.load;
+
+import java.util.Locale;
+
+/**
+ * Format of input of {@link ru.clevertec.ecl.service.load.CopyLoadService}.
+ */
+public enum LoadFormat {
+
+    /**
+     * Comma-separated values with header line.
+     */
+    CSV,
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON;
+
+    /**
+     * Parses format from its case-insensitive name.
+     *
+     * @param value name of format, e.g. {@code ndjson}
+     * @return format
+     * @throws IllegalArgumentException if there is no format with such name
+     */
+    public static LoadFormat of(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
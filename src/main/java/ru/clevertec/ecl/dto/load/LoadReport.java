@@ -0,0 +1,29 @@
+package ru.clevertec.ecl.dto.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one load.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadReport {
+
+    private LoadEntity entity;
+    private LoadFormat format;
+
+    /**
+     * Number of rows copied from input.
+     */
+    private long rowsRead;
+
+    /**
+     * Number of rows inserted into target table, rows with existing names aren't counted.
+     */
+    private long rowsInserted;
+    private long millis;
+    private long rowsPerSecond;
+}
@@ -0,0 +1,21 @@
+package ru.clevertec.ecl.dto.order;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BasketOrderRequest {
+
+    /**
+     * Ids of bought certificates, certificate may be repeated to buy it several times.
+     */
+    @NotEmpty
+    private List<@NotNull Integer> certificateIds;
+}
@@ -0,0 +1,14 @@
+package ru.clevertec.ecl.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOrderItem {
+
+    private Integer userId;
+    private Integer certificateId;
+}
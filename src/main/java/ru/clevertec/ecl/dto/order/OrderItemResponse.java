@@ -0,0 +1,15 @@
+package ru.clevertec.ecl.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemResponse {
+
+    private Integer certificateId;
+    private Double price;
+    private Integer quantity;
+}
@@ -4,10 +4,14 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class OrderResponse {
 
@@ -16,4 +20,14 @@ public class OrderResponse {
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-YYYY hh:mm:ss", timezone = "UTC")
     private ZonedDateTime purchaseDate;
+
+    /**
+     * Line items of order with many certificates, empty for single certificate order.
+     */
+    private List<OrderItemResponse> items = new ArrayList<>();
+
+    public OrderResponse(Double totalCost, ZonedDateTime purchaseDate) {
+        this.totalCost = totalCost;
+        this.purchaseDate = purchaseDate;
+    }
 }
@@ -0,0 +1,29 @@
+package ru.clevertec.ecl.dto.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Page of results for keyset (seek) pagination.
+ * <p>
+ * Unlike {@link org.springframework.data.domain.Page} it carries no total count,
+ * only an opaque cursor that points right after the last element of the page.
+ *
+ * @param <T> type of page content
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content = new ArrayList<>();
+
+    /**
+     * Cursor for requesting the next page, {@code null} when there are no more elements.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,30 @@
+package ru.clevertec.ecl.dto.page;
+
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of results with counts of all matching elements grouped by facet values.
+ * <p>
+ * Serialized as usual page with additional field, e.g.
+ * {@code "facets": {"tags": {"beauty": 1204, "spa": 380}}}.
+ *
+ * @param <T> type of page content
+ */
+@Getter
+public class FacetedPage<T> extends PageImpl<T> {
+
+    /**
+     * Facet name to counts of matching elements by facet value.
+     */
+    private final Map<String, Map<String, Long>> facets;
+
+    public FacetedPage(List<T> content, Pageable pageable, long total, Map<String, Map<String, Long>> facets) {
+        super(content, pageable, total);
+        this.facets = facets;
+    }
+}
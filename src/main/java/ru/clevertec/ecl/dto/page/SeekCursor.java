@@ -0,0 +1,59 @@
+package ru.clevertec.ecl.dto.page;
+
+import ru.clevertec.ecl.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a result set ordered by {@code (timestamp, id)}.
+ * Clients receive it as an opaque url-safe token.
+ *
+ * @param timestamp value of the timestamp sort key of the last seen row
+ * @param id        id of the last seen row
+ */
+public record SeekCursor(Instant timestamp, Integer id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static SeekCursor of(ZonedDateTime timestamp, Integer id) {
+        return new SeekCursor(timestamp.toInstant(), id);
+    }
+
+    /**
+     * Decodes cursor token.
+     *
+     * @param token token previously returned by {@link #encode()}
+     * @return decoded cursor
+     * @throws InvalidCursorException if token is malformed
+     */
+    public static SeekCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidCursorException("Malformed cursor", token);
+            }
+            Instant timestamp = Instant.parse(decoded.substring(0, separatorIndex));
+            Integer id = Integer.valueOf(decoded.substring(separatorIndex + 1));
+            return new SeekCursor(timestamp, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed cursor", token);
+        }
+    }
+
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ZonedDateTime zonedTimestamp() {
+        return ZonedDateTime.ofInstant(timestamp, ZoneOffset.UTC);
+    }
+}
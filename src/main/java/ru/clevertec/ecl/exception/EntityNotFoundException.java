@@ -2,13 +2,17 @@ package ru.clevertec.ecl.exception;
 
 import lombok.Getter;
 
+/**
+ * Thrown when requested entity doesn't exist.
+ * It's an expected outcome of lookups, so stack trace isn't captured.
+ */
 @Getter
 public class EntityNotFoundException extends RuntimeException {
 
     private final Integer requestedId;
 
     public EntityNotFoundException(String message, Integer requestedId) {
-        super(message);
+        super(message, null, false, false);
         this.requestedId = requestedId;
     }
 }
@@ -0,0 +1,14 @@
+package ru.clevertec.ecl.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InvalidCursorException extends RuntimeException {
+
+    private final String cursor;
+
+    public InvalidCursorException(String message, String cursor) {
+        super(message);
+        this.cursor = cursor;
+    }
+}
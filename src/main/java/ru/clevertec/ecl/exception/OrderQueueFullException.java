@@ -0,0 +1,14 @@
+package ru.clevertec.ecl.exception;
+
+import lombok.Getter;
+
+@Getter
+public class OrderQueueFullException extends RuntimeException {
+
+    private final int capacity;
+
+    public OrderQueueFullException(String message, int capacity) {
+        super(message);
+        this.capacity = capacity;
+    }
+}
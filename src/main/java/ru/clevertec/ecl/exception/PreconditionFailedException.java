@@ -0,0 +1,17 @@
+package ru.clevertec.ecl.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when conditional update doesn't match current version of entity.
+ */
+@Getter
+public class PreconditionFailedException extends RuntimeException {
+
+    private final Integer requestedId;
+
+    public PreconditionFailedException(String message, Integer requestedId) {
+        super(message);
+        this.requestedId = requestedId;
+    }
+}
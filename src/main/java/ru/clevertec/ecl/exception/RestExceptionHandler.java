@@ -1,5 +1,7 @@
 package ru.clevertec.ecl.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -19,6 +21,82 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(new ErrorEntity(errorCode, errorMessage));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    protected ResponseEntity<ErrorEntity> handleInvalidCursorException(InvalidCursorException ex) {
+        String errorMessage = ex.getMessage() + " (cursor = " + ex.getCursor() + ")";
+        Integer statusCode = 400;
+        String errorCode = String.valueOf(statusCode);
+        return ResponseEntity
+                .status(statusCode)
+                .body(new ErrorEntity(errorCode, errorMessage));
+    }
+
+    @ExceptionHandler(UnsupportedSortException.class)
+    protected ResponseEntity<ErrorEntity> handleUnsupportedSortException(UnsupportedSortException ex) {
+        String errorMessage = ex.getMessage() + " (property = " + ex.getProperty() + ")";
+        Integer statusCode = 400;
+        String errorCode = String.valueOf(statusCode);
+        return ResponseEntity
+                .status(statusCode)
+                .body(new ErrorEntity(errorCode, errorMessage));
+    }
+
+    @ExceptionHandler(TagAlreadyExistsException.class)
+    protected ResponseEntity<ErrorEntity> handleTagAlreadyExistsException(TagAlreadyExistsException ex) {
+        String errorMessage = ex.getMessage() + " (name = " + ex.getName() + ")";
+        Integer statusCode = 409;
+        String errorCode = String.valueOf(statusCode);
+        return ResponseEntity
+                .status(statusCode)
+                .body(new ErrorEntity(errorCode, errorMessage));
+    }
+
+    /**
+     * Constraint violations left to database, e.g. delete of certificate that is ordered.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    protected ResponseEntity<ErrorEntity> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        String errorMessage = "Request conflicts with existing data";
+        Integer statusCode = 409;
+        String errorCode = String.valueOf(statusCode);
+        return ResponseEntity
+                .status(statusCode)
+                .body(new ErrorEntity(errorCode, errorMessage));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    protected ResponseEntity<ErrorEntity> handlePreconditionFailedException(PreconditionFailedException ex) {
+        String errorMessage = ex.getMessage() + " (id = " + ex.getRequestedId() + ")";
+        Integer statusCode = 412;
+        String errorCode = String.valueOf(statusCode);
+        return ResponseEntity
+                .status(statusCode)
+                .body(new ErrorEntity(errorCode, errorMessage));
+    }
+
+    /**
+     * Versioned entity was changed concurrently between its read and write, e.g. certificate updated during its delete.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    protected ResponseEntity<ErrorEntity> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        String errorMessage = "Entity was changed by another request";
+        Integer statusCode = 409;
+        String errorCode = String.valueOf(statusCode);
+        return ResponseEntity
+                .status(statusCode)
+                .body(new ErrorEntity(errorCode, errorMessage));
+    }
+
+    @ExceptionHandler(OrderQueueFullException.class)
+    protected ResponseEntity<ErrorEntity> handleOrderQueueFullException(OrderQueueFullException ex) {
+        String errorMessage = ex.getMessage() + " (capacity = " + ex.getCapacity() + ")";
+        Integer statusCode = 503;
+        String errorCode = String.valueOf(statusCode);
+        return ResponseEntity
+                .status(statusCode)
+                .body(new ErrorEntity(errorCode, errorMessage));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     protected ResponseEntity<ErrorEntity> handleRuntimeException(RuntimeException ex) {
         String errorMessage = "Internal error: " + ex.getMessage();
@@ -0,0 +1,14 @@
+package ru.clevertec.ecl.exception;
+
+import lombok.Getter;
+
+@Getter
+public class UnsupportedSortException extends RuntimeException {
+
+    private final String property;
+
+    public UnsupportedSortException(String message, String property) {
+        super(message);
+        this.property = property;
+    }
+}
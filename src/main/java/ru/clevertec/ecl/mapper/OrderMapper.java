@@ -1,17 +1,41 @@
 package ru.clevertec.ecl.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.clevertec.ecl.dto.order.OrderItemResponse;
 import ru.clevertec.ecl.dto.order.OrderRequest;
 import ru.clevertec.ecl.dto.order.OrderResponse;
 import ru.clevertec.ecl.model.Order;
+import ru.clevertec.ecl.model.OrderItem;
 import ru.clevertec.ecl.model.Tag;
+import ru.clevertec.ecl.repository.projection.OrderHistoryView;
+
+import java.util.List;
 
 
 @Mapper
 public interface OrderMapper {
 
+    /**
+     * Maps order without line items, so lazy items aren't loaded.
+     */
+    @Mapping(target = "items", ignore = true)
     OrderResponse toResponse(Order order);
 
+    @Mapping(target = "items", ignore = true)
+    OrderResponse toResponse(OrderHistoryView order);
+
+    List<OrderItemResponse> toItemResponses(List<OrderItem> items);
+
+    /**
+     * Maps order with its line items.
+     */
+    default OrderResponse toResponseWithItems(Order order) {
+        OrderResponse response = toResponse(order);
+        response.setItems(toItemResponses(order.getItems()));
+        return response;
+    }
+
     OrderRequest toRequest(Order order);
 
     Order toEntity(OrderRequest request);
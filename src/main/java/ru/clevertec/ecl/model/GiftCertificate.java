@@ -1,7 +1,7 @@
 package ru.clevertec.ecl.model;
 
 
-import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -11,12 +11,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -31,11 +36,21 @@ import java.util.List;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "gift_certificates")
 @Table(name = "gift_certificates", schema = "gift_shop")
 public class GiftCertificate {
 
+    /**
+     * Number of ids behind every value of {@code gift_certificates_id_seq}:
+     * value of sequence is the first id of the block.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gift_certificates_id_seq")
+    @SequenceGenerator(name = "gift_certificates_id_seq", sequenceName = "gift_certificates_id_seq", schema = "gift_shop",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Integer id;
     private String name;
     private String description;
@@ -50,10 +65,29 @@ public class GiftCertificate {
     @UpdateTimestamp
     private ZonedDateTime lastUpdateDate;
 
-    @ManyToMany(cascade = {CascadeType.ALL}, fetch = FetchType.EAGER)
+    /**
+     * Incremented by every update. Conditional updates compare it in {@code WHERE} clause
+     * instead of reading certificate first.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Tags are loaded lazily. Pages of certificates initialize them with one batched
+     * select per page (page size is limited by {@code spring.data.web.pageable.max-page-size}),
+     * single certificate reads take them from second-level cache. Cached collection holds only
+     * ids of tags, tags themselves are cached in their own region.
+     * <p>
+     * Tags aren't cascaded: they are shared between certificates and are resolved
+     * by {@link ru.clevertec.ecl.service.TagService#findOrCreateAll} before certificate is saved.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "gift_certificate_tag", schema = "gift_shop",
             joinColumns = @JoinColumn(name = "gift_certificate_id"),
             inverseJoinColumns = @JoinColumn(name = "tag_id"))
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "gift_certificate_tags")
+    @ToString.Exclude
     @Builder.Default
     private List<Tag> tags = new ArrayList<>();
 
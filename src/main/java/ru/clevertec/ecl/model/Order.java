@@ -1,21 +1,28 @@
 package ru.clevertec.ecl.model;
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @Entity
@@ -25,15 +32,21 @@ import java.time.ZonedDateTime;
 @Table(name = "orders", schema = "gift_shop")
 public class Order {
 
+    /**
+     * Orders are inserted with SQL that takes id from column default,
+     * so ids aren't allocated in blocks.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_seq")
+    @SequenceGenerator(name = "orders_id_seq", sequenceName = "orders_id_seq", schema = "gift_shop",
+            allocationSize = 1)
     private Integer id;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "certificate_id", referencedColumnName = "id")
     private GiftCertificate certificate;
 
@@ -43,4 +56,16 @@ public class Order {
 
     @Column(name = "total_cost")
     private Double totalCost;
+
+    /**
+     * Line items of order with many certificates, empty for order of single {@link #certificate}.
+     * Items are inserted together with order by
+     * {@link ru.clevertec.ecl.repository.OrderInsertRepository#insertBasketOrder}.
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "order_certificate", schema = "gift_shop",
+            joinColumns = @JoinColumn(name = "order_id"))
+    @ToString.Exclude
+    @Builder.Default
+    private List<OrderItem> items = new ArrayList<>();
 }
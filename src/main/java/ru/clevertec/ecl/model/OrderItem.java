@@ -0,0 +1,24 @@
+package ru.clevertec.ecl.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Line item of order: certificate bought at its price at the moment of purchase.
+ */
+@Data
+@Builder
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItem {
+
+    @Column(name = "certificate_id")
+    private Integer certificateId;
+    private Double price;
+    private Integer quantity;
+}
@@ -0,0 +1,30 @@
+package ru.clevertec.ecl.repository;
+
+import ru.clevertec.ecl.model.GiftCertificate;
+
+import java.util.List;
+
+/**
+ * Plain JDBC writes of many certificates.
+ * <p>
+ * Ids of certificates are reserved from the id sequence in advance and certificates
+ * with their tag links are sent in JDBC batches without entity overhead.
+ */
+public interface GiftCertificateBulkRepository {
+
+    /**
+     * Reserves ids for new certificates with one select of id sequence.
+     *
+     * @param count number of ids
+     * @return reserved ids
+     */
+    List<Integer> reserveIds(int count);
+
+    /**
+     * Inserts certificates and links to their tags in batches.
+     * Persistence context isn't aware of inserted rows.
+     *
+     * @param certificates certificates with reserved ids, timestamps and existing tags
+     */
+    void insertAll(List<GiftCertificate> certificates);
+}
@@ -0,0 +1,73 @@
+package ru.clevertec.ecl.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.clevertec.ecl.model.GiftCertificate;
+import ru.clevertec.ecl.model.Tag;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class GiftCertificateBulkRepositoryImpl implements GiftCertificateBulkRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String RESERVE_ID_BLOCKS = """
+            SELECT nextval('gift_shop.gift_certificates_id_seq')
+            FROM generate_series(1, ?)
+            """;
+
+    private static final String INSERT_CERTIFICATE = """
+            INSERT INTO gift_shop.gift_certificates
+                (id, name, description, price, duration, create_date, last_update_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_TAG_LINK = """
+            INSERT INTO gift_shop.gift_certificate_tag (gift_certificate_id, tag_id)
+            VALUES (?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves blocks of ids the same way as Hibernate id generator does,
+     * so reserved ids don't interleave with ids of entities saved concurrently.
+     */
+    @Override
+    public List<Integer> reserveIds(int count) {
+        int blocks = (count + GiftCertificate.ID_ALLOCATION_SIZE - 1) / GiftCertificate.ID_ALLOCATION_SIZE;
+        List<Integer> ids = new ArrayList<>(count);
+        for (Integer first : jdbcTemplate.queryForList(RESERVE_ID_BLOCKS, Integer.class, blocks)) {
+            for (int i = 0; i < GiftCertificate.ID_ALLOCATION_SIZE && ids.size() < count; i++) {
+                ids.add(first + i);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void insertAll(List<GiftCertificate> certificates) {
+        jdbcTemplate.batchUpdate(INSERT_CERTIFICATE, certificates, BATCH_SIZE, (ps, certificate) -> {
+            ps.setInt(1, certificate.getId());
+            ps.setString(2, certificate.getName());
+            ps.setString(3, certificate.getDescription());
+            ps.setDouble(4, certificate.getPrice());
+            ps.setInt(5, certificate.getDuration());
+            ps.setObject(6, certificate.getCreateDate().toOffsetDateTime(), Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setObject(7, certificate.getLastUpdateDate().toOffsetDateTime(), Types.TIMESTAMP_WITH_TIMEZONE);
+        });
+        List<int[]> links = new ArrayList<>();
+        for (GiftCertificate certificate : certificates) {
+            for (Tag tag : certificate.getTags()) {
+                links.add(new int[]{certificate.getId(), tag.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TAG_LINK, links, BATCH_SIZE, (ps, link) -> {
+            ps.setInt(1, link[0]);
+            ps.setInt(2, link[1]);
+        });
+    }
+}
@@ -1,22 +1,79 @@
 package ru.clevertec.ecl.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
-import org.springframework.stereotype.Repository;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
 import ru.clevertec.ecl.model.GiftCertificate;
+import ru.clevertec.ecl.repository.projection.CertificateTagView;
+import ru.clevertec.ecl.repository.projection.CertificateVersionView;
 
-public interface GiftCertificateRepository extends JpaRepository<GiftCertificate, Integer> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface GiftCertificateRepository extends JpaRepository<GiftCertificate, Integer>,
+        GiftCertificateSearchRepository, GiftCertificateBulkRepository, GiftCertificateUpdateRepository {
+
+    /**
+     * Finds tags of all passed certificates in one select.
+     */
+    @Query("""
+            SELECT new ru.clevertec.ecl.repository.projection.CertificateTagView(gc.id, t.id, t.name)
+            FROM GiftCertificate gc
+            JOIN gc.tags t
+            WHERE gc.id IN :ids
+            """)
+    List<CertificateTagView> findTagsByCertificateIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Finds certificates with passed ids as response DTOs, tags aren't filled.
+     */
+    @Query("""
+            SELECT new ru.clevertec.ecl.dto.certificate.GiftCertificateResponse(
+                gc.id, gc.name, gc.price, gc.description, gc.duration, gc.createDate, gc.lastUpdateDate)
+            FROM GiftCertificate gc
+            WHERE gc.id IN :ids
+            """)
+    List<GiftCertificateResponse> findResponsesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Finds what identifies current representation of certificate in one select
+     * without loading certificate and its tags into persistence context.
+     */
+    @Query(value = """
+            SELECT gc.version AS "version",
+                   CAST(FLOOR(EXTRACT(EPOCH FROM gc.last_update_date) * 1000) AS BIGINT) AS "lastModified",
+                   md5(COALESCE(string_agg(t.id || ':' || t.name, '|' ORDER BY t.id), '')) AS "tagsDigest"
+            FROM gift_shop.gift_certificates gc
+            LEFT JOIN gift_shop.gift_certificate_tag gct ON gct.gift_certificate_id = gc.id
+            LEFT JOIN gift_shop.tags t ON t.id = gct.tag_id
+            WHERE gc.id = :id
+            GROUP BY gc.id
+            """, nativeQuery = true)
+    Optional<CertificateVersionView> findVersionById(@Param("id") Integer id);
+
+    /**
+     * Finds which of passed certificates exist in one select.
+     */
+    @Query("SELECT gc.id FROM GiftCertificate gc WHERE gc.id IN :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Streams all links between certificates and tags.
+     * Must be consumed inside of transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
     @Query("""
-            SELECT gc FROM GiftCertificate gc
-            LEFT JOIN gc.tags t
-            WHERE (:tag_name IS NULL OR t.name = :tag_name)
-            AND (:description IS NULL OR gc.description LIKE %:description%)
+            SELECT new ru.clevertec.ecl.repository.projection.CertificateTagView(gc.id, t.id, t.name)
+            FROM GiftCertificate gc
+            JOIN gc.tags t
             """)
-    Page<GiftCertificate> findAll(@Param("tag_name") String tagName,
-                                  @Param("description") String description,
-                                  Pageable pageable);
+    Stream<CertificateTagView> streamAllTagLinks();
 }
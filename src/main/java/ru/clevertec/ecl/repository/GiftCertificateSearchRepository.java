@@ -0,0 +1,49 @@
+package ru.clevertec.ecl.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.page.SeekCursor;
+
+import java.util.Map;
+
+/**
+ * Dynamic search of certificates. Every query contains only predicates and joins
+ * of passed filter fields, so each filter shape gets its own execution plan.
+ * Results are DTO projections without tags.
+ */
+public interface GiftCertificateSearchRepository {
+
+    /**
+     * Finds page of certificates matching filter.
+     *
+     * @param filter   search criteria
+     * @param pageable pageable, sort properties are limited to
+     *                 {@code id, name, price, duration, createDate, lastUpdateDate}
+     * @return page of certificates
+     * @throws ru.clevertec.ecl.exception.UnsupportedSortException if sort property isn't supported
+     */
+    Page<GiftCertificateResponse> search(GiftCertificateFilter filter, Pageable pageable);
+
+    /**
+     * Finds slice of certificates matching filter in {@code (createDate, id)} order
+     * that follow cursor position. Doesn't run count query.
+     *
+     * @param filter search criteria
+     * @param after  position to seek after, {@code null} for the first slice
+     * @param size   slice size
+     * @return slice of certificates
+     */
+    Slice<GiftCertificateResponse> searchAfter(GiftCertificateFilter filter, SeekCursor after, int size);
+
+    /**
+     * Counts certificates matching filter per tag name in one grouped query.
+     *
+     * @param filter search criteria
+     * @return tag name to number of matching certificates with this tag,
+     * ordered by number descending
+     */
+    Map<String, Long> countByTag(GiftCertificateFilter filter);
+}
@@ -0,0 +1,242 @@
+package ru.clevertec.ecl.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.certificate.MatchMode;
+import ru.clevertec.ecl.dto.certificate.TagMatch;
+import ru.clevertec.ecl.dto.page.SeekCursor;
+import ru.clevertec.ecl.exception.UnsupportedSortException;
+import ru.clevertec.ecl.model.GiftCertificate;
+import ru.clevertec.ecl.model.Tag;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class GiftCertificateSearchRepositoryImpl implements GiftCertificateSearchRepository {
+
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "id", "name", "price", "duration", "createDate", "lastUpdateDate"
+    );
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<GiftCertificateResponse> search(GiftCertificateFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GiftCertificateResponse> query = cb.createQuery(GiftCertificateResponse.class);
+        Root<GiftCertificate> root = query.from(GiftCertificate.class);
+        query.select(responseOf(cb, root))
+                .where(predicates(cb, query, root, filter).toArray(Predicate[]::new))
+                .orderBy(orders(cb, root, filter, pageable.getSort()));
+
+        TypedQuery<GiftCertificateResponse> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<GiftCertificateResponse> content = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Slice<GiftCertificateResponse> searchAfter(GiftCertificateFilter filter, SeekCursor after, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GiftCertificateResponse> query = cb.createQuery(GiftCertificateResponse.class);
+        Root<GiftCertificate> root = query.from(GiftCertificate.class);
+        List<Predicate> predicates = predicates(cb, query, root, filter);
+        Path<ZonedDateTime> createDate = root.get("createDate");
+        Path<Integer> id = root.get("id");
+        if (after != null) {
+            ZonedDateTime afterDate = after.zonedTimestamp();
+            predicates.add(cb.or(
+                    cb.greaterThan(createDate, afterDate),
+                    cb.and(cb.equal(createDate, afterDate), cb.greaterThan(id, after.id()))
+            ));
+        }
+        query.select(responseOf(cb, root))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(createDate), cb.asc(id));
+
+        List<GiftCertificateResponse> content = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = content.size() > size;
+        List<GiftCertificateResponse> sliceContent = hasNext
+                ? content.subList(0, size)
+                : content;
+        return new SliceImpl<>(sliceContent, PageRequest.ofSize(size), hasNext);
+    }
+
+    @Override
+    public Map<String, Long> countByTag(GiftCertificateFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<GiftCertificate> root = query.from(GiftCertificate.class);
+        Join<GiftCertificate, Tag> tag = root.join("tags");
+        Path<String> tagName = tag.get("name");
+        Expression<Long> count = cb.count(root);
+        query.multiselect(tagName, count)
+                .where(predicates(cb, query, root, filter).toArray(Predicate[]::new))
+                .groupBy(tagName)
+                .orderBy(cb.desc(count), cb.asc(tagName));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(row.get(tagName), row.get(count));
+        }
+        return counts;
+    }
+
+    private long count(GiftCertificateFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<GiftCertificate> root = query.from(GiftCertificate.class);
+        query.select(cb.count(root))
+                .where(predicates(cb, query, root, filter).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb,
+                                              AbstractQuery<?> query,
+                                              Root<GiftCertificate> root,
+                                              GiftCertificateFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getTagNames() != null && !filter.getTagNames().isEmpty()) {
+            predicates.add(root.get("id").in(certificatesWithTags(cb, query, filter.getTagNames(), filter.getTagMatch())));
+        }
+        if (filter.getName() != null) {
+            predicates.add(containsIgnoreCase(cb, root.get("name"), filter.getName()));
+        }
+        if (filter.getDescription() != null) {
+            predicates.add(containsIgnoreCase(cb, root.get("description"), filter.getDescription()));
+        }
+        if (isFullText(filter)) {
+            predicates.add(cb.isTrue(cb.function("fts_match", Boolean.class,
+                    root.get("name"), root.get("description"), cb.literal(filter.getText()))));
+        } else if (filter.getText() != null) {
+            predicates.add(cb.or(
+                    containsIgnoreCase(cb, root.get("name"), filter.getText()),
+                    containsIgnoreCase(cb, root.get("description"), filter.getText())
+            ));
+        }
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+        }
+        return predicates;
+    }
+
+    /**
+     * Subquery of ids of certificates that have every passed tag or any of them.
+     */
+    private static Subquery<Integer> certificatesWithTags(CriteriaBuilder cb,
+                                                          AbstractQuery<?> query,
+                                                          List<String> tagNames,
+                                                          TagMatch match) {
+        Set<String> distinctNames = new LinkedHashSet<>(tagNames);
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Root<GiftCertificate> certificate = subquery.from(GiftCertificate.class);
+        Join<GiftCertificate, Tag> tag = certificate.join("tags");
+        Path<Integer> certificateId = certificate.get("id");
+        subquery.select(certificateId);
+        if (distinctNames.size() == 1) {
+            subquery.where(cb.equal(tag.get("name"), distinctNames.iterator().next()));
+        } else if (match == TagMatch.ANY) {
+            subquery.where(tag.get("name").in(distinctNames));
+        } else {
+            subquery.where(tag.get("name").in(distinctNames))
+                    .groupBy(certificateId)
+                    .having(cb.equal(cb.countDistinct(tag.get("id")), (long) distinctNames.size()));
+        }
+        return subquery;
+    }
+
+    private static List<Order> orders(CriteriaBuilder cb,
+                                      Root<GiftCertificate> root,
+                                      GiftCertificateFilter filter,
+                                      Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        if (sort.isUnsorted() && isFullText(filter)) {
+            orders.add(cb.desc(cb.function("fts_rank", Double.class,
+                    root.get("name"), root.get("description"), cb.literal(filter.getText()))));
+        }
+        boolean orderedById = false;
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            if (!SORTABLE_PROPERTIES.contains(property)) {
+                throw new UnsupportedSortException("Sorting by this property isn't supported", property);
+            }
+            Path<?> path = root.get(property);
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+            orderedById |= "id".equals(property);
+        }
+        if (!orderedById) {
+            // makes order of rows with equal sort keys stable between pages
+            orders.add(cb.asc(root.get("id")));
+        }
+        return orders;
+    }
+
+    private static CompoundSelection<GiftCertificateResponse> responseOf(CriteriaBuilder cb,
+                                                                         Root<GiftCertificate> root) {
+        return cb.construct(GiftCertificateResponse.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("price"),
+                root.get("description"),
+                root.get("duration"),
+                root.get("createDate"),
+                root.get("lastUpdateDate"));
+    }
+
+    /**
+     * Renders {@code lower(column) LIKE '%value%'} that is served by trigram index on {@code lower(column)}.
+     */
+    private static Predicate containsIgnoreCase(CriteriaBuilder cb, Path<String> path, String value) {
+        return cb.like(cb.lower(path), containsPattern(value.toLowerCase(Locale.ROOT)), LIKE_ESCAPE);
+    }
+
+    private static boolean isFullText(GiftCertificateFilter filter) {
+        return filter.getText() != null && filter.getMatch() == MatchMode.FULLTEXT;
+    }
+
+    private static String containsPattern(String value) {
+        String escaped = value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,51 @@
+package ru.clevertec.ecl.repository;
+
+import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Plain JDBC updates of certificate by id without loading it into persistence context.
+ * <p>
+ * Changed certificate is evicted from second-level cache right away and again after
+ * transaction is completed, so methods must be called inside of transaction.
+ */
+public interface GiftCertificateUpdateRepository {
+
+    /**
+     * Updates passed fields of certificate with one statement that sets only their columns.
+     * Version is incremented and last update date is set to current time.
+     *
+     * @param id      id of certificate
+     * @param request new values, {@code null} fields are kept, tags are ignored
+     * @return updated certificate with its current tags; empty optional if certificate doesn't exist
+     */
+    Optional<GiftCertificateResponse> updateFields(Integer id, GiftCertificateRequest request);
+
+    /**
+     * Updates passed fields of certificate the same way as {@link #updateFields(Integer, GiftCertificateRequest)}
+     * if certificate still has expected version and its tags still have expected digest.
+     *
+     * @param id         id of certificate
+     * @param version    expected version of certificate
+     * @param tagsDigest expected digest of tags, see {@link ru.clevertec.ecl.dto.certificate.CertificateVersion}
+     * @param request    new values, {@code null} fields are kept, tags are ignored
+     * @return updated certificate with its current tags;
+     * empty optional if certificate doesn't exist, has other version or other tags
+     */
+    Optional<GiftCertificateResponse> updateFieldsIfMatches(Integer id,
+                                                            long version,
+                                                            String tagsDigest,
+                                                            GiftCertificateRequest request);
+
+    /**
+     * Makes passed tags the only tags of certificate with one statement:
+     * links to other tags are deleted, missing links are inserted and existing ones are kept.
+     *
+     * @param id     id of certificate
+     * @param tagIds ids of existing tags
+     */
+    void replaceTags(Integer id, Collection<Integer> tagIds);
+}
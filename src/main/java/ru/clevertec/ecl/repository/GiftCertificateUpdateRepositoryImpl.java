@@ -0,0 +1,178 @@
+package ru.clevertec.ecl.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.model.GiftCertificate;
+import ru.clevertec.ecl.model.Tag;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class GiftCertificateUpdateRepositoryImpl implements GiftCertificateUpdateRepository {
+
+    private static final String TAGS_ROLE = GiftCertificate.class.getName() + ".tags";
+
+    /**
+     * Updated row is joined with its tags, so response is built without another round trip.
+     * Placeholders are filled with assignments of changed columns and optional {@link #MATCHES}.
+     */
+    private static final String UPDATE_FIELDS = """
+            WITH updated AS (
+                UPDATE gift_shop.gift_certificates
+                SET %s
+                WHERE id = ? %s
+                RETURNING id, name, description, price, duration, create_date, last_update_date, version
+            )
+            SELECT u.*, t.id AS tag_id, t.name AS tag_name
+            FROM updated u
+            LEFT JOIN gift_shop.gift_certificate_tag gct ON gct.gift_certificate_id = u.id
+            LEFT JOIN gift_shop.tags t ON t.id = gct.tag_id
+            ORDER BY t.id
+            """;
+
+    /**
+     * Condition of conditional update: version and digest of tags computed the same way as by
+     * {@link GiftCertificateRepository#findVersionById(Integer)}.
+     */
+    private static final String MATCHES = """
+            AND version = ?
+            AND md5(COALESCE((SELECT string_agg(t.id || ':' || t.name, '|' ORDER BY t.id)
+                              FROM gift_shop.gift_certificate_tag gct
+                              JOIN gift_shop.tags t ON t.id = gct.tag_id
+                              WHERE gct.gift_certificate_id = gift_certificates.id), '')) = ?""";
+
+    /**
+     * Deleted and inserted links never have the same tag, so both parts don't conflict.
+     */
+    private static final String REPLACE_TAGS = """
+            WITH removed AS (
+                DELETE FROM gift_shop.gift_certificate_tag
+                WHERE gift_certificate_id = ?
+                  AND NOT tag_id = ANY (?)
+            )
+            INSERT INTO gift_shop.gift_certificate_tag (gift_certificate_id, tag_id)
+            SELECT ?, input.tag_id
+            FROM unnest(CAST(? AS INT[])) AS input (tag_id)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Optional<GiftCertificateResponse> updateFields(Integer id, GiftCertificateRequest request) {
+        return update(id, request, List.of());
+    }
+
+    @Override
+    public Optional<GiftCertificateResponse> updateFieldsIfMatches(Integer id,
+                                                                   long version,
+                                                                   String tagsDigest,
+                                                                   GiftCertificateRequest request) {
+        return update(id, request, List.of(version, tagsDigest));
+    }
+
+    @Override
+    public void replaceTags(Integer id, Collection<Integer> tagIds) {
+        evict(cache -> cache.evictCollectionData(TAGS_ROLE, id));
+        jdbcTemplate.update(REPLACE_TAGS, ps -> {
+            Object[] ids = tagIds.toArray();
+            ps.setInt(1, id);
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", ids));
+            ps.setInt(3, id);
+            ps.setArray(4, ps.getConnection().createArrayOf("integer", ids));
+        });
+    }
+
+    /**
+     * Columns of fields that aren't passed aren't written at all, so concurrent updates
+     * of different fields without version don't overwrite each other.
+     */
+    private Optional<GiftCertificateResponse> update(Integer id,
+                                                     GiftCertificateRequest request,
+                                                     List<Object> expected) {
+        List<String> assignments = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        addIfNotNull(assignments, values, "name", request.getName());
+        addIfNotNull(assignments, values, "description", request.getDescription());
+        addIfNotNull(assignments, values, "price", request.getPrice());
+        addIfNotNull(assignments, values, "duration", request.getDuration());
+        assignments.add("last_update_date = now()");
+        assignments.add("version = version + 1");
+        values.add(id);
+        values.addAll(expected);
+        String sql = UPDATE_FIELDS.formatted(String.join(", ", assignments), expected.isEmpty() ? "" : MATCHES);
+
+        evict(cache -> cache.evictEntityData(GiftCertificate.class, id));
+        GiftCertificateResponse updated = jdbcTemplate.query(sql,
+                GiftCertificateUpdateRepositoryImpl::toResponse, values.toArray());
+        return Optional.ofNullable(updated);
+    }
+
+    private static void addIfNotNull(List<String> assignments, List<Object> values, String column, Object value) {
+        if (value != null) {
+            assignments.add(column + " = ?");
+            values.add(value);
+        }
+    }
+
+    /**
+     * Eviction before the write keeps this transaction from reading stale cached state,
+     * eviction after completion removes state cached by concurrent readers before commit.
+     */
+    private void evict(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        eviction.accept(cache);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.accept(cache);
+            }
+        });
+    }
+
+    private static GiftCertificateResponse toResponse(ResultSet rs) throws SQLException {
+        GiftCertificateResponse certificate = null;
+        while (rs.next()) {
+            if (certificate == null) {
+                certificate = new GiftCertificateResponse(
+                        rs.getInt("id"),
+                        rs.getString("name"),
+                        rs.getDouble("price"),
+                        rs.getString("description"),
+                        rs.getInt("duration"),
+                        toZonedDateTime(rs, "create_date"),
+                        toZonedDateTime(rs, "last_update_date"));
+                certificate.setVersion(rs.getLong("version"));
+            }
+            int tagId = rs.getInt("tag_id");
+            if (!rs.wasNull()) {
+                certificate.getTags().add(new Tag(tagId, rs.getString("tag_name")));
+            }
+        }
+        return certificate;
+    }
+
+    /**
+     * Dates are converted to default time zone as they are when certificate is read by Hibernate.
+     */
+    private static ZonedDateTime toZonedDateTime(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, OffsetDateTime.class).atZoneSameInstant(ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,41 @@
+package ru.clevertec.ecl.repository;
+
+import ru.clevertec.ecl.model.Order;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface OrderInsertRepository {
+
+    /**
+     * Inserts order of certificate at its current price in one statement,
+     * without loading user and certificate.
+     *
+     * @param userId        id of user
+     * @param certificateId id of certificate
+     * @return created order; empty optional if user or certificate doesn't exist
+     */
+    Optional<Order> insertOrder(Integer userId, Integer certificateId);
+
+    /**
+     * Inserts many orders with one multi-row statement.
+     * Orders with missing user or certificate are skipped.
+     *
+     * @param userIds        ids of users
+     * @param certificateIds ids of certificates, one for each user id
+     * @return created orders in no particular order
+     */
+    List<Order> insertOrders(List<Integer> userIds, List<Integer> certificateIds);
+
+    /**
+     * Inserts order of many certificates and its line items in one statement.
+     * Total cost is computed from current prices of certificates.
+     * Nothing is inserted if user or any of certificates doesn't exist.
+     *
+     * @param userId     id of user
+     * @param quantities id of certificate to number of its copies
+     * @return created order; empty optional if user or any of certificates doesn't exist
+     */
+    Optional<Order> insertBasketOrder(Integer userId, Map<Integer, Integer> quantities);
+}
@@ -0,0 +1,103 @@
+package ru.clevertec.ecl.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import ru.clevertec.ecl.model.Order;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class OrderInsertRepositoryImpl implements OrderInsertRepository {
+
+    private static final String INSERT_ORDER = """
+            INSERT INTO gift_shop.orders (total_cost, purchase_date, user_id, certificate_id)
+            SELECT c.price, now(), u.id, c.id
+            FROM gift_shop.gift_certificates c,
+                 gift_shop.users u
+            WHERE c.id = ?2
+              AND u.id = ?1
+            RETURNING id, total_cost, purchase_date, user_id, certificate_id
+            """;
+
+    private static final String INSERT_ORDERS = """
+            INSERT INTO gift_shop.orders (total_cost, purchase_date, user_id, certificate_id)
+            SELECT c.price, now(), u.id, c.id
+            FROM (VALUES %s) AS requested (user_id, certificate_id)
+                     JOIN gift_shop.users u ON u.id = requested.user_id
+                     JOIN gift_shop.gift_certificates c ON c.id = requested.certificate_id
+            RETURNING id, total_cost, purchase_date, user_id, certificate_id
+            """;
+
+    /**
+     * Order is inserted only if every requested certificate is found,
+     * line items are inserted from rows returned by order insert.
+     */
+    private static final String INSERT_BASKET_ORDER = """
+            WITH requested (certificate_id, quantity) AS (VALUES %s),
+                 priced AS (SELECT c.id AS certificate_id, c.price, r.quantity
+                            FROM requested r
+                                     JOIN gift_shop.gift_certificates c ON c.id = r.certificate_id),
+                 created AS (
+                     INSERT INTO gift_shop.orders (total_cost, purchase_date, user_id)
+                         SELECT (SELECT sum(p.price * p.quantity) FROM priced), now(), u.id
+                         FROM gift_shop.users u
+                         WHERE u.id = ?1
+                           AND (SELECT count(*) FROM priced) = (SELECT count(*) FROM requested)
+                         RETURNING id, total_cost, purchase_date, user_id, certificate_id),
+                 lines AS (
+                     INSERT INTO gift_shop.order_certificate (order_id, certificate_id, price, quantity)
+                         SELECT o.id, p.certificate_id, p.price, p.quantity
+                         FROM created o,
+                              priced p)
+            SELECT id, total_cost, purchase_date, user_id, certificate_id
+            FROM created
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Order> insertOrder(Integer userId, Integer certificateId) {
+        List<Order> inserted = entityManager.createNativeQuery(INSERT_ORDER, Order.class)
+                .setParameter(1, userId)
+                .setParameter(2, certificateId)
+                .getResultList();
+        return inserted.stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Order> insertOrders(List<Integer> userIds, List<Integer> certificateIds) {
+        String values = IntStream.range(0, userIds.size())
+                .mapToObj(i -> "(CAST(?%d AS INT), CAST(?%d AS INT))".formatted(2 * i + 1, 2 * i + 2))
+                .collect(Collectors.joining(", "));
+        Query query = entityManager.createNativeQuery(INSERT_ORDERS.formatted(values), Order.class);
+        for (int i = 0; i < userIds.size(); i++) {
+            query.setParameter(2 * i + 1, userIds.get(i));
+            query.setParameter(2 * i + 2, certificateIds.get(i));
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Order> insertBasketOrder(Integer userId, Map<Integer, Integer> quantities) {
+        String values = IntStream.range(0, quantities.size())
+                .mapToObj(i -> "(CAST(?%d AS INT), CAST(?%d AS INT))".formatted(2 * i + 2, 2 * i + 3))
+                .collect(Collectors.joining(", "));
+        Query query = entityManager.createNativeQuery(INSERT_BASKET_ORDER.formatted(values), Order.class)
+                .setParameter(1, userId);
+        int position = 2;
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            query.setParameter(position++, entry.getKey());
+            query.setParameter(position++, entry.getValue());
+        }
+        List<Order> inserted = query.getResultList();
+        return inserted.stream().findFirst();
+    }
+}
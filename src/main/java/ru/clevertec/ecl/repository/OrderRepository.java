@@ -2,11 +2,52 @@ package ru.clevertec.ecl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.clevertec.ecl.dto.order.OrderResponse;
 import ru.clevertec.ecl.model.Order;
+import ru.clevertec.ecl.repository.projection.OrderHistoryView;
 
-public interface OrderRepository extends JpaRepository<Order, Integer> {
+import java.time.ZonedDateTime;
 
-    Page<Order> findAllByUserId(Integer userId, Pageable pageable);
+public interface OrderRepository extends JpaRepository<Order, Integer>, OrderInsertRepository {
+
+    /**
+     * Finds the newest orders of user as projections with their positions, no entities are loaded.
+     * Ordering matches {@code orders_user_id_purchase_date_id_idx}, no count query is executed.
+     */
+    @Query("""
+            SELECT new ru.clevertec.ecl.repository.projection.OrderHistoryView(o.id, o.totalCost, o.purchaseDate)
+            FROM Order o
+            WHERE o.user.id = :user_id
+            ORDER BY o.purchaseDate DESC, o.id
+            """)
+    Slice<OrderHistoryView> findSliceByUserId(@Param("user_id") Integer userId, Pageable pageable);
+
+    /**
+     * Finds orders of user placed before the order at passed position,
+     * seeking on {@code orders_user_id_purchase_date_id_idx}.
+     */
+    @Query("""
+            SELECT new ru.clevertec.ecl.repository.projection.OrderHistoryView(o.id, o.totalCost, o.purchaseDate)
+            FROM Order o
+            WHERE o.user.id = :user_id
+              AND (o.purchaseDate < :purchase_date OR (o.purchaseDate = :purchase_date AND o.id > :id))
+            ORDER BY o.purchaseDate DESC, o.id
+            """)
+    Slice<OrderHistoryView> findSliceByUserIdAfter(@Param("user_id") Integer userId,
+                                                   @Param("purchase_date") ZonedDateTime purchaseDate,
+                                                   @Param("id") Integer id,
+                                                   Pageable pageable);
+
+    @Query(value = """
+            SELECT new ru.clevertec.ecl.dto.order.OrderResponse(o.totalCost, o.purchaseDate)
+            FROM Order o
+            WHERE o.user.id = :user_id
+            """,
+            countQuery = "SELECT count(o) FROM Order o WHERE o.user.id = :user_id")
+    Page<OrderResponse> findAllResponsesByUserId(@Param("user_id") Integer userId, Pageable pageable);
 }
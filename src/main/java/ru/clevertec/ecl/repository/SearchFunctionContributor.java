@@ -0,0 +1,39 @@
+package ru.clevertec.ecl.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers full-text search functions of PostgreSQL for HQL and Criteria queries.
+ * <p>
+ * Both functions render exactly the expression of
+ * {@code gift_certificates_fts_idx}, so the planner can use the index:
+ * <ul>
+ *     <li>{@code fts_match(name, description, text)} - document matches all words of text</li>
+ *     <li>{@code fts_rank(name, description, text)} - relevance of document to text</li>
+ * </ul>
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    private static final String DOCUMENT = "to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+    private static final String QUERY = "plainto_tsquery('simple', ?3)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry functionRegistry = functionContributions.getFunctionRegistry();
+        BasicTypeRegistry basicTypeRegistry = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionRegistry.registerPattern(
+                "fts_match",
+                "(" + DOCUMENT + " @@ " + QUERY + ")",
+                basicTypeRegistry.resolve(StandardBasicTypes.BOOLEAN)
+        );
+        functionRegistry.registerPattern(
+                "fts_rank",
+                "ts_rank(" + DOCUMENT + ", " + QUERY + ")",
+                basicTypeRegistry.resolve(StandardBasicTypes.DOUBLE)
+        );
+    }
+}
@@ -2,18 +2,36 @@ package ru.clevertec.ecl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.clevertec.ecl.dto.tag.TagResponse;
 import ru.clevertec.ecl.model.Tag;
 
 import java.util.List;
-import java.util.Optional;
 
-public interface TagRepository extends JpaRepository<Tag, Integer> {
+public interface TagRepository extends JpaRepository<Tag, Integer>, TagUpsertRepository {
 
     Page<Tag> findAll(Pageable pageable);
 
-    Optional<Tag> findByName(String name);
+    @Query(value = "SELECT new ru.clevertec.ecl.dto.tag.TagResponse(t.id, t.name) FROM Tag t",
+            countQuery = "SELECT count(t) FROM Tag t")
+    Page<TagResponse> findAllResponses(Pageable pageable);
+
+    /**
+     * Deletes links of tag to certificates.
+     * Links are deleted by database along with tag as well, but statement that names
+     * join table as its query space makes Hibernate evict cached tags of certificates
+     * when transaction completes.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM gift_shop.gift_certificate_tag WHERE tag_id = :tag_id", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "gift_shop.gift_certificate_tag"))
+    void deleteLinksByTagId(@Param("tag_id") Integer tagId);
 
     List<Tag> findAllByNameIn(List<String> names);
 }
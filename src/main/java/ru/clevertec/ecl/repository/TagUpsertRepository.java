@@ -0,0 +1,31 @@
+package ru.clevertec.ecl.repository;
+
+import ru.clevertec.ecl.model.Tag;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Inserts of tags that rely on {@code UNIQUE (name)} constraint instead of
+ * check-then-insert, so concurrent transactions can't collide on the same name.
+ * Ids of inserted tags are taken from id generator of {@link Tag} entity.
+ */
+public interface TagUpsertRepository {
+
+    /**
+     * Inserts tag unless tag with such name already exists.
+     *
+     * @param name name of tag
+     * @return created tag; empty optional if name is already taken
+     */
+    Optional<Tag> insertIfAbsent(String name);
+
+    /**
+     * Finds tags by names and inserts missing ones in one statement.
+     *
+     * @param names names of tags, duplicates are ignored
+     * @return existing and created tags in no particular order
+     */
+    List<Tag> findOrInsertAll(Collection<String> names);
+}
@@ -0,0 +1,117 @@
+package ru.clevertec.ecl.repository;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.SpecHints;
+import ru.clevertec.ecl.model.Tag;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TagUpsertRepositoryImpl implements TagUpsertRepository {
+
+    /**
+     * Tag can be missing from result of upsert only if it's inserted by concurrent
+     * transaction after the statement has started, next attempt always sees it
+     * unless it's deleted concurrently as well.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String INSERT_IF_ABSENT = """
+            INSERT INTO gift_shop.tags (id, name)
+            VALUES (?1, ?2)
+            ON CONFLICT (name) DO NOTHING
+            RETURNING id, name
+            """;
+
+    /**
+     * Names are inserted in sorted order so that concurrent upserts of
+     * overlapping names lock index entries in the same order and don't deadlock.
+     */
+    private static final String FIND_OR_INSERT_ALL = """
+            WITH input (id, name) AS (VALUES %s),
+                 inserted AS (
+                     INSERT INTO gift_shop.tags (id, name)
+                     SELECT id, name FROM input ORDER BY name
+                     ON CONFLICT (name) DO NOTHING
+                     RETURNING id, name
+                 )
+            SELECT id, name FROM inserted
+            UNION ALL
+            SELECT t.id, t.name FROM gift_shop.tags t JOIN input i ON i.name = t.name
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Tag> insertIfAbsent(String name) {
+        List<Tag> inserted = upsertQuery(INSERT_IF_ABSENT)
+                .setParameter(1, nextId())
+                .setParameter(2, name)
+                .getResultList();
+        return inserted.stream().findFirst();
+    }
+
+    @Override
+    public List<Tag> findOrInsertAll(Collection<String> names) {
+        Set<String> missing = new LinkedHashSet<>(names);
+        List<Tag> tags = new ArrayList<>(missing.size());
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && !missing.isEmpty(); attempt++) {
+            for (Tag tag : upsert(missing)) {
+                if (missing.remove(tag.getName())) {
+                    tags.add(tag);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Tags are deleted concurrently: " + missing);
+        }
+        return tags;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Tag> upsert(Collection<String> names) {
+        String values = IntStream.range(0, names.size())
+                .mapToObj(i -> "(CAST(?%d AS INT), CAST(?%d AS VARCHAR))".formatted(2 * i + 1, 2 * i + 2))
+                .collect(Collectors.joining(", "));
+        Query query = upsertQuery(FIND_OR_INSERT_ALL.formatted(values));
+        int position = 1;
+        for (String name : names) {
+            query.setParameter(position++, nextId());
+            query.setParameter(position++, name);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Takes id from the same pooled-lo block as tags saved by Hibernate, so inserted tag
+     * uses one id. Id of name that already exists is wasted.
+     */
+    private Integer nextId() {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        return (Integer) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Tag.class)
+                .getIdentifierGenerator()
+                .generate(session, null);
+    }
+
+    /**
+     * Hibernate doesn't know that upsert writes tags: tags it returns aren't put
+     * into second-level cache, as they may be rolled back.
+     */
+    private Query upsertQuery(String sql) {
+        return entityManager.createNativeQuery(sql, Tag.class)
+                .setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+    }
+}
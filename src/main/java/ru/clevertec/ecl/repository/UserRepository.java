@@ -3,15 +3,28 @@ package ru.clevertec.ecl.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.clevertec.ecl.model.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findById(Integer id);
 
     Page<User> findAll(Pageable pageable);
+
+    /**
+     * Checks existence of many users with one query.
+     *
+     * @param ids ids of users
+     * @return ids of existing users
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
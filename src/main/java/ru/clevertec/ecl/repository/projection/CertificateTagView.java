@@ -0,0 +1,12 @@
+package ru.clevertec.ecl.repository.projection;
+
+/**
+ * Row of certificate to tag relation with tag name.
+ *
+ * @param certificateId id of certificate
+ * @param tagId         id of tag
+ * @param tagName       name of tag
+ */
+public record CertificateTagView(Integer certificateId, Integer tagId, String tagName) {
+
+}
@@ -0,0 +1,20 @@
+package ru.clevertec.ecl.repository.projection;
+
+/**
+ * State of certificate that identifies its representation, read without loading certificate itself.
+ * Interface is used because native queries can't be projected to records.
+ */
+public interface CertificateVersionView {
+
+    Long getVersion();
+
+    /**
+     * @return last update date of certificate in milliseconds since epoch
+     */
+    Long getLastModified();
+
+    /**
+     * @return MD5 of {@code id:name} of certificate tags ordered by id and joined with {@code |}
+     */
+    String getTagsDigest();
+}
@@ -0,0 +1,14 @@
+package ru.clevertec.ecl.repository.projection;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Order of user history page with its position for keyset pagination.
+ *
+ * @param id           id of order, second key of position
+ * @param totalCost    total cost of order
+ * @param purchaseDate purchase date of order, first key of position
+ */
+public record OrderHistoryView(Integer id, Double totalCost, ZonedDateTime purchaseDate) {
+
+}
@@ -0,0 +1,104 @@
+package ru.clevertec.ecl.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ru.clevertec.ecl.config.OrderIngestionProperties;
+import ru.clevertec.ecl.dto.order.OrderResponse;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.exception.OrderQueueFullException;
+import ru.clevertec.ecl.model.Order;
+import ru.clevertec.ecl.service.api.IOrderService;
+import ru.clevertec.ecl.service.order.OrderBatcher;
+import ru.clevertec.ecl.service.order.OrderBatcher.PendingOrder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Places orders through {@link OrderBatcher}, so concurrent orders share transactions.
+ * Enabled with {@code order-ingestion.mode=batched}.
+ * <p>
+ * Service isn't transactional itself: callers wait for their group
+ * without holding database connection.
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "order-ingestion", name = "mode", havingValue = "batched")
+public class BatchingOrderService implements IOrderService {
+
+    private final OrderBatcher orderBatcher;
+    private final OrderService orderService;
+    private final OrderIngestionProperties properties;
+
+    /**
+     * Creates order of certificate at its current price as part of group of orders.
+     *
+     * @param userId        id of user
+     * @param certificateId id of certificate
+     * @return created order
+     * @throws EntityNotFoundException if user or certificate doesn't exist
+     * @throws OrderQueueFullException if too many orders are in progress or order isn't taken for insert
+     *                                 within {@code order-ingestion.max-wait}; such order is withdrawn
+     *                                 and never inserted, so it can be placed again
+     */
+    @Override
+    public OrderResponse makeOrder(Integer userId, Integer certificateId) {
+        PendingOrder pending = orderBatcher.submit(userId, certificateId);
+        Optional<Order> order;
+        try {
+            order = await(pending);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order wasn't inserted", e.getCause());
+        } catch (InterruptedException e) {
+            orderBatcher.withdraw(pending);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order", e);
+        }
+        return orderService.toResponse(userId, certificateId, order);
+    }
+
+    /**
+     * Waits for order up to {@code order-ingestion.max-wait}. Order that is still queued then is withdrawn,
+     * order taken by worker is waited for until its group is committed or rolled back.
+     */
+    private Optional<Order> await(PendingOrder pending) throws ExecutionException, InterruptedException {
+        try {
+            return pending.result().get(properties.maxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (orderBatcher.withdraw(pending)) {
+                throw new OrderQueueFullException("Order wasn't inserted in time", properties.queueCapacity());
+            }
+            return pending.result().get();
+        }
+    }
+
+    /**
+     * Order of many certificates is a group itself, so it's inserted directly.
+     */
+    @Override
+    public OrderResponse makeOrder(Integer userId, List<Integer> certificateIds) {
+        return orderService.makeOrder(userId, certificateIds);
+    }
+
+    @Override
+    public Page<OrderResponse> getUserOrders(Integer userId, Pageable pageable) {
+        return orderService.getUserOrders(userId, pageable);
+    }
+
+    @Override
+    public CursorPage<OrderResponse> getUserOrdersByCursor(Integer userId, String cursor, int size) {
+        return orderService.getUserOrdersByCursor(userId, cursor, size);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.clevertec.ecl.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ru.clevertec.ecl.dto.certificate.CertificateVersion;
+import ru.clevertec.ecl.dto.certificate.Facet;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.dto.page.FacetedPage;
+import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.repository.GiftCertificateRepository;
+import ru.clevertec.ecl.service.api.IGiftCertificateService;
+import ru.clevertec.ecl.service.cache.CertificateSearchCache;
+import ru.clevertec.ecl.service.cache.SingleFlight;
+import ru.clevertec.ecl.service.index.EntityIdFilters;
+
+import java.util.Set;
+
+/**
+ * Serves repeated certificate searches from {@link CertificateSearchCache}
+ * and coalesces concurrent reads of the same certificate with {@link SingleFlight}.
+ * <p>
+ * Service isn't transactional itself: cached pages are returned and waiting
+ * readers wait without acquiring database connection.
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+public class CachingGiftCertificateService implements IGiftCertificateService {
+
+    private final GiftCertificateService certificateService;
+    private final GiftCertificateRepository certificateRepository;
+    private final CertificateSearchCache searchCache;
+    private final SingleFlight singleFlight;
+    private final EntityIdFilters idFilters;
+
+    /**
+     * Finds certificates considering passed filters,
+     * see {@link GiftCertificateService#findAll(GiftCertificateFilter, Pageable)}.
+     *
+     * @param filter   search criteria, only passed fields are applied
+     * @param pageable pageable
+     * @return page of certificates, shared with other callers
+     */
+    @Override
+    public Page<GiftCertificateResponse> findAll(GiftCertificateFilter filter, Pageable pageable) {
+        return searchCache.get(filter, pageable, () -> certificateService.findAll(filter, pageable));
+    }
+
+    @Override
+    public FacetedPage<GiftCertificateResponse> findAllWithFacets(GiftCertificateFilter filter,
+                                                                  Pageable pageable,
+                                                                  Set<Facet> facets) {
+        return certificateService.findAllWithFacets(filter, pageable, facets);
+    }
+
+    @Override
+    public CursorPage<GiftCertificateResponse> findAllByCursor(GiftCertificateFilter filter,
+                                                               String cursor,
+                                                               int size) {
+        return certificateService.findAllByCursor(filter, cursor, size);
+    }
+
+    @Override
+    public Page<GiftCertificateResponse> findAll(Pageable pageable) {
+        return certificateService.findAll(pageable);
+    }
+
+    /**
+     * Finds certificate by id, see {@link GiftCertificateService#find(Integer)}.
+     * Ids missing from id filter are rejected after one existence check,
+     * concurrent calls with the same id share one read.
+     *
+     * @param id id of desired certificate
+     * @return found certificate, may be shared with concurrent callers
+     * @throws EntityNotFoundException when certificate with such id doesn't exist
+     */
+    @Override
+    public GiftCertificateResponse find(Integer id) {
+        if (!idFilters.getCertificates().mightContain(id, certificateRepository::existsById)) {
+            throw new EntityNotFoundException("Gift certificate not found", id);
+        }
+        return singleFlight.load("certificate", id, () -> certificateService.find(id));
+    }
+
+    @Override
+    public CertificateVersion findVersion(Integer id) {
+        if (!idFilters.getCertificates().mightContain(id, certificateRepository::existsById)) {
+            throw new EntityNotFoundException("Gift certificate not found", id);
+        }
+        return certificateService.findVersion(id);
+    }
+
+    @Override
+    public GiftCertificateResponse save(GiftCertificateRequest request) {
+        return certificateService.save(request);
+    }
+
+    @Override
+    public GiftCertificateResponse update(Integer id, GiftCertificateRequest request) {
+        return certificateService.update(id, request);
+    }
+
+    @Override
+    public GiftCertificateResponse update(Integer id,
+                                          GiftCertificateRequest request,
+                                          CertificateVersion.EntityTag expected) {
+        return certificateService.update(id, request, expected);
+    }
+
+    @Override
+    public void delete(Integer id) {
+        certificateService.delete(id);
+    }
+}
@@ -0,0 +1,200 @@
+package ru.clevertec.ecl.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.clevertec.ecl.config.BulkImportProperties;
+import ru.clevertec.ecl.dto.bulk.BulkImportResponse;
+import ru.clevertec.ecl.dto.bulk.BulkItemResult;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.model.GiftCertificate;
+import ru.clevertec.ecl.model.Tag;
+import ru.clevertec.ecl.repository.GiftCertificateRepository;
+import ru.clevertec.ecl.service.event.CertificatesImportedEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports large number of certificates from one request body.
+ * <p>
+ * Body is either JSON array or newline-delimited JSON objects and is read item by item,
+ * so only one chunk of certificates is held in memory. Every chunk is committed in its own
+ * transaction: tags of the whole chunk are resolved with one upsert, ids are reserved with
+ * one select and certificates with their tag links are written in JDBC batches.
+ * Failure of a chunk doesn't roll back previously committed chunks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GiftCertificateBulkService {
+
+    private final GiftCertificateRepository certificateRepository;
+    private final TagService tagService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BulkImportProperties properties;
+
+    /**
+     * Creates certificates from request body.
+     * Invalid items are reported and skipped, malformed JSON stops the import.
+     *
+     * @param body JSON array or newline-delimited JSON of certificates
+     * @return result of every read item
+     */
+    public BulkImportResponse importAll(InputStream body) {
+        long start = System.nanoTime();
+        BulkImportResponse response = new BulkImportResponse();
+        List<Item> chunk = new ArrayList<>(properties.chunkSize());
+        int index = 0;
+        try (MappingIterator<GiftCertificateRequest> items = objectMapper
+                .readerFor(GiftCertificateRequest.class)
+                .readValues(body)) {
+            while (true) {
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    chunk.add(new Item(index, items.nextValue()));
+                } catch (JsonParseException e) {
+                    writeChunk(chunk, response);
+                    response.add(BulkItemResult.failed(index, "Malformed JSON: " + e.getOriginalMessage()));
+                    return response;
+                } catch (JsonMappingException e) {
+                    writeChunk(chunk, response);
+                    response.add(BulkItemResult.failed(index, "Invalid item: " + e.getOriginalMessage()));
+                }
+                index++;
+                if (chunk.size() == properties.chunkSize()) {
+                    writeChunk(chunk, response);
+                }
+            }
+            writeChunk(chunk, response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Bulk import of {} certificates ({} failed) took {} ms",
+                response.getCreated(), response.getFailed(), (System.nanoTime() - start) / 1_000_000);
+        return response;
+    }
+
+    /**
+     * Writes valid items of chunk in one transaction and clears chunk.
+     */
+    private void writeChunk(List<Item> chunk, BulkImportResponse response) {
+        List<Item> valid = new ArrayList<>(chunk.size());
+        Map<Integer, String> errors = new HashMap<>();
+        for (Item item : chunk) {
+            String error = validate(item.request());
+            if (error == null) {
+                valid.add(item);
+            } else {
+                errors.put(item.index(), error);
+            }
+        }
+        List<Integer> ids = List.of();
+        String chunkError = null;
+        if (!valid.isEmpty()) {
+            try {
+                ids = transactionTemplate.execute(status -> insert(valid));
+            } catch (RuntimeException e) {
+                log.warn("Chunk of {} certificates is not imported", valid.size(), e);
+                chunkError = "Chunk is not imported: " + e.getMessage();
+            }
+        }
+        int position = 0;
+        for (Item item : chunk) {
+            if (errors.containsKey(item.index())) {
+                response.add(BulkItemResult.failed(item.index(), errors.get(item.index())));
+            } else if (chunkError != null) {
+                response.add(BulkItemResult.failed(item.index(), chunkError));
+            } else {
+                response.add(BulkItemResult.created(item.index(), ids.get(position++)));
+            }
+        }
+        chunk.clear();
+    }
+
+    private List<Integer> insert(List<Item> items) {
+        Set<String> tagNames = items.stream()
+                .flatMap(item -> item.request().getTags().stream())
+                .map(Tag::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Tag> tags = tagService.findOrCreateAll(tagNames);
+        List<Integer> ids = certificateRepository.reserveIds(items.size());
+        ZonedDateTime now = ZonedDateTime.now();
+
+        List<GiftCertificate> certificates = new ArrayList<>(items.size());
+        Map<Integer, Map<Integer, String>> certificateTags = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            GiftCertificateRequest request = items.get(i).request();
+            List<Tag> resolved = request.getTags()
+                    .stream()
+                    .map(tag -> tags.get(tag.getName()))
+                    .distinct()
+                    .toList();
+            GiftCertificate certificate = GiftCertificate.builder()
+                    .id(ids.get(i))
+                    .name(request.getName())
+                    .description(request.getDescription())
+                    .price(request.getPrice())
+                    .duration(request.getDuration())
+                    .createDate(now)
+                    .lastUpdateDate(now)
+                    .tags(resolved)
+                    .build();
+            certificates.add(certificate);
+            certificateTags.put(certificate.getId(), resolved.stream()
+                    .collect(Collectors.toMap(Tag::getId, Tag::getName)));
+        }
+        certificateRepository.insertAll(certificates);
+        eventPublisher.publishEvent(new CertificatesImportedEvent(certificateTags));
+        return ids;
+    }
+
+    /**
+     * Checks bean constraints of request and columns that can't be null.
+     *
+     * @return description of violations or {@code null} if request is valid
+     */
+    private String validate(GiftCertificateRequest request) {
+        List<String> violations = new ArrayList<>();
+        for (ConstraintViolation<GiftCertificateRequest> violation : validator.validate(request)) {
+            violations.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        if (request.getDuration() == null) {
+            violations.add("duration must not be null");
+        }
+        if (request.getTags() == null) {
+            request.setTags(new ArrayList<>());
+        }
+        if (request.getTags().stream().anyMatch(tag -> tag == null || tag.getName() == null || tag.getName().isBlank())) {
+            violations.add("tags must have names");
+        }
+        return violations.isEmpty()
+                ? null
+                : String.join(", ", violations);
+    }
+
+    private record Item(int index, GiftCertificateRequest request) {
+    }
+}
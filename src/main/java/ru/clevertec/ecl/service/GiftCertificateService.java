@@ -1,33 +1,59 @@
 package ru.clevertec.ecl.service;
 
 import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.dto.certificate.CertificateVersion;
+import ru.clevertec.ecl.dto.certificate.Facet;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
-import ru.clevertec.ecl.dto.tag.TagRequest;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.dto.page.FacetedPage;
+import ru.clevertec.ecl.dto.page.SeekCursor;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.exception.PreconditionFailedException;
 import ru.clevertec.ecl.mapper.GiftCertificateMapper;
-import ru.clevertec.ecl.mapper.TagMapper;
 import ru.clevertec.ecl.model.GiftCertificate;
 import ru.clevertec.ecl.model.Tag;
 import ru.clevertec.ecl.repository.GiftCertificateRepository;
+import ru.clevertec.ecl.repository.projection.CertificateTagView;
+import ru.clevertec.ecl.repository.projection.CertificateVersionView;
 import ru.clevertec.ecl.service.api.IGiftCertificateService;
+import ru.clevertec.ecl.service.event.CertificateChangedEvent;
+import ru.clevertec.ecl.service.event.CertificateDeletedEvent;
+import ru.clevertec.ecl.service.event.CertificateTagsChangedEvent;
+import ru.clevertec.ecl.service.index.TagBitmapIndex;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class GiftCertificateService implements IGiftCertificateService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final GiftCertificateMapper certificateMapper;
-    private final TagMapper tagMapper;
     private final GiftCertificateRepository certificateRepository;
     private final TagService tagService;
+    private final TagBitmapIndex tagIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Deletes certificate by id
@@ -38,6 +64,7 @@ public class GiftCertificateService implements IGiftCertificateService {
     @Transactional
     public void delete(Integer id) {
         certificateRepository.deleteById(id);
+        eventPublisher.publishEvent(new CertificateDeletedEvent(id));
     }
 
     /**
@@ -50,45 +77,61 @@ public class GiftCertificateService implements IGiftCertificateService {
     @Transactional
     public GiftCertificateResponse save(GiftCertificateRequest certificateRequestDTO) {
         GiftCertificate giftCertificate = certificateMapper.toEntity(certificateRequestDTO);
-        List<String> names = certificateRequestDTO.getTags()
-                .stream()
-                .map(Tag::getName)
-                .toList();
-        List<Tag> existingTags = tagService.findAllByNameIn(names);
-        List<Tag> tags = new ArrayList<>();
-        for (Tag tag : certificateRequestDTO.getTags()) {
-            tags.add(existingTags
-                    .stream()
-                    .filter(t -> t.getName().equals(tag.getName()))
-                    .findFirst()
-                    .orElseGet(() -> tagMapper.toEntity(
-                                    tagService.save(new TagRequest(tag.getName()))
-                            )
-                    )
-            );
-        }
+        List<Tag> tags = certificateRequestDTO.getTags() == null
+                ? new ArrayList<>()
+                : resolveTags(certificateRequestDTO.getTags());
         giftCertificate.setTags(tags);
-        GiftCertificate certificate = certificateRepository.save(giftCertificate);
+        // flush generates create and update dates, that are returned in response
+        GiftCertificate certificate = certificateRepository.saveAndFlush(giftCertificate);
+        publishTagsChanged(certificate);
         return certificateMapper.toResponse(certificate);
     }
 
     /**
      * Partial update of certificate.
-     * Wraps call of(see for more information)
+     * Certificate isn't read before the update: passed fields are changed by one statement,
+     * that sets only their columns and returns updated certificate with its tags,
+     * and passed tags replace current ones by another statement.
      *
      * @param id      id of updatable certificate
-     * @param request entity with updatable fields
+     * @param request entity with updatable fields, {@code null} fields are kept
      * @return updated certificate
      * @throws EntityNotFoundException if certificate with such id doesn't exist
      */
     @Override
     @Transactional
     public GiftCertificateResponse update(Integer id, GiftCertificateRequest request) {
-        GiftCertificate certificate = certificateRepository.findById(id)
+        GiftCertificateRequest changes = request == null
+                ? new GiftCertificateRequest(null, null, null, null, null)
+                : request;
+        GiftCertificateResponse certificate = certificateRepository.updateFields(id, changes)
                 .orElseThrow(() -> new EntityNotFoundException("Certificate with such id not found", id));
-        setIfNotNull(request, certificate);
-        GiftCertificate updatedCertificate = certificateRepository.save(certificate);
-        return certificateMapper.toResponse(updatedCertificate);
+        return completeUpdate(certificate, changes);
+    }
+
+    /**
+     * Partial update of certificate that is applied only if its current entity tag is the expected one,
+     * otherwise the same as {@link #update(Integer, GiftCertificateRequest)}.
+     * Version and digest of tags are compared by the update statement itself.
+     *
+     * @param id       id of updatable certificate
+     * @param request  entity with updatable fields, {@code null} fields are kept
+     * @param expected entity tag of certificate known to client
+     * @return updated certificate
+     * @throws EntityNotFoundException     if certificate with such id doesn't exist
+     * @throws PreconditionFailedException if certificate has other version or its tags were changed
+     */
+    @Override
+    @Transactional
+    public GiftCertificateResponse update(Integer id,
+                                          GiftCertificateRequest request,
+                                          CertificateVersion.EntityTag expected) {
+        GiftCertificateResponse certificate = certificateRepository
+                .updateFieldsIfMatches(id, expected.version(), expected.tagsDigest(), request)
+                .orElseThrow(() -> certificateRepository.existsById(id)
+                        ? new PreconditionFailedException("Certificate was changed by another request", id)
+                        : new EntityNotFoundException("Certificate with such id not found", id));
+        return completeUpdate(certificate, request);
     }
 
     /**
@@ -104,6 +147,7 @@ public class GiftCertificateService implements IGiftCertificateService {
 
     /**
      * Finds certificate by id.
+     * Certificate and its tags are read by id, so they are taken from second-level cache when present.
      *
      * @param id id of desired certificate
      * @return optional response DTO of found certificate
@@ -116,26 +160,230 @@ public class GiftCertificateService implements IGiftCertificateService {
         return certificateMapper.toResponse(certificate);
     }
 
+    /**
+     * Finds validators of certificate representation without loading certificate.
+     * Entity tag covers names of certificate tags, so renaming of tag changes it as well,
+     * while last modified date reflects only fields of certificate.
+     *
+     * @param id id of certificate
+     * @return entity tag and last modified date of certificate
+     * @throws EntityNotFoundException when certificate with such id doesn't exist
+     */
     @Override
-    public Page<GiftCertificateResponse> findAll(
-            String tagName,
-            String description,
-            Pageable pageable
+    public CertificateVersion findVersion(Integer id) {
+        CertificateVersionView view = certificateRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Gift certificate not found", id));
+        return new CertificateVersion(id, view.getVersion(), view.getTagsDigest(), view.getLastModified());
+    }
+
+    /**
+     * Finds certificate entity by id without loading its tags.
+     *
+     * @param id id of desired certificate
+     * @return found certificate
+     * @throws EntityNotFoundException when certificate with such id doesn't exist
+     */
+    public GiftCertificate findEntity(Integer id) {
+        return certificateRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Gift certificate not found", id));
+    }
+
+    /**
+     * Finds certificates considering passed filters.
+     * Certificates are read as DTO projection without loading entities into
+     * persistence context, tags of the whole page are gathered with one select.
+     * <p>
+     * When filter contains only tags and page is ordered by id, ids of matching
+     * certificates are taken from {@link TagBitmapIndex} and only certificates
+     * of requested page are read from database.
+     *
+     * @param filter   search criteria, only passed fields are applied
+     * @param pageable pageable
+     * @return page of certificates
+     * @throws ru.clevertec.ecl.exception.UnsupportedSortException if sort property isn't supported
+     */
+    @Override
+    public Page<GiftCertificateResponse> findAll(GiftCertificateFilter filter, Pageable pageable) {
+        Page<GiftCertificateResponse> certificates = findByTagIndex(filter, pageable)
+                .orElseGet(() -> certificateRepository.search(filter, pageable));
+        attachTags(certificates.getContent());
+        return certificates;
+    }
+
+    /**
+     * Finds certificates considering passed filters, see {@link #findAll(GiftCertificateFilter, Pageable)},
+     * and counts all matching certificates by values of requested facets.
+     * Tag counts are taken from {@link TagBitmapIndex} when filter has no criteria
+     * besides tags, otherwise they are counted by one grouped query.
+     *
+     * @param filter   search criteria, only passed fields are applied
+     * @param pageable pageable
+     * @param facets   facets to count
+     * @return page of certificates with facet counts
+     */
+    @Override
+    public FacetedPage<GiftCertificateResponse> findAllWithFacets(
+            GiftCertificateFilter filter,
+            Pageable pageable,
+            Set<Facet> facets
     ) {
-        return certificateRepository.findAll(tagName, description, pageable)
-                .map(certificateMapper::toResponse);
+        Page<GiftCertificateResponse> certificates = findAll(filter, pageable);
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+        if (facets.contains(Facet.TAGS)) {
+            counts.put(Facet.TAGS.key(), countByTag(filter));
+        }
+        return new FacetedPage<>(
+                certificates.getContent(),
+                certificates.getPageable(),
+                certificates.getTotalElements(),
+                counts
+        );
+    }
+
+    /**
+     * Finds certificates with keyset pagination over {@code (createDate, id)}.
+     * Unlike offset pagination the cost of a page doesn't depend on its depth
+     * and no count query is executed.
+     *
+     * @param filter search criteria, only passed fields are applied
+     * @param cursor cursor returned with previous page, {@code null} or blank for the first page
+     * @param size   page size, clamped to [1, 100]
+     * @return page of certificates with cursor of the next page
+     * @throws ru.clevertec.ecl.exception.InvalidCursorException if cursor is malformed
+     */
+    @Override
+    public CursorPage<GiftCertificateResponse> findAllByCursor(
+            GiftCertificateFilter filter,
+            String cursor,
+            int size
+    ) {
+        SeekCursor after = cursor == null || cursor.isBlank()
+                ? null
+                : SeekCursor.decode(cursor);
+        Slice<GiftCertificateResponse> slice = certificateRepository.searchAfter(
+                filter,
+                after,
+                Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE))
+        );
+        List<GiftCertificateResponse> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            GiftCertificateResponse last = content.get(content.size() - 1);
+            nextCursor = SeekCursor.of(last.getCreateDate(), last.getId()).encode();
+        }
+        attachTags(content);
+        return new CursorPage<>(content, nextCursor);
+    }
+
+    private Optional<Page<GiftCertificateResponse>> findByTagIndex(GiftCertificateFilter filter, Pageable pageable) {
+        if (!hasOnlyTagCriteria(filter) || !isOrderedById(pageable.getSort())) {
+            return Optional.empty();
+        }
+        Sort.Order idOrder = pageable.getSort().getOrderFor("id");
+        boolean descending = idOrder != null && idOrder.isDescending();
+        return tagIndex.find(filter.getTagNames(), filter.getTagMatch())
+                .map(ids -> pageOf(ids, pageable, descending));
+    }
+
+    private Page<GiftCertificateResponse> pageOf(RoaringBitmap ids, Pageable pageable, boolean descending) {
+        int total = ids.getCardinality();
+        long from = pageable.isPaged() ? pageable.getOffset() : 0;
+        long to = pageable.isPaged() ? Math.min(total, from + pageable.getPageSize()) : total;
+        List<Integer> pageIds = new ArrayList<>();
+        for (long rank = from; rank < to; rank++) {
+            pageIds.add(ids.select((int) (descending ? total - 1 - rank : rank)));
+        }
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, total);
+        }
+        Map<Integer, GiftCertificateResponse> certificatesById = certificateRepository.findResponsesByIdIn(pageIds)
+                .stream()
+                .collect(Collectors.toMap(GiftCertificateResponse::getId, Function.identity()));
+        List<GiftCertificateResponse> content = pageIds.stream()
+                .map(certificatesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private Map<String, Long> countByTag(GiftCertificateFilter filter) {
+        if (!hasNoCriteriaBesidesTags(filter)) {
+            return certificateRepository.countByTag(filter);
+        }
+        return tagIndex.countByTag(filter.getTagNames(), filter.getTagMatch())
+                .orElseGet(() -> certificateRepository.countByTag(filter));
     }
 
-    private static void setIfNotNull(GiftCertificateRequest source, GiftCertificate destination) {
-        if (source.getName() != null)
-            destination.setName(source.getName());
-        if (source.getDuration() != null)
-            destination.setDuration(source.getDuration());
-        if (source.getPrice() != null)
-            destination.setPrice(source.getPrice());
-        if (source.getDescription() != null)
-            destination.setDescription(source.getDescription());
-        if (source.getTags() != null)
-            destination.setTags(source.getTags());
+    private static boolean hasOnlyTagCriteria(GiftCertificateFilter filter) {
+        return !filter.getTagNames().isEmpty() && hasNoCriteriaBesidesTags(filter);
+    }
+
+    private static boolean hasNoCriteriaBesidesTags(GiftCertificateFilter filter) {
+        return filter.getName() == null
+                && filter.getDescription() == null
+                && filter.getText() == null
+                && filter.getMinPrice() == null
+                && filter.getMaxPrice() == null;
+    }
+
+    /**
+     * Checks whether sort is absent or is a single order by id.
+     * Unsorted pages are returned in ascending id order.
+     */
+    private static boolean isOrderedById(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && "id".equals(orders.get(0).getProperty());
+    }
+
+    /**
+     * Replaces requested tags, that may have only names, with existing tags.
+     * Missing tags are created.
+     */
+    private List<Tag> resolveTags(List<Tag> requested) {
+        List<String> names = requested.stream()
+                .map(Tag::getName)
+                .toList();
+        return new ArrayList<>(tagService.findOrCreateAll(names).values());
+    }
+
+    /**
+     * Replaces tags of updated certificate if they are passed and notifies about the update.
+     */
+    private GiftCertificateResponse completeUpdate(GiftCertificateResponse certificate,
+                                                   GiftCertificateRequest request) {
+        eventPublisher.publishEvent(new CertificateChangedEvent(certificate.getId()));
+        if (request.getTags() != null) {
+            List<Tag> tags = resolveTags(request.getTags());
+            certificateRepository.replaceTags(certificate.getId(), tags.stream().map(Tag::getId).toList());
+            certificate.setTags(tags);
+            publishTagsChanged(certificate.getId(), tags);
+        }
+        return certificate;
+    }
+
+    private void publishTagsChanged(GiftCertificate certificate) {
+        publishTagsChanged(certificate.getId(), certificate.getTags());
+    }
+
+    private void publishTagsChanged(Integer certificateId, List<Tag> certificateTags) {
+        Map<Integer, String> tags = certificateTags.stream()
+                .collect(Collectors.toMap(Tag::getId, Tag::getName, (first, second) -> first));
+        eventPublisher.publishEvent(new CertificateTagsChangedEvent(certificateId, tags));
+    }
+
+    private void attachTags(List<GiftCertificateResponse> certificates) {
+        if (certificates.isEmpty()) {
+            return;
+        }
+        Map<Integer, GiftCertificateResponse> certificatesById = certificates.stream()
+                .collect(Collectors.toMap(GiftCertificateResponse::getId, Function.identity()));
+        for (CertificateTagView row : certificateRepository.findTagsByCertificateIdIn(certificatesById.keySet())) {
+            certificatesById.get(row.certificateId())
+                    .getTags()
+                    .add(new Tag(row.tagId(), row.tagName()));
+        }
     }
 }
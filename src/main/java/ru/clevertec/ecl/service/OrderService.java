@@ -2,47 +2,139 @@ package ru.clevertec.ecl.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
 import ru.clevertec.ecl.dto.order.OrderResponse;
-import ru.clevertec.ecl.mapper.GiftCertificateMapper;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.dto.page.SeekCursor;
+import ru.clevertec.ecl.exception.EntityNotFoundException;
 import ru.clevertec.ecl.mapper.OrderMapper;
-import ru.clevertec.ecl.model.GiftCertificate;
 import ru.clevertec.ecl.model.Order;
-import ru.clevertec.ecl.model.User;
 import ru.clevertec.ecl.repository.OrderRepository;
+import ru.clevertec.ecl.repository.projection.OrderHistoryView;
 import ru.clevertec.ecl.service.api.IOrderService;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class OrderService implements IOrderService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final UserService userService;
     private final OrderMapper orderMapper;
     private final OrderRepository orderRepository;
-    private final GiftCertificateMapper certificateMapper;
     private final GiftCertificateService certificateService;
 
+    /**
+     * Creates order of certificate at its current price.
+     * Order is inserted with one statement, user and certificate are read only
+     * when one of them is missing to report which one.
+     *
+     * @param userId        id of user
+     * @param certificateId id of certificate
+     * @return created order
+     * @throws EntityNotFoundException if user or certificate doesn't exist
+     */
     @Override
     @Transactional
     public OrderResponse makeOrder(Integer userId, Integer certificateId) {
-        User user = userService.find(userId);
-        GiftCertificateResponse certificateResponse = certificateService.find(certificateId);
-        GiftCertificate certificate = certificateMapper.toEntity(certificateResponse);
-        Order newOrder = Order.builder()
-                .user(user)
-                .certificate(certificate)
-                .totalCost(certificate.getPrice())
-                .build();
-        return orderMapper.toResponse(orderRepository.save(newOrder));
+        return toResponse(userId, certificateId, orderRepository.insertOrder(userId, certificateId));
     }
 
+    /**
+     * Creates one order of many certificates at their current prices.
+     * Order and its line items are inserted with one statement, repeated certificates
+     * become one item with quantity. User and certificates are read only
+     * when some of them is missing to report which one.
+     *
+     * @param userId         id of user
+     * @param certificateIds ids of certificates
+     * @return created order with line items
+     * @throws EntityNotFoundException if user or any of certificates doesn't exist
+     */
+    @Override
+    @Transactional
+    public OrderResponse makeOrder(Integer userId, List<Integer> certificateIds) {
+        Map<Integer, Integer> quantities = certificateIds.stream()
+                .collect(Collectors.toMap(id -> id, id -> 1, Integer::sum, LinkedHashMap::new));
+        Optional<Order> order = orderRepository.insertBasketOrder(userId, quantities);
+        if (order.isEmpty()) {
+            userService.find(userId);
+            quantities.keySet().forEach(certificateService::findEntity);
+            throw new EntityNotFoundException("Gift certificate not found", certificateIds.get(0));
+        }
+        return orderMapper.toResponseWithItems(order.get());
+    }
+
+    /**
+     * Maps inserted order or reports why it wasn't inserted.
+     *
+     * @param userId        id of user
+     * @param certificateId id of certificate
+     * @param order         inserted order, empty if user or certificate is missing
+     * @return created order
+     * @throws EntityNotFoundException if order is empty
+     */
+    OrderResponse toResponse(Integer userId, Integer certificateId, Optional<Order> order) {
+        if (order.isEmpty()) {
+            userService.find(userId);
+            certificateService.findEntity(certificateId);
+            throw new EntityNotFoundException("Gift certificate not found", certificateId);
+        }
+        return orderMapper.toResponse(order.get());
+    }
+
+    /**
+     * Finds orders of user. Orders are read as DTO projection without loading entities.
+     *
+     * @param userId   user id
+     * @param pageable pageable
+     * @return page of orders
+     */
     @Override
     public Page<OrderResponse> getUserOrders(Integer userId, Pageable pageable) {
-        return orderRepository.findAllByUserId(userId, pageable)
-                .map(orderMapper::toResponse);
+        return orderRepository.findAllResponsesByUserId(userId, pageable);
+    }
+
+    /**
+     * Finds orders of user newest first with keyset pagination over {@code (purchaseDate, id)}.
+     * Cost of a page doesn't depend on its depth and no count query is executed.
+     *
+     * @param userId user id
+     * @param cursor cursor returned with previous page, {@code null} or blank for the first page
+     * @param size   page size, clamped to [1, 100]
+     * @return page of orders with cursor of the next page
+     * @throws ru.clevertec.ecl.exception.InvalidCursorException if cursor is malformed
+     */
+    @Override
+    public CursorPage<OrderResponse> getUserOrdersByCursor(Integer userId, String cursor, int size) {
+        Pageable pageable = PageRequest.ofSize(Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE)));
+        Slice<OrderHistoryView> slice = cursor == null || cursor.isBlank()
+                ? orderRepository.findSliceByUserId(userId, pageable)
+                : findAfter(userId, SeekCursor.decode(cursor), pageable);
+        List<OrderHistoryView> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            OrderHistoryView last = content.get(content.size() - 1);
+            nextCursor = SeekCursor.of(last.purchaseDate(), last.id()).encode();
+        }
+        List<OrderResponse> responses = content.stream()
+                .map(orderMapper::toResponse)
+                .toList();
+        return new CursorPage<>(responses, nextCursor);
+    }
+
+    private Slice<OrderHistoryView> findAfter(Integer userId, SeekCursor after, Pageable pageable) {
+        return orderRepository.findSliceByUserIdAfter(userId, after.zonedTimestamp(), after.id(), pageable);
     }
 }
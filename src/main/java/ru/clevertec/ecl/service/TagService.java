@@ -1,19 +1,31 @@
 package ru.clevertec.ecl.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.clevertec.ecl.dto.tag.TagRequest;
 import ru.clevertec.ecl.dto.tag.TagResponse;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.exception.TagAlreadyExistsException;
 import ru.clevertec.ecl.mapper.TagMapper;
 import ru.clevertec.ecl.model.Tag;
 import ru.clevertec.ecl.repository.TagRepository;
 import ru.clevertec.ecl.service.api.CrudService;
+import ru.clevertec.ecl.service.cache.SingleFlight;
+import ru.clevertec.ecl.service.cache.TagDictionary;
+import ru.clevertec.ecl.service.event.TagChangedEvent;
+import ru.clevertec.ecl.service.event.TagDeletedEvent;
+import ru.clevertec.ecl.service.index.EntityIdFilters;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
@@ -22,45 +34,53 @@ public class TagService implements CrudService<TagRequest, TagResponse, Integer>
 
     private final TagRepository tagRepository;
     private final TagMapper tagMapper;
+    private final TagDictionary tagDictionary;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
+    private final EntityIdFilters idFilters;
 
     /**
      * Finds all tags.
+     * Tags are read as DTO projection without loading entities.
      *
      * @return list of tags
      */
     @Override
     public Page<TagResponse> findAll(Pageable pageable) {
-        return tagRepository.findAll(pageable)
-                .map(tagMapper::toResponse);
+        return tagRepository.findAllResponses(pageable);
     }
 
     /**
      * Deletes tag by id.
+     * Links to certificates are deleted explicitly, so cached tags of certificates are evicted.
      *
      * @param id id of tag to delete
      */
     @Override
     @Transactional
     public void delete(Integer id) {
+        tagRepository.deleteLinksByTagId(id);
         tagRepository.deleteById(id);
+        tagDictionary.evict(id);
+        eventPublisher.publishEvent(new TagDeletedEvent(id));
     }
 
     /**
      * Creates new tag.
+     * Name uniqueness is checked by the insert itself, so concurrent
+     * requests with the same name can't both pass the check.
      *
      * @param tagRequest tag entity with name
      * @return tag with created id
+     * @throws TagAlreadyExistsException when tag with such name already exists
      */
     @Override
     @Transactional
     public TagResponse save(TagRequest tagRequest) {
-        // Do I need this?
-        tagRepository.findByName(tagRequest.getName())
-                .ifPresent(t -> {
-                    throw new IllegalArgumentException("Tag with such name already exists");
-                });
-        Tag tag = tagMapper.toEntity(tagRequest);
-        Tag savedTag = tagRepository.save(tag);
+        String name = tagRequest.getName();
+        Tag savedTag = tagRepository.insertIfAbsent(name)
+                .orElseThrow(() -> new TagAlreadyExistsException("Tag with such name already exists", name));
+        idFilters.getTags().add(savedTag.getId());
         return tagMapper.toResponse(savedTag);
     }
 
@@ -78,24 +98,69 @@ public class TagService implements CrudService<TagRequest, TagResponse, Integer>
                 .orElseThrow(() -> new EntityNotFoundException("Tag not found", id));
         tag.setName(tagRequest.getName());
         Tag updatedTag = tagRepository.save(tag);
+        tagDictionary.evict(id);
+        eventPublisher.publishEvent(new TagChangedEvent(updatedTag.getId(), updatedTag.getName()));
         return tagMapper.toResponse(updatedTag);
     }
 
     /**
      * Finds tag by id.
+     * Ids missing from id filter are rejected after one existence check.
+     * Concurrent calls with the same id share one read, that runs in its own transaction,
+     * so waiting callers don't hold database connections.
      *
      * @param id id of desired tag
      * @return optional tag
      * @throws EntityNotFoundException when tag with such id doesn't exist
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public TagResponse find(Integer id) {
-        Tag tag = tagRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Tag not found", id));
-        return tagMapper.toResponse(tag);
+        if (!idFilters.getTags().mightContain(id, tagRepository::existsById)) {
+            throw new EntityNotFoundException("Tag not found", id);
+        }
+        return singleFlight.load("tag", id, () -> {
+            Tag tag = tagRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Tag not found", id));
+            return tagMapper.toResponse(tag);
+        });
     }
 
     public List<Tag> findAllByNameIn(List<String> names) {
         return tagRepository.findAllByNameIn(names);
     }
+
+    /**
+     * Finds tags by names and creates missing ones.
+     * Names are looked up in {@link TagDictionary} first, the rest is read
+     * and inserted with one upsert statement, which is safe against concurrent
+     * creation of the same names.
+     *
+     * @param names names of tags, duplicates are ignored
+     * @return tags in order of passed names, tag name to tag
+     */
+    @Transactional
+    public Map<String, Tag> findOrCreateAll(Collection<String> names) {
+        Map<String, Tag> tags = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            if (tags.containsKey(name)) {
+                continue;
+            }
+            Tag cached = tagDictionary.get(name);
+            tags.put(name, cached);
+            if (cached == null) {
+                missing.add(name);
+            }
+        }
+        if (missing.isEmpty()) {
+            return tags;
+        }
+        List<Tag> found = tagRepository.findOrInsertAll(missing);
+        idFilters.getTags().addAll(found.stream().map(Tag::getId).toList());
+        found.forEach(tag -> tags.put(tag.getName(), tag));
+        // found tags may be created by current transaction, so they are cached only after commit
+        tagDictionary.putAllAfterCommit(found);
+        return tags;
+    }
 }
@@ -5,11 +5,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
 import ru.clevertec.ecl.model.User;
 import ru.clevertec.ecl.repository.UserRepository;
 import ru.clevertec.ecl.service.api.IUserService;
+import ru.clevertec.ecl.service.cache.SingleFlight;
+import ru.clevertec.ecl.service.index.EntityIdFilters;
 
 @Service
 @Transactional(readOnly = true)
@@ -17,18 +20,26 @@ import ru.clevertec.ecl.service.api.IUserService;
 public class UserService implements IUserService {
 
     private final UserRepository userRepository;
+    private final SingleFlight singleFlight;
+    private final EntityIdFilters idFilters;
 
     /**
      * Finds user by id.
+     * Ids missing from id filter are rejected after one existence check.
+     * Concurrent calls with the same id outside of transaction share one read.
      *
      * @param id id of desired user
-     * @return found user
+     * @return found user, may be shared with concurrent callers
      * @throws EntityNotFoundException if user not found
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public User find(Integer id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("User with such id not found", id));
+        if (!idFilters.getUsers().mightContain(id, userRepository::existsById)) {
+            throw new EntityNotFoundException("User with such id not found", id);
+        }
+        return singleFlight.load("user", id, () -> userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("User with such id not found", id)));
     }
 
     /**
@@ -2,13 +2,30 @@ package ru.clevertec.ecl.service.api;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import ru.clevertec.ecl.dto.certificate.CertificateVersion;
+import ru.clevertec.ecl.dto.certificate.Facet;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.dto.page.FacetedPage;
+
+import java.util.Set;
 
 public interface IGiftCertificateService
         extends CrudService<GiftCertificateRequest, GiftCertificateResponse, Integer> {
 
-    Page<GiftCertificateResponse> findAll(String tagName,
-                                          String description,
-                                          Pageable pageable);
+    Page<GiftCertificateResponse> findAll(GiftCertificateFilter filter, Pageable pageable);
+
+    FacetedPage<GiftCertificateResponse> findAllWithFacets(GiftCertificateFilter filter,
+                                                           Pageable pageable,
+                                                           Set<Facet> facets);
+
+    CursorPage<GiftCertificateResponse> findAllByCursor(GiftCertificateFilter filter,
+                                                        String cursor,
+                                                        int size);
+
+    GiftCertificateResponse update(Integer id, GiftCertificateRequest request, CertificateVersion.EntityTag expected);
+
+    CertificateVersion findVersion(Integer id);
 }
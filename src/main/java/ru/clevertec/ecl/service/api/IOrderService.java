@@ -3,10 +3,17 @@ package ru.clevertec.ecl.service.api;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.clevertec.ecl.dto.order.OrderResponse;
+import ru.clevertec.ecl.dto.page.CursorPage;
+
+import java.util.List;
 
 public interface IOrderService {
 
     OrderResponse makeOrder(Integer userId, Integer certificateId);
 
+    OrderResponse makeOrder(Integer userId, List<Integer> certificateIds);
+
     Page<OrderResponse> getUserOrders(Integer userId, Pageable pageable);
+
+    CursorPage<OrderResponse> getUserOrdersByCursor(Integer userId, String cursor, int size);
 }
@@ -0,0 +1,165 @@
+package ru.clevertec.ecl.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.clevertec.ecl.config.SearchCacheProperties;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.certificate.MatchMode;
+import ru.clevertec.ecl.dto.certificate.TagMatch;
+import ru.clevertec.ecl.service.event.CertificateChangedEvent;
+import ru.clevertec.ecl.service.event.CertificateDeletedEvent;
+import ru.clevertec.ecl.service.event.CertificateTagsChangedEvent;
+import ru.clevertec.ecl.service.event.CertificatesImportedEvent;
+import ru.clevertec.ecl.service.event.CertificatesLoadedEvent;
+import ru.clevertec.ecl.service.event.TagChangedEvent;
+import ru.clevertec.ecl.service.event.TagDeletedEvent;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of certificate search pages with W-TinyLFU eviction.
+ * <p>
+ * Pages are keyed by normalized filter, page request and version of data. Version is
+ * bumped after every committed write of certificates or tags, so pages read before
+ * the write are never found again and are evicted eventually. Version is taken before
+ * page is read, so page that may miss concurrent write is cached under the old version.
+ * <p>
+ * Cached pages are shared between callers and must not be modified.
+ */
+@Component
+public class CertificateSearchCache {
+
+    private static final String NAME = "certificate-search";
+
+    private final Cache<Key, Page<GiftCertificateResponse>> pages;
+    private final AtomicLong version = new AtomicLong();
+
+    public CertificateSearchCache(SearchCacheProperties properties, MeterRegistry meterRegistry) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, NAME);
+        Gauge.builder("cache.hit.ratio", pages, cache -> cache.stats().hitRatio())
+                .description("Share of lookups of certificate search pages served from cache")
+                .tag("cache", NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds cached page or reads and caches it.
+     * Inside transaction search is always read, as it may see uncommitted writes of the transaction.
+     *
+     * @param filter   search criteria
+     * @param pageable page request
+     * @param search   reads page from database
+     * @return page of certificates
+     */
+    public Page<GiftCertificateResponse> get(GiftCertificateFilter filter,
+                                             Pageable pageable,
+                                             Supplier<Page<GiftCertificateResponse>> search) {
+        if (pageable.isUnpaged() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return search.get();
+        }
+        return pages.get(Key.of(filter, pageable, version.get()), key -> search.get());
+    }
+
+    /**
+     * Makes all cached pages unreachable.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onCertificateChanged(CertificateChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onCertificateTagsChanged(CertificateTagsChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onCertificateDeleted(CertificateDeletedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onCertificatesImported(CertificatesImportedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onCertificatesLoaded(CertificatesLoadedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onTagChanged(TagChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Search criteria that select the same page. Tag names are a set for both
+     * {@link TagMatch} modes, so their order and duplicates are dropped;
+     * name and description are matched ignoring case, so they are lower-cased.
+     */
+    record Key(List<String> tagNames,
+               TagMatch tagMatch,
+               String name,
+               String description,
+               String text,
+               MatchMode match,
+               Double minPrice,
+               Double maxPrice,
+               int page,
+               int size,
+               Sort sort,
+               long version) {
+
+        static Key of(GiftCertificateFilter filter, Pageable pageable, long version) {
+            List<String> tagNames = filter.getTagNames() == null
+                    ? List.of()
+                    : filter.getTagNames().stream().distinct().sorted().toList();
+            return new Key(
+                    tagNames,
+                    tagNames.isEmpty() ? null : filter.getTagMatch(),
+                    lowerCase(filter.getName()),
+                    lowerCase(filter.getDescription()),
+                    filter.getText(),
+                    filter.getText() == null ? null : filter.getMatch(),
+                    filter.getMinPrice(),
+                    filter.getMaxPrice(),
+                    pageable.getPageNumber(),
+                    pageable.getPageSize(),
+                    pageable.getSort(),
+                    version
+            );
+        }
+
+        private static String lowerCase(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
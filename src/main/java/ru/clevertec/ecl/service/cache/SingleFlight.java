@@ -0,0 +1,84 @@
+package ru.clevertec.ecl.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller loads value
+ * in its own thread, callers that come while it's in progress wait for it
+ * and receive the same value or exception. Nothing is kept after load completes.
+ * <p>
+ * Callers inside transaction always load value themselves, as it may depend
+ * on uncommitted writes of the transaction.
+ * <p>
+ * Numbers of loads and coalesced calls are exported as {@code singleflight.loads}
+ * and {@code singleflight.coalesced} tagged with name of loaded values.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Loads value or waits for load of the same key that is already in progress.
+     *
+     * @param name   name of loaded values, e.g. entity name
+     * @param key    key of value within name
+     * @param loader loads value, its exceptions are rethrown to all waiting callers
+     * @param <T>    type of value
+     * @return loaded value, shared with concurrent callers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String name, Object key, Supplier<T> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        Key flightKey = new Key(name, key);
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, own);
+        if (existing != null) {
+            meterRegistry.counter("singleflight.coalesced", "name", name).increment();
+            return (T) join(existing);
+        }
+        meterRegistry.counter("singleflight.loads", "name", name).increment();
+        try {
+            T value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, own);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String name, Object key) {
+    }
+}
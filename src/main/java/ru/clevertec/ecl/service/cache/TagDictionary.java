@@ -0,0 +1,96 @@
+package ru.clevertec.ecl.service.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.clevertec.ecl.model.Tag;
+import ru.clevertec.ecl.service.event.TagChangedEvent;
+import ru.clevertec.ecl.service.event.TagDeletedEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of tags by name.
+ * <p>
+ * Cached tags are detached copies, they are safe to share between threads and
+ * to reference from certificates of any persistence context. Renamed and deleted tags
+ * are evicted both when they are changed and after the change is committed, so a
+ * concurrent reader can't put stale tag back for long.
+ */
+@Component
+public class TagDictionary {
+
+    /**
+     * Tags vocabulary is expected to be small, the limit only protects heap.
+     */
+    private static final int MAX_SIZE = 100_000;
+
+    private final Map<String, Tag> tagsByName = new ConcurrentHashMap<>();
+
+    /**
+     * Finds cached tag by name.
+     *
+     * @param name name of tag
+     * @return copy of cached tag or {@code null}
+     */
+    public Tag get(String name) {
+        Tag tag = tagsByName.get(name);
+        return tag == null
+                ? null
+                : new Tag(tag.getId(), tag.getName());
+    }
+
+    /**
+     * Caches tags that are already committed.
+     *
+     * @param tags tags read from database
+     */
+    public void putAll(Collection<Tag> tags) {
+        for (Tag tag : tags) {
+            if (tagsByName.size() >= MAX_SIZE) {
+                return;
+            }
+            tagsByName.put(tag.getName(), new Tag(tag.getId(), tag.getName()));
+        }
+    }
+
+    /**
+     * Caches tags read or created in current transaction once it is committed.
+     * Caches them immediately if there is no transaction.
+     *
+     * @param tags tags visible to current transaction
+     */
+    public void putAllAfterCommit(Collection<Tag> tags) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putAll(tags);
+            return;
+        }
+        List<Tag> copies = tags.stream()
+                .map(tag -> new Tag(tag.getId(), tag.getName()))
+                .toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putAll(copies);
+            }
+        });
+    }
+
+    public void evict(Integer tagId) {
+        tagsByName.values().removeIf(tag -> tag.getId().equals(tagId));
+    }
+
+    @TransactionalEventListener
+    public void onTagChanged(TagChangedEvent event) {
+        evict(event.tagId());
+    }
+
+    @TransactionalEventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        evict(event.tagId());
+    }
+}
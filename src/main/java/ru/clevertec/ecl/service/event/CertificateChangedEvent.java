@@ -0,0 +1,9 @@
+package ru.clevertec.ecl.service.event;
+
+/**
+ * Published when fields of certificate are updated.
+ *
+ * @param certificateId id of updated certificate
+ */
+public record CertificateChangedEvent(Integer certificateId) {
+}
@@ -0,0 +1,9 @@
+package ru.clevertec.ecl.service.event;
+
+/**
+ * Published when certificate is deleted.
+ *
+ * @param certificateId id of deleted certificate
+ */
+public record CertificateDeletedEvent(Integer certificateId) {
+}
@@ -0,0 +1,12 @@
+package ru.clevertec.ecl.service.event;
+
+import java.util.Map;
+
+/**
+ * Published when certificate is created or its tags are replaced.
+ *
+ * @param certificateId id of certificate
+ * @param tags          current tags of certificate, tag id to tag name
+ */
+public record CertificateTagsChangedEvent(Integer certificateId, Map<Integer, String> tags) {
+}
@@ -0,0 +1,11 @@
+package ru.clevertec.ecl.service.event;
+
+import java.util.Map;
+
+/**
+ * Published once per chunk of certificates created by bulk import.
+ *
+ * @param tags certificate id to tags of certificate, tag id to tag name
+ */
+public record CertificatesImportedEvent(Map<Integer, Map<Integer, String>> tags) {
+}
@@ -0,0 +1,9 @@
+package ru.clevertec.ecl.service.event;
+
+/**
+ * Published when certificates are loaded directly into tables, bypassing entities.
+ *
+ * @param count number of loaded certificates
+ */
+public record CertificatesLoadedEvent(long count) {
+}
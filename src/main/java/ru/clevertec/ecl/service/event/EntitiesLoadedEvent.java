@@ -0,0 +1,12 @@
+package ru.clevertec.ecl.service.event;
+
+import ru.clevertec.ecl.dto.load.LoadEntity;
+
+/**
+ * Published when rows of any entity are loaded directly into tables, bypassing entities.
+ *
+ * @param entity loaded entity
+ * @param count  number of loaded rows
+ */
+public record EntitiesLoadedEvent(LoadEntity entity, long count) {
+}
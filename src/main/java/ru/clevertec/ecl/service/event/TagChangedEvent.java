@@ -0,0 +1,10 @@
+package ru.clevertec.ecl.service.event;
+
+/**
+ * Published when tag is renamed.
+ *
+ * @param tagId id of tag
+ * @param name  new name of tag
+ */
+public record TagChangedEvent(Integer tagId, String name) {
+}
@@ -0,0 +1,9 @@
+package ru.clevertec.ecl.service.event;
+
+/**
+ * Published when tag is deleted.
+ *
+ * @param tagId id of deleted tag
+ */
+public record TagDeletedEvent(Integer tagId) {
+}
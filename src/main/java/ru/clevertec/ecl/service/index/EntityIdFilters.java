@@ -0,0 +1,99 @@
+package ru.clevertec.ecl.service.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.clevertec.ecl.service.event.CertificateDeletedEvent;
+import ru.clevertec.ecl.service.event.CertificateTagsChangedEvent;
+import ru.clevertec.ecl.service.event.CertificatesImportedEvent;
+import ru.clevertec.ecl.service.event.EntitiesLoadedEvent;
+import ru.clevertec.ecl.service.event.TagDeletedEvent;
+
+/**
+ * Filters of existing ids of certificates, tags and users, that let lookups
+ * of missing ids check existence with one indexed select instead of reading rows.
+ * <p>
+ * Filters are built from tables when application is ready. Ids created by this instance
+ * are added when they are inserted, in the same transaction; deleted ids are removed after commit.
+ * Tags are added by {@link ru.clevertec.ecl.service.TagService}, certificates by events of their writes.
+ * Rows written by other processes, such as {@link ru.clevertec.ecl.GiftCertificateLoader}, other instances
+ * or manual SQL, aren't known to filters, so ids missing from filter are checked in database
+ * by {@link IdFilter#mightContain(Integer, java.util.function.Predicate)} and added when found.
+ */
+@Slf4j
+@Getter
+@Component
+@RequiredArgsConstructor
+public class EntityIdFilters {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final IdFilter certificates = new IdFilter();
+    private final IdFilter tags = new IdFilter();
+    private final IdFilter users = new IdFilter();
+
+    /**
+     * Builds filters from database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        build(certificates, "gift_shop.gift_certificates");
+        build(tags, "gift_shop.tags");
+        build(users, "gift_shop.users");
+        log.info("Id filters of {} certificates, {} tags and {} users are built in {} ms",
+                certificates.size(), tags.size(), users.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Certificate is created or its tags are changed, id is added in both cases.
+     */
+    @EventListener
+    public void onCertificateTagsChanged(CertificateTagsChangedEvent event) {
+        certificates.add(event.certificateId());
+    }
+
+    @EventListener
+    public void onCertificatesImported(CertificatesImportedEvent event) {
+        certificates.addAll(event.tags().keySet());
+    }
+
+    /**
+     * Ids of loaded rows aren't known, so tables are read again by the loading transaction.
+     * Loading of certificates creates missing tags as well.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onEntitiesLoaded(EntitiesLoadedEvent event) {
+        switch (event.entity()) {
+            case CERTIFICATES -> {
+                build(certificates, "gift_shop.gift_certificates");
+                build(tags, "gift_shop.tags");
+            }
+            case TAGS -> build(tags, "gift_shop.tags");
+            case USERS -> build(users, "gift_shop.users");
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCertificateDeleted(CertificateDeletedEvent event) {
+        certificates.remove(event.certificateId());
+    }
+
+    @TransactionalEventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        tags.remove(event.tagId());
+    }
+
+    private void build(IdFilter filter, String table) {
+        RoaringBitmap ids = new RoaringBitmap();
+        jdbcTemplate.query("SELECT id FROM " + table, resultSet -> ids.add(resultSet.getInt(1)));
+        filter.build(ids);
+    }
+}
@@ -0,0 +1,119 @@
+package ru.clevertec.ecl.service.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Ids of one table, answers whether id can exist.
+ * <p>
+ * Ids are kept in compressed bitmap, that is compact for ids taken from sequence,
+ * so unlike Bloom filter it has no false positives for ids that were never added.
+ * Ids are added when rows are inserted, before commit, so ids of rolled back
+ * inserts may stay in filter. Until filter is built every id can exist.
+ * Rows inserted by other processes aren't added by events, so lookups check ids
+ * missing from filter in database with {@link #mightContain(Integer, Predicate)}.
+ */
+public class IdFilter {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap ids = new RoaringBitmap();
+
+    private volatile boolean built;
+
+    /**
+     * Checks whether id can exist.
+     *
+     * @param id id of row
+     * @return {@code false} if row with such id certainly doesn't exist
+     */
+    public boolean mightContain(Integer id) {
+        if (!built) {
+            return true;
+        }
+        if (id == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.contains(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether id can exist, asking database about id missing from filter.
+     * Found id is added, so it's checked in database once.
+     *
+     * @param id     id of row
+     * @param exists indexed existence check of row in database
+     * @return {@code false} if row with such id doesn't exist
+     */
+    public boolean mightContain(Integer id, Predicate<Integer> exists) {
+        if (mightContain(id)) {
+            return true;
+        }
+        if (id == null || !exists.test(id)) {
+            return false;
+        }
+        add(id);
+        return true;
+    }
+
+    public void add(Integer id) {
+        lock.writeLock().lock();
+        try {
+            ids.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(Collection<Integer> added) {
+        lock.writeLock().lock();
+        try {
+            added.forEach(ids::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            ids.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds ids read from table and starts answering by them.
+     * Ids added while table was read are kept.
+     *
+     * @param existing ids of table
+     */
+    public void build(RoaringBitmap existing) {
+        lock.writeLock().lock();
+        try {
+            ids.or(existing);
+            ids.runOptimize();
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return ids.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
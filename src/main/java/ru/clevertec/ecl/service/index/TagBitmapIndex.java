@@ -0,0 +1,373 @@
+package ru.clevertec.ecl.service.index;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.clevertec.ecl.dto.certificate.TagMatch;
+import ru.clevertec.ecl.repository.GiftCertificateRepository;
+import ru.clevertec.ecl.repository.projection.CertificateTagView;
+import ru.clevertec.ecl.service.event.CertificateDeletedEvent;
+import ru.clevertec.ecl.service.event.CertificateTagsChangedEvent;
+import ru.clevertec.ecl.service.event.CertificatesImportedEvent;
+import ru.clevertec.ecl.service.event.CertificatesLoadedEvent;
+import ru.clevertec.ecl.service.event.TagChangedEvent;
+import ru.clevertec.ecl.service.event.TagDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of certificate ids by tag as compressed bitmaps.
+ * <p>
+ * Index is built from {@code gift_certificate_tag} when application is ready and then
+ * kept current by events of {@link ru.clevertec.ecl.service.GiftCertificateService}
+ * and {@link ru.clevertec.ecl.service.TagService} after their transactions are committed.
+ * <p>
+ * Readers work with immutable snapshot without locking, writers copy only changed bitmaps.
+ * Changes committed while index is being built are applied to it before it's published.
+ * Until index is built {@link #find(Collection, TagMatch)} returns empty optional,
+ * so callers fall back to SQL. Certificates loaded by {@link ru.clevertec.ecl.service.load.CopyLoadService}
+ * make index rebuild in background, index answers nothing until then.
+ * <p>
+ * Index sees only changes made by this application instance. Certificates loaded by
+ * {@link ru.clevertec.ecl.GiftCertificateLoader} in another process, written by other instances
+ * or by SQL aren't found by tags until index is rebuilt on restart;
+ * load certificates into running instance through {@code POST /admin/import/certificates} instead.
+ * <p>
+ * Index handles events before other listeners, so caches of search results
+ * invalidated after commit can't be filled from index that isn't updated yet.
+ */
+@Slf4j
+@Component
+public class TagBitmapIndex {
+
+    private final GiftCertificateRepository certificateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    /**
+     * Number of loads of certificates committed and number of them included in published index.
+     */
+    private final AtomicLong loads = new AtomicLong();
+    private volatile long loadsIndexed;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Changes handled during each rebuild in progress, guarded by this index.
+     */
+    private final Set<List<UnaryOperator<Snapshot>>> rebuilding =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Links are read in their own read-only transaction, so rebuild started after commit
+     * of another transaction doesn't join it and streams links with cursor.
+     */
+    public TagBitmapIndex(GiftCertificateRepository certificateRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.certificateRepository = certificateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.rebuilder = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "tag-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        rebuilder.shutdown();
+    }
+
+    /**
+     * Finds ids of certificates that have tags with passed names.
+     *
+     * @param tagNames names of tags
+     * @param match    whether certificate must have all tags or any of them
+     * @return ids of certificates, caller may modify them;
+     * empty optional if index isn't built yet
+     */
+    public Optional<RoaringBitmap> find(Collection<String> tagNames, TagMatch match) {
+        Snapshot current = current();
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(matching(current, tagNames, match));
+    }
+
+    /**
+     * Counts certificates that have tags with passed names per tag.
+     * Tags without such certificates are omitted.
+     *
+     * @param tagNames names of tags, all certificates are counted if it's empty
+     * @param match    whether certificate must have all tags or any of them
+     * @return tag name to number of certificates, ordered by number descending;
+     * empty optional if index isn't built yet
+     */
+    public Optional<Map<String, Long>> countByTag(Collection<String> tagNames, TagMatch match) {
+        Snapshot current = current();
+        if (current == null) {
+            return Optional.empty();
+        }
+        RoaringBitmap matched = tagNames.isEmpty()
+                ? null
+                : matching(current, tagNames, match);
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        current.tagIds().forEach((name, tagId) -> {
+            RoaringBitmap certificates = current.certificateIds().get(tagId);
+            if (certificates == null) {
+                return;
+            }
+            long count = matched == null
+                    ? certificates.getLongCardinality()
+                    : RoaringBitmap.andCardinality(matched, certificates);
+            if (count > 0) {
+                counts.add(Map.entry(name, count));
+            }
+        });
+        counts.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return Optional.of(result);
+    }
+
+    /**
+     * Rebuilds index from database.
+     * Changes handled while links are read are recorded and applied to built index,
+     * so it doesn't lose changes committed after the read has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        long loadsBefore = loads.get();
+        List<UnaryOperator<Snapshot>> missed = new ArrayList<>();
+        synchronized (this) {
+            rebuilding.add(missed);
+        }
+        Snapshot built;
+        try {
+            built = transactionTemplate.execute(status -> {
+                Map<String, Integer> tagIds = new HashMap<>();
+                Map<Integer, RoaringBitmap> certificateIds = new HashMap<>();
+                try (Stream<CertificateTagView> links = certificateRepository.streamAllTagLinks()) {
+                    links.forEach(link -> {
+                        tagIds.put(link.tagName(), link.tagId());
+                        certificateIds.computeIfAbsent(link.tagId(), id -> new RoaringBitmap())
+                                .add(link.certificateId());
+                    });
+                }
+                certificateIds.values().forEach(RoaringBitmap::runOptimize);
+                return new Snapshot(tagIds, certificateIds);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuilding.remove(missed);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            rebuilding.remove(missed);
+            for (UnaryOperator<Snapshot> change : missed) {
+                built = change.apply(built);
+            }
+            snapshot = built;
+            loadsIndexed = Math.max(loadsIndexed, loadsBefore);
+        }
+        log.info("Tag index of {} tags is built in {} ms, {} changes are applied after reading",
+                built.certificateIds().size(), (System.nanoTime() - start) / 1_000_000, missed.size());
+    }
+
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCertificateTagsChanged(CertificateTagsChangedEvent event) {
+        apply(current -> {
+            Map<String, Integer> tagIds = new HashMap<>(current.tagIds());
+            Map<Integer, RoaringBitmap> certificateIds = without(current.certificateIds(), event.certificateId());
+            event.tags().forEach((tagId, name) -> {
+                tagIds.put(name, tagId);
+                RoaringBitmap bitmap = certificateIds.containsKey(tagId)
+                        ? certificateIds.get(tagId).clone()
+                        : new RoaringBitmap();
+                bitmap.add(event.certificateId());
+                certificateIds.put(tagId, bitmap);
+            });
+            return new Snapshot(tagIds, certificateIds);
+        });
+    }
+
+    /**
+     * Adds new certificates of import chunk copying each affected bitmap once.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCertificatesImported(CertificatesImportedEvent event) {
+        apply(current -> {
+            Map<String, Integer> tagIds = new HashMap<>(current.tagIds());
+            Map<Integer, RoaringBitmap> certificateIds = new HashMap<>(current.certificateIds());
+            Set<Integer> copied = new HashSet<>();
+            event.tags().forEach((certificateId, tags) -> tags.forEach((tagId, name) -> {
+                tagIds.put(name, tagId);
+                if (copied.add(tagId)) {
+                    RoaringBitmap bitmap = certificateIds.containsKey(tagId)
+                            ? certificateIds.get(tagId).clone()
+                            : new RoaringBitmap();
+                    certificateIds.put(tagId, bitmap);
+                }
+                certificateIds.get(tagId).add(certificateId);
+            }));
+            copied.forEach(tagId -> certificateIds.get(tagId).runOptimize());
+            return new Snapshot(tagIds, certificateIds);
+        });
+    }
+
+    /**
+     * Certificates loaded directly into tables aren't described by events, so index is rebuilt
+     * in background without holding committing thread. Loads committed while rebuild is queued
+     * share it. Until loaded certificates are indexed, index answers nothing and searches use SQL.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCertificatesLoaded(CertificatesLoadedEvent event) {
+        loads.incrementAndGet();
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Tag index isn't rebuilt after load, searches use SQL until next load", e);
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCertificateDeleted(CertificateDeletedEvent event) {
+        apply(current -> new Snapshot(current.tagIds(), without(current.certificateIds(), event.certificateId())));
+    }
+
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTagChanged(TagChangedEvent event) {
+        apply(current -> {
+            Map<String, Integer> tagIds = new HashMap<>(current.tagIds());
+            tagIds.values().remove(event.tagId());
+            tagIds.put(event.name(), event.tagId());
+            return new Snapshot(tagIds, current.certificateIds());
+        });
+    }
+
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTagDeleted(TagDeletedEvent event) {
+        apply(current -> {
+            Map<String, Integer> tagIds = new HashMap<>(current.tagIds());
+            tagIds.values().remove(event.tagId());
+            Map<Integer, RoaringBitmap> certificateIds = new HashMap<>(current.certificateIds());
+            certificateIds.remove(event.tagId());
+            return new Snapshot(tagIds, certificateIds);
+        });
+    }
+
+    /**
+     * @return published index, {@code null} if it isn't built or misses loaded certificates
+     */
+    private Snapshot current() {
+        return loadsIndexed < loads.get()
+                ? null
+                : snapshot;
+    }
+
+    /**
+     * Applies change to published index and records it for rebuilds in progress.
+     * Changes don't modify passed snapshot and lead to the same state when applied again.
+     */
+    private synchronized void apply(UnaryOperator<Snapshot> change) {
+        rebuilding.forEach(missed -> missed.add(change));
+        if (snapshot != null) {
+            snapshot = change.apply(snapshot);
+        }
+    }
+
+    private static RoaringBitmap matching(Snapshot snapshot, Collection<String> tagNames, TagMatch match) {
+        RoaringBitmap[] bitmaps = tagNames.stream()
+                .distinct()
+                .map(snapshot::certificatesOf)
+                .toArray(RoaringBitmap[]::new);
+        if (bitmaps.length == 0) {
+            return new RoaringBitmap();
+        }
+        if (bitmaps.length == 1) {
+            return bitmaps[0].clone();
+        }
+        return match == TagMatch.ALL
+                ? FastAggregation.and(bitmaps)
+                : FastAggregation.or(bitmaps);
+    }
+
+    /**
+     * Copy of index where certificate doesn't belong to any tag.
+     * Only bitmaps that contain certificate are copied.
+     */
+    private static Map<Integer, RoaringBitmap> without(Map<Integer, RoaringBitmap> certificateIds,
+                                                       Integer certificateId) {
+        Map<Integer, RoaringBitmap> copy = new HashMap<>(certificateIds);
+        copy.replaceAll((tagId, bitmap) -> {
+            if (!bitmap.contains(certificateId)) {
+                return bitmap;
+            }
+            RoaringBitmap changed = bitmap.clone();
+            changed.remove(certificateId);
+            return changed;
+        });
+        return copy;
+    }
+
+    /**
+     * Immutable state of index. Bitmaps are never modified after snapshot is published.
+     *
+     * @param tagIds         tag name to tag id
+     * @param certificateIds tag id to ids of certificates with this tag
+     */
+    private record Snapshot(Map<String, Integer> tagIds, Map<Integer, RoaringBitmap> certificateIds) {
+
+        private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+        RoaringBitmap certificatesOf(String tagName) {
+            Integer tagId = tagIds.get(tagName);
+            return tagId == null
+                    ? EMPTY
+                    : certificateIds.getOrDefault(tagId, EMPTY);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package ru.clevertec.ecl.service.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.clevertec.ecl.dto.load.LoadEntity;
+import ru.clevertec.ecl.dto.load.LoadFormat;
+import ru.clevertec.ecl.dto.load.LoadReport;
+import ru.clevertec.ecl.service.event.CertificatesLoadedEvent;
+import ru.clevertec.ecl.service.event.EntitiesLoadedEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads large files into tables with PostgreSQL {@code COPY FROM STDIN}.
+ * <p>
+ * Input is streamed into temporary staging table and then merged into target tables
+ * with a few set-based statements, all in one transaction. Ids of inserted rows are taken
+ * from id sequences in blocks of {@link ru.clevertec.ecl.model.GiftCertificate#ID_ALLOCATION_SIZE}
+ * like Hibernate does, names that already exist are skipped before ids are taken,
+ * so loading the same names again doesn't use up ids. NDJSON lines are copied
+ * as {@code jsonb} values and converted to staging rows in SQL.
+ * Entities, their events and caches are bypassed, dependent in-memory state
+ * is rebuilt after commit. Only new rows are inserted, so second-level cache
+ * of entities stays valid.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CopyLoadService {
+
+    private static final String STAGING = "load_staging";
+    private static final String JSON_STAGING = "load_json_staging";
+
+    private static final Map<LoadEntity, Target> TARGETS = Map.of(
+            LoadEntity.CERTIFICATES, new Target(
+                    """
+                            line_number INT GENERATED ALWAYS AS IDENTITY,
+                            id          INT,
+                            name        TEXT,
+                            description TEXT,
+                            price       DOUBLE PRECISION,
+                            duration    INT,
+                            tags        TEXT
+                            """,
+                    "name, description, price, duration, tags",
+                    """
+                            doc ->> 'name',
+                            doc ->> 'description',
+                            (doc ->> 'price')::DOUBLE PRECISION,
+                            (doc ->> 'duration')::INT,
+                            (SELECT string_agg(coalesce(tag ->> 'name', tag #>> '{}'), '|')
+                             FROM jsonb_array_elements(coalesce(doc -> 'tags', '[]'::JSONB)) tag)
+                            """,
+                    List.of("""
+                            WITH block AS MATERIALIZED (
+                                SELECT n - 1 AS number, nextval('gift_shop.gift_certificates_id_seq') AS first_id
+                                FROM generate_series(1, (SELECT (count(*) + 49) / 50 FROM load_staging)) n
+                            )
+                            UPDATE load_staging s
+                            SET id = block.first_id + (s.line_number - 1) % 50
+                            FROM block
+                            WHERE block.number = (s.line_number - 1) / 50
+                            """, insertNewNames("tags", """
+                            SELECT DISTINCT trim(tag_name) AS name
+                            FROM load_staging, unnest(string_to_array(tags, '|')) tag_name
+                            WHERE trim(tag_name) <> ''
+                            """)),
+                    """
+                            INSERT INTO gift_shop.gift_certificates
+                                (id, name, description, price, duration, create_date, last_update_date)
+                            SELECT id, name, description, price, duration, now(), now()
+                            FROM load_staging
+                            """,
+                    List.of("""
+                            INSERT INTO gift_shop.gift_certificate_tag (gift_certificate_id, tag_id)
+                            SELECT DISTINCT s.id, t.id
+                            FROM load_staging s
+                                     CROSS JOIN unnest(string_to_array(s.tags, '|')) tag_name
+                                     JOIN gift_shop.tags t ON t.name = trim(tag_name)
+                            """)
+            ),
+            LoadEntity.TAGS, new Target(
+                    "name TEXT",
+                    "name",
+                    "doc ->> 'name'",
+                    List.of(),
+                    insertNewNames("tags", """
+                            SELECT DISTINCT trim(name) AS name FROM load_staging WHERE trim(name) <> ''
+                            """),
+                    List.of()
+            ),
+            LoadEntity.USERS, new Target(
+                    "name TEXT",
+                    "name",
+                    "doc ->> 'name'",
+                    List.of(),
+                    insertNewNames("users", """
+                            SELECT DISTINCT trim(name) AS name FROM load_staging WHERE trim(name) <> ''
+                            """),
+                    List.of()
+            )
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Loads input into table of entity in one transaction.
+     *
+     * @param entity target of load
+     * @param format format of input
+     * @param input  CSV with header or NDJSON, see {@link LoadEntity} for columns
+     * @return numbers of read and inserted rows and throughput
+     */
+    public LoadReport load(LoadEntity entity, LoadFormat format, InputStream input) {
+        Target target = TARGETS.get(entity);
+        long start = System.nanoTime();
+        long[] counts = transactionTemplate.execute(status -> {
+            createTempTable(STAGING, target.staging());
+            long read = format == LoadFormat.CSV
+                    ? copyCsv(target, input)
+                    : copyJson(target, input);
+            target.before().forEach(jdbcTemplate::update);
+            long inserted = jdbcTemplate.update(target.insert());
+            target.after().forEach(jdbcTemplate::update);
+            if (entity == LoadEntity.CERTIFICATES) {
+                eventPublisher.publishEvent(new CertificatesLoadedEvent(inserted));
+            }
+            eventPublisher.publishEvent(new EntitiesLoadedEvent(entity, inserted));
+            return new long[]{read, inserted};
+        });
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        LoadReport report = new LoadReport(entity, format, counts[0], counts[1], millis, counts[0] * 1000 / millis);
+        log.info("Loaded {}: {} rows read, {} inserted in {} ms ({} rows/s)",
+                entity, report.getRowsRead(), report.getRowsInserted(), millis, report.getRowsPerSecond());
+        return report;
+    }
+
+    private long copyCsv(Target target, InputStream input) {
+        return copy("COPY %s (%s) FROM STDIN WITH (FORMAT csv, HEADER true)"
+                .formatted(STAGING, target.columns()), input);
+    }
+
+    /**
+     * Copies every line into {@code jsonb} column and fills staging table from it.
+     * Quote and delimiter are set to characters that don't appear in JSON text,
+     * so CSV mode passes lines as is.
+     */
+    private long copyJson(Target target, InputStream input) {
+        createTempTable(JSON_STAGING, "doc JSONB");
+        copy("COPY %s (doc) FROM STDIN WITH (FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02')"
+                .formatted(JSON_STAGING), input);
+        return jdbcTemplate.update("INSERT INTO %s (%s) SELECT %s FROM %s WHERE doc IS NOT NULL"
+                .formatted(STAGING, target.columns(), target.fromJson(), JSON_STAGING));
+    }
+
+    private long copy(String sql, InputStream input) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class)
+                        .getCopyAPI()
+                        .copyIn(sql, input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private void createTempTable(String name, String columns) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+        jdbcTemplate.execute("CREATE TEMP TABLE %s (%s) ON COMMIT DROP".formatted(name, columns));
+    }
+
+    /**
+     * Inserts names that aren't in table yet with ids from blocks of 50 reserved with {@code nextval}.
+     * Names inserted concurrently after the check are skipped by {@code ON CONFLICT}
+     * and waste one id each.
+     *
+     * @param table table with unique {@code name} and pooled id sequence
+     * @param names query of distinct names in column {@code name}
+     */
+    private static String insertNewNames(String table, String names) {
+        return """
+                WITH new_name AS MATERIALIZED (
+                    SELECT name, row_number() OVER (ORDER BY name) - 1 AS number
+                    FROM (%2$s) names
+                    WHERE NOT EXISTS (SELECT 1 FROM gift_shop.%1$s existing WHERE existing.name = names.name)
+                ),
+                block AS MATERIALIZED (
+                    SELECT n - 1 AS number, nextval('gift_shop.%1$s_id_seq') AS first_id
+                    FROM generate_series(1, (SELECT (count(*) + 49) / 50 FROM new_name)) n
+                )
+                INSERT INTO gift_shop.%1$s (id, name)
+                SELECT block.first_id + new_name.number %% 50, new_name.name
+                FROM new_name
+                         JOIN block ON block.number = new_name.number / 50
+                ORDER BY new_name.name
+                ON CONFLICT (name) DO NOTHING
+                """.formatted(table, names);
+    }
+
+    /**
+     * SQL of loading one entity.
+     *
+     * @param staging  column definitions of staging table
+     * @param columns  columns of staging table filled from input
+     * @param fromJson expressions of the same columns over {@code doc jsonb}
+     * @param before   statements preparing rows referenced by target table
+     * @param insert   statement inserting staged rows into target table
+     * @param after    statements inserting rows that reference target table
+     */
+    private record Target(String staging,
+                          String columns,
+                          String fromJson,
+                          List<String> before,
+                          String insert,
+                          List<String> after) {
+    }
+}
@@ -0,0 +1,189 @@
+package ru.clevertec.ecl.service.order;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.clevertec.ecl.config.BulkOrderProperties;
+import ru.clevertec.ecl.dto.bulk.BulkImportResponse;
+import ru.clevertec.ecl.dto.bulk.BulkItemResult;
+import ru.clevertec.ecl.dto.order.BulkOrderItem;
+import ru.clevertec.ecl.model.Order;
+import ru.clevertec.ecl.repository.GiftCertificateRepository;
+import ru.clevertec.ecl.repository.OrderRepository;
+import ru.clevertec.ecl.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Creates orders of many users from one request.
+ * <p>
+ * Existence of all users and certificates is checked with one query per {@value #IDS_PER_QUERY} ids,
+ * then valid orders are split into chunks. Every chunk is inserted with one statement in its own transaction,
+ * independent chunks are written concurrently by fixed number of threads which never takes more than
+ * half of connection pool, so other requests still get connections while batch is written.
+ */
+@Slf4j
+@Service
+public class BulkOrderService {
+
+    /**
+     * Ids bound to one existence check, PostgreSQL accepts at most 32767 parameters per statement.
+     */
+    static final int IDS_PER_QUERY = 10_000;
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final GiftCertificateRepository certificateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkOrderProperties properties;
+    private final ExecutorService executor;
+
+    public BulkOrderService(OrderRepository orderRepository,
+                            UserRepository userRepository,
+                            GiftCertificateRepository certificateRepository,
+                            TransactionTemplate transactionTemplate,
+                            BulkOrderProperties properties,
+                            DataSource dataSource) {
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.certificateRepository = certificateRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        int poolSize = dataSource instanceof HikariDataSource hikari
+                ? hikari.getMaximumPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+        int maxThreads = Math.max(1, poolSize / 2);
+        int threads = properties.concurrency() > 0
+                ? Math.min(properties.concurrency(), maxThreads)
+                : maxThreads;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "bulk-order-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Creates orders at current prices of certificates.
+     * Orders of missing users or certificates are reported and skipped.
+     *
+     * @param items pairs of user and certificate
+     * @return result of every item: id of created order or error
+     */
+    public BulkImportResponse orderAll(List<BulkOrderItem> items) {
+        long start = System.nanoTime();
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<Integer> valid = validate(items, results);
+
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < valid.size(); from += properties.chunkSize()) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + properties.chunkSize(), valid.size()));
+            chunks.add(executor.submit(() -> writeChunk(items, chunk, results)));
+        }
+        try {
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for orders", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to write orders", e.getCause());
+        }
+
+        BulkImportResponse response = new BulkImportResponse();
+        Arrays.stream(results).forEach(response::add);
+        log.info("Batch of {} orders ({} failed) in {} chunks took {} ms",
+                response.getCreated(), response.getFailed(), chunks.size(), (System.nanoTime() - start) / 1_000_000);
+        return response;
+    }
+
+    /**
+     * Reports items with missing users or certificates.
+     *
+     * @return indexes of valid items
+     */
+    private List<Integer> validate(List<BulkOrderItem> items, BulkItemResult[] results) {
+        Set<Integer> users = existing(items, BulkOrderItem::getUserId, userRepository::findExistingIds);
+        Set<Integer> certificates = existing(items, BulkOrderItem::getCertificateId,
+                certificateRepository::findExistingIds);
+        List<Integer> valid = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BulkOrderItem item = items.get(i);
+            if (item == null || item.getUserId() == null || item.getCertificateId() == null) {
+                results[i] = BulkItemResult.failed(i, "userId and certificateId must not be null");
+            } else if (!users.contains(item.getUserId())) {
+                results[i] = BulkItemResult.failed(i, "User not found");
+            } else if (!certificates.contains(item.getCertificateId())) {
+                results[i] = BulkItemResult.failed(i, "Gift certificate not found");
+            } else {
+                valid.add(i);
+            }
+        }
+        return valid;
+    }
+
+    private static Set<Integer> existing(List<BulkOrderItem> items,
+                                         Function<BulkOrderItem, Integer> id,
+                                         Function<Set<Integer>, Set<Integer>> finder) {
+        List<Integer> ids = items.stream()
+                .filter(Objects::nonNull)
+                .map(id)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Set<Integer> existing = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += IDS_PER_QUERY) {
+            List<Integer> part = ids.subList(from, Math.min(from + IDS_PER_QUERY, ids.size()));
+            existing.addAll(finder.apply(new HashSet<>(part)));
+        }
+        return existing;
+    }
+
+    /**
+     * Inserts orders of chunk in one transaction. Every chunk writes results of its own items only.
+     */
+    private void writeChunk(List<BulkOrderItem> items, List<Integer> chunk, BulkItemResult[] results) {
+        List<Integer> userIds = chunk.stream()
+                .map(index -> items.get(index).getUserId())
+                .toList();
+        List<Integer> certificateIds = chunk.stream()
+                .map(index -> items.get(index).getCertificateId())
+                .toList();
+        try {
+            List<Optional<Order>> created = transactionTemplate.execute(status -> OrderMatching.match(
+                    userIds, certificateIds, orderRepository.insertOrders(userIds, certificateIds)));
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = chunk.get(i);
+                results[index] = created.get(i)
+                        .map(order -> BulkItemResult.created(index, order.getId()))
+                        .orElseGet(() -> BulkItemResult.failed(index, "User or gift certificate not found"));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Chunk of {} orders is not saved", chunk.size(), e);
+            chunk.forEach(index -> results[index] = BulkItemResult.failed(index, "Chunk is not saved: " + e.getMessage()));
+        }
+    }
+}
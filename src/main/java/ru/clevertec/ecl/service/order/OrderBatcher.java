@@ -0,0 +1,270 @@
+package ru.clevertec.ecl.service.order;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.clevertec.ecl.config.OrderIngestionProperties;
+import ru.clevertec.ecl.exception.OrderQueueFullException;
+import ru.clevertec.ecl.model.Order;
+import ru.clevertec.ecl.repository.OrderRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Group commit of orders.
+ * <p>
+ * Callers put orders to bounded queue, single worker thread takes them in groups
+ * of up to {@code batchSize} orders or whatever arrived within {@code maxDelay}
+ * after the first order of group, and inserts each group with one statement
+ * in one transaction. Every caller is completed from result of its group.
+ * <p>
+ * Caller that stops waiting may {@link #withdraw(PendingOrder) withdraw} its order
+ * until worker takes it for insert, after that outcome of order is decided by its group.
+ * <p>
+ * Orders are accepted only while worker runs. When worker exits, because of {@link #stop()}
+ * or an error, it stops accepting orders and fails the ones it won't insert.
+ * <p>
+ * Size of groups and time orders spent in queue are published as
+ * {@code orders.batch.size} and {@code orders.queue.delay} metrics.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "order-ingestion", name = "mode", havingValue = "batched")
+public class OrderBatcher {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderIngestionProperties properties;
+    private final BlockingQueue<PendingOrder> queue;
+    private final DistributionSummary batchSize;
+    private final Timer queueDelay;
+    private final Thread worker;
+
+    /**
+     * Submitters hold read lock while they check state and queue order,
+     * so no order is queued after worker has stopped accepting them.
+     */
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+
+    public OrderBatcher(OrderRepository orderRepository,
+                        TransactionTemplate transactionTemplate,
+                        OrderIngestionProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.batchSize = DistributionSummary.builder("orders.batch.size")
+                .description("Number of orders inserted in one transaction")
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder("orders.queue.delay")
+                .description("Time order waits in queue before its group is inserted")
+                .register(meterRegistry);
+        this.worker = new Thread(this::run, "order-batcher");
+        this.worker.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker.start();
+    }
+
+    /**
+     * Stops accepting orders and waits until queued ones are inserted.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopAccepting();
+        worker.join();
+    }
+
+    /**
+     * Queues order. Caller waits up to {@code maxDelay} for free space in queue.
+     *
+     * @param userId        id of user
+     * @param certificateId id of certificate
+     * @return queued order, its result is created order, empty if user or certificate doesn't exist
+     * @throws OrderQueueFullException if queue stays full
+     */
+    public PendingOrder submit(Integer userId, Integer certificateId) {
+        PendingOrder order = new PendingOrder(userId, certificateId, new CompletableFuture<>(), System.nanoTime());
+        stateLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Order batcher is stopped");
+            }
+            if (!queue.offer(order, properties.maxDelay().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new OrderQueueFullException("Too many orders in progress", properties.queueCapacity());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing order", e);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return order;
+    }
+
+    /**
+     * Withdraws order that worker hasn't taken for insert yet. Its result is cancelled.
+     *
+     * @param order submitted order
+     * @return {@code true} if order is withdrawn and will never be inserted,
+     * {@code false} if its group is being inserted or is already done
+     */
+    public boolean withdraw(PendingOrder order) {
+        if (!order.take()) {
+            return false;
+        }
+        queue.remove(order);
+        order.result().cancel(false);
+        return true;
+    }
+
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(properties.batchSize());
+        Throwable failure = null;
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingOrder first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, first.enqueuedNanos() + properties.maxDelay().toNanos());
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            failure = e;
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            log.error("Order batcher worker failed", e);
+            throw e;
+        } finally {
+            abandon(batch, failure);
+        }
+    }
+
+    private void stopAccepting() {
+        stateLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stops accepting orders and fails orders of unfinished group and the ones left in queue.
+     * Nothing is queued after that, so no caller waits for worker that has exited.
+     */
+    private void abandon(List<PendingOrder> batch, Throwable failure) {
+        stopAccepting();
+        queue.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        IllegalStateException stopped = new IllegalStateException("Order batcher is stopped", failure);
+        batch.forEach(order -> order.result().completeExceptionally(stopped));
+        log.warn("{} orders weren't inserted as order batcher is stopped", batch.size());
+    }
+
+    /**
+     * Adds queued orders to group until it's full or deadline passes.
+     */
+    private void collect(List<PendingOrder> batch, long deadlineNanos) throws InterruptedException {
+        int limit = properties.batchSize();
+        while (batch.size() < limit) {
+            queue.drainTo(batch, limit - batch.size());
+            long remaining = deadlineNanos - System.nanoTime();
+            if (batch.size() >= limit || remaining <= 0) {
+                return;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Inserts orders of group that aren't withdrawn.
+     */
+    void flush(List<PendingOrder> group) {
+        List<PendingOrder> batch = group.stream()
+                .filter(PendingOrder::take)
+                .toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        batch.forEach(order -> queueDelay.record(now - order.enqueuedNanos(), TimeUnit.NANOSECONDS));
+        batchSize.record(batch.size());
+        try {
+            List<Optional<Order>> results = transactionTemplate.execute(status -> insert(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to insert {} orders", batch.size(), e);
+            batch.forEach(order -> order.result().completeExceptionally(e));
+        }
+    }
+
+    private List<Optional<Order>> insert(List<PendingOrder> batch) {
+        List<Integer> userIds = batch.stream()
+                .map(PendingOrder::userId)
+                .toList();
+        List<Integer> certificateIds = batch.stream()
+                .map(PendingOrder::certificateId)
+                .toList();
+        return OrderMatching.match(userIds, certificateIds, orderRepository.insertOrders(userIds, certificateIds));
+    }
+
+    /**
+     * Order in queue or in group.
+     *
+     * @param result future of created order, empty if user or certificate doesn't exist
+     * @param taken  whether order is taken either for insert by worker or for withdrawal by caller
+     */
+    public record PendingOrder(Integer userId,
+                               Integer certificateId,
+                               CompletableFuture<Optional<Order>> result,
+                               long enqueuedNanos,
+                               AtomicBoolean taken) {
+
+        PendingOrder(Integer userId,
+                     Integer certificateId,
+                     CompletableFuture<Optional<Order>> result,
+                     long enqueuedNanos) {
+            this(userId, certificateId, result, enqueuedNanos, new AtomicBoolean());
+        }
+
+        private boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
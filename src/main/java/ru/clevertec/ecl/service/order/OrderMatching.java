@@ -0,0 +1,43 @@
+package ru.clevertec.ecl.service.order;
+
+import ru.clevertec.ecl.model.Order;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Matches orders created by {@link ru.clevertec.ecl.repository.OrderInsertRepository#insertOrders}
+ * to requested pairs of user and certificate.
+ */
+final class OrderMatching {
+
+    private OrderMatching() {
+    }
+
+    /**
+     * Same user may order same certificate several times in one statement,
+     * such orders are interchangeable.
+     *
+     * @param userIds        requested ids of users
+     * @param certificateIds requested ids of certificates, one for each user id
+     * @param created        orders returned by insert
+     * @return created order for every requested pair in the same order,
+     * empty if order of pair wasn't created
+     */
+    static List<Optional<Order>> match(List<Integer> userIds, List<Integer> certificateIds, List<Order> created) {
+        Map<List<Integer>, Deque<Order>> byPair = new HashMap<>();
+        created.forEach(order -> byPair
+                .computeIfAbsent(List.of(order.getUser().getId(), order.getCertificate().getId()),
+                        pair -> new ArrayDeque<>())
+                .add(order));
+        return IntStream.range(0, userIds.size())
+                .mapToObj(i -> Optional.ofNullable(byPair.get(List.of(userIds.get(i), certificateIds.get(i))))
+                        .map(Deque::poll))
+                .toList();
+    }
+}
@@ -0,0 +1,17 @@
+-- keyset pagination of certificates continues from (create_date, id) of the last row
+CREATE INDEX gift_certificates_create_date_id_idx
+    ON gift_shop.gift_certificates (create_date, id);
+
+-- same schema as for databases created from sql/schema.sql
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+CREATE INDEX gift_certificates_name_trgm_idx
+    ON gift_shop.gift_certificates USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX gift_certificates_description_trgm_idx
+    ON gift_shop.gift_certificates USING gin (lower(description) gin_trgm_ops);
+
+-- expression must match the one rendered by fts_match and fts_rank functions
+CREATE INDEX gift_certificates_fts_idx
+    ON gift_shop.gift_certificates
+    USING gin (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
@@ -0,0 +1,16 @@
+-- increment must match allocationSize of entity id generators: Hibernate takes the value
+-- of sequence as the first id of a block of 50 (pooled-lo optimizer).
+-- Next block starts right after the greatest existing id.
+ALTER SEQUENCE gift_shop.users_id_seq INCREMENT BY 50;
+SELECT setval('gift_shop.users_id_seq', COALESCE(MAX(id), 0) + 1, false)
+FROM gift_shop.users;
+
+ALTER SEQUENCE gift_shop.gift_certificates_id_seq INCREMENT BY 50;
+SELECT setval('gift_shop.gift_certificates_id_seq', COALESCE(MAX(id), 0) + 1, false)
+FROM gift_shop.gift_certificates;
+
+ALTER SEQUENCE gift_shop.tags_id_seq INCREMENT BY 50;
+SELECT setval('gift_shop.tags_id_seq', COALESCE(MAX(id), 0) + 1, false)
+FROM gift_shop.tags;
+
+-- orders are inserted only with SQL using column default, so orders_id_seq keeps increment of 1
@@ -0,0 +1,46 @@
+-- certificate of single certificate order, orders of many certificates have line items instead
+ALTER TABLE gift_shop.orders
+    ALTER COLUMN certificate_id DROP DEFAULT,
+    ALTER COLUMN certificate_id DROP NOT NULL;
+DROP SEQUENCE IF EXISTS gift_shop.orders_certificate_id_seq;
+
+-- line items of orders with many certificates, price is the one at the moment of purchase
+ALTER TABLE gift_shop.order_certificate
+    RENAME COLUMN gift_certificate TO certificate_id;
+ALTER TABLE gift_shop.order_certificate
+    RENAME CONSTRAINT order_certificate_gift_certificate_fkey TO order_certificate_certificate_id_fkey;
+
+ALTER TABLE gift_shop.order_certificate
+    ALTER COLUMN order_id DROP DEFAULT,
+    ALTER COLUMN certificate_id DROP DEFAULT,
+    ADD COLUMN price    DOUBLE PRECISION,
+    ADD COLUMN quantity INT NOT NULL DEFAULT 1 CHECK (quantity > 0);
+DROP SEQUENCE IF EXISTS gift_shop.order_certificate_order_id_seq;
+DROP SEQUENCE IF EXISTS gift_shop.order_certificate_gift_certificate_seq;
+
+-- existing rows become line items of one certificate for the current price, repeated rows add up
+UPDATE gift_shop.order_certificate line
+SET quantity = repeated.quantity
+FROM (SELECT order_id, certificate_id, COUNT(*) AS quantity
+      FROM gift_shop.order_certificate
+      GROUP BY order_id, certificate_id
+      HAVING COUNT(*) > 1) repeated
+WHERE line.order_id = repeated.order_id
+  AND line.certificate_id = repeated.certificate_id;
+
+DELETE
+FROM gift_shop.order_certificate duplicate
+    USING gift_shop.order_certificate kept
+WHERE duplicate.order_id = kept.order_id
+  AND duplicate.certificate_id = kept.certificate_id
+  AND duplicate.ctid > kept.ctid;
+
+UPDATE gift_shop.order_certificate line
+SET price = certificate.price
+FROM gift_shop.gift_certificates certificate
+WHERE certificate.id = line.certificate_id;
+
+ALTER TABLE gift_shop.order_certificate
+    ALTER COLUMN price SET NOT NULL,
+    ALTER COLUMN quantity DROP DEFAULT,
+    ADD PRIMARY KEY (order_id, certificate_id);
@@ -0,0 +1,3 @@
+-- history of user orders newest first, seek pagination continues from (purchase_date, id) of the last row
+CREATE INDEX orders_user_id_purchase_date_id_idx
+    ON gift_shop.orders (user_id, purchase_date DESC, id);
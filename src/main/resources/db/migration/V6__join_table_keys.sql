@@ -0,0 +1,44 @@
+-- SERIAL foreign key columns become plain INT without defaults and their sequences
+ALTER TABLE gift_shop.orders
+    ALTER COLUMN user_id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS gift_shop.orders_user_id_seq;
+
+ALTER TABLE gift_shop.gift_certificate_tag
+    ALTER COLUMN gift_certificate_id DROP DEFAULT,
+    ALTER COLUMN tag_id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS gift_shop.gift_certificate_tag_gift_certificate_id_seq;
+DROP SEQUENCE IF EXISTS gift_shop.gift_certificate_tag_tag_id_seq;
+
+-- duplicated links would violate the primary key
+DELETE
+FROM gift_shop.gift_certificate_tag duplicate
+    USING gift_shop.gift_certificate_tag kept
+WHERE duplicate.gift_certificate_id = kept.gift_certificate_id
+  AND duplicate.tag_id = kept.tag_id
+  AND duplicate.ctid > kept.ctid;
+
+ALTER TABLE gift_shop.gift_certificate_tag
+    ADD PRIMARY KEY (gift_certificate_id, tag_id);
+
+-- links go away with their certificate or tag
+ALTER TABLE gift_shop.gift_certificate_tag
+    DROP CONSTRAINT gift_certificate_tag_gift_certificate_id_fkey,
+    DROP CONSTRAINT gift_certificate_tag_tag_id_fkey,
+    ADD FOREIGN KEY (gift_certificate_id) REFERENCES gift_shop.gift_certificates (id) ON DELETE CASCADE,
+    ADD FOREIGN KEY (tag_id) REFERENCES gift_shop.tags (id) ON DELETE CASCADE;
+
+-- certificates of tag for tag filters, primary key serves tags of certificate
+CREATE INDEX gift_certificate_tag_tag_id_gift_certificate_id_idx
+    ON gift_shop.gift_certificate_tag (tag_id, gift_certificate_id);
+
+-- line items go away with their order, ordered certificates can't be deleted
+ALTER TABLE gift_shop.order_certificate
+    DROP CONSTRAINT order_certificate_order_id_fkey,
+    ADD FOREIGN KEY (order_id) REFERENCES gift_shop.orders (id) ON DELETE CASCADE;
+
+-- foreign key checks of certificate deletes
+CREATE INDEX orders_certificate_id_idx
+    ON gift_shop.orders (certificate_id);
+
+CREATE INDEX order_certificate_certificate_id_idx
+    ON gift_shop.order_certificate (certificate_id);
@@ -0,0 +1,3 @@
+-- optimistic locking of certificates, existing rows start from the first version
+ALTER TABLE gift_shop.gift_certificates
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
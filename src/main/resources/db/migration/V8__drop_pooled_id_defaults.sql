@@ -0,0 +1,11 @@
+-- with increment of 50 every row inserted with column default takes a whole block of ids,
+-- rows skipped by ON CONFLICT included, so ids of these tables are always set explicitly:
+-- by Hibernate or from blocks reserved with nextval
+ALTER TABLE gift_shop.users
+    ALTER COLUMN id DROP DEFAULT;
+
+ALTER TABLE gift_shop.gift_certificates
+    ALTER COLUMN id DROP DEFAULT;
+
+ALTER TABLE gift_shop.tags
+    ALTER COLUMN id DROP DEFAULT;
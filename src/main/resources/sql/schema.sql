@@ -1,45 +1,108 @@
+-- current schema for reference, databases are created and upgraded
+-- by Flyway migrations from db/migration; test sql/init.sql has the same schema
+
 CREATE SCHEMA IF NOT EXISTS gift_shop;
 
+-- increment must match allocationSize of entity id generators: Hibernate takes the value
+-- of sequence as the first id of a block of 50 (pooled-lo optimizer).
+-- Ids have no column default, so SQL inserts take them from blocks reserved with nextval too
+CREATE SEQUENCE IF NOT EXISTS gift_shop.users_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS gift_shop.users
 (
-    id   SERIAL PRIMARY KEY,
+    id   INT PRIMARY KEY,
     name VARCHAR(255) UNIQUE NOT NULL
 );
 
-CREATE TABLE IF NOT EXISTS gift_shop.orders
-(
-    id             SERIAL PRIMARY KEY,
-    total_cost     DOUBLE PRECISION         NOT NULL,
-    purchase_date  TIMESTAMP WITH TIME ZONE NOT NULL,
-    user_id        SERIAL REFERENCES gift_shop.users (id),
-    certificate_id SERIAL REFERENCES gift_shop.gift_certificates (id)
-);
+ALTER SEQUENCE gift_shop.users_id_seq OWNED BY gift_shop.users.id;
+
+CREATE SEQUENCE IF NOT EXISTS gift_shop.gift_certificates_id_seq INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS gift_shop.gift_certificates
 (
-    id               SERIAL PRIMARY KEY,
+    id               INT PRIMARY KEY,
     name             VARCHAR(255)             NOT NULL,
     description      VARCHAR(255),
     price            DOUBLE PRECISION         NOT NULL,
     duration         INT                      NOT NULL CHECK (duration > 0),
     create_date      TIMESTAMP WITH TIME ZONE NOT NULL,
-    last_update_date TIMESTAMP WITH TIME ZONE NOT NULL
+    last_update_date TIMESTAMP WITH TIME ZONE NOT NULL,
+    version          BIGINT                   NOT NULL DEFAULT 0
 );
 
+ALTER SEQUENCE gift_shop.gift_certificates_id_seq OWNED BY gift_shop.gift_certificates.id;
+
+CREATE INDEX IF NOT EXISTS gift_certificates_create_date_id_idx
+    ON gift_shop.gift_certificates (create_date, id);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS gift_certificates_name_trgm_idx
+    ON gift_shop.gift_certificates USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS gift_certificates_description_trgm_idx
+    ON gift_shop.gift_certificates USING gin (lower(description) gin_trgm_ops);
+
+-- expression must match the one rendered by fts_match and fts_rank functions
+CREATE INDEX IF NOT EXISTS gift_certificates_fts_idx
+    ON gift_shop.gift_certificates
+    USING gin (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
+
+-- orders are inserted only with SQL using column default, so their ids aren't allocated in blocks
+CREATE SEQUENCE IF NOT EXISTS gift_shop.orders_id_seq;
+
+CREATE TABLE IF NOT EXISTS gift_shop.orders
+(
+    id             INT PRIMARY KEY DEFAULT nextval('gift_shop.orders_id_seq'),
+    total_cost     DOUBLE PRECISION         NOT NULL,
+    purchase_date  TIMESTAMP WITH TIME ZONE NOT NULL,
+    user_id        INT                      NOT NULL REFERENCES gift_shop.users (id),
+    -- certificate of single certificate order, orders of many certificates have line items instead
+    certificate_id INT REFERENCES gift_shop.gift_certificates (id)
+);
+
+ALTER SEQUENCE gift_shop.orders_id_seq OWNED BY gift_shop.orders.id;
+
+-- history of user orders newest first, seek pagination continues from (purchase_date, id) of the last row
+CREATE INDEX IF NOT EXISTS orders_user_id_purchase_date_id_idx
+    ON gift_shop.orders (user_id, purchase_date DESC, id);
+
+-- foreign key checks of certificate deletes
+CREATE INDEX IF NOT EXISTS orders_certificate_id_idx
+    ON gift_shop.orders (certificate_id);
+
+-- line items of orders with many certificates, price is the one at the moment of purchase
 CREATE TABLE IF NOT EXISTS gift_shop.order_certificate
 (
-    order_id         SERIAL REFERENCES gift_shop.orders (id),
-    gift_certificate SERIAL REFERENCES gift_shop.gift_certificates (id)
+    order_id       INT              NOT NULL REFERENCES gift_shop.orders (id) ON DELETE CASCADE,
+    certificate_id INT              NOT NULL REFERENCES gift_shop.gift_certificates (id),
+    price          DOUBLE PRECISION NOT NULL,
+    quantity       INT              NOT NULL CHECK (quantity > 0),
+    PRIMARY KEY (order_id, certificate_id)
 );
 
+-- foreign key checks of certificate deletes
+CREATE INDEX IF NOT EXISTS order_certificate_certificate_id_idx
+    ON gift_shop.order_certificate (certificate_id);
+
+CREATE SEQUENCE IF NOT EXISTS gift_shop.tags_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS gift_shop.tags
 (
-    id   SERIAL PRIMARY KEY,
+    id   INT PRIMARY KEY,
     name VARCHAR(255) NOT NULL UNIQUE
 );
 
+ALTER SEQUENCE gift_shop.tags_id_seq OWNED BY gift_shop.tags.id;
+
+-- links go away with their certificate or tag
 CREATE TABLE IF NOT EXISTS gift_shop.gift_certificate_tag
 (
-    gift_certificate_id SERIAL REFERENCES gift_shop.gift_certificates (id),
-    tag_id              SERIAL REFERENCES gift_shop.tags (id)
-);
\ No newline at end of file
+    gift_certificate_id INT NOT NULL REFERENCES gift_shop.gift_certificates (id) ON DELETE CASCADE,
+    tag_id              INT NOT NULL REFERENCES gift_shop.tags (id) ON DELETE CASCADE,
+    PRIMARY KEY (gift_certificate_id, tag_id)
+);
+
+-- certificates of tag for tag filters, primary key serves tags of certificate
+CREATE INDEX IF NOT EXISTS gift_certificate_tag_tag_id_gift_certificate_id_idx
+    ON gift_shop.gift_certificate_tag (tag_id, gift_certificate_id);
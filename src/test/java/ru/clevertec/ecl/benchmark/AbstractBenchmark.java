@@ -0,0 +1,86 @@
+package ru.clevertec.ecl.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.clevertec.ecl.integration.AbstractIntegrationTest;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntConsumer;
+
+/**
+ * Base class for benchmarks. Benchmarks are excluded from {@code test} task
+ * and run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public abstract class AbstractBenchmark extends AbstractIntegrationTest {
+
+    protected static final int WARMUP_ITERATIONS = 20;
+    protected static final int MEASURED_ITERATIONS = 200;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Every benchmark starts with empty second-level cache, so results don't depend on order of runs.
+     */
+    @BeforeEach
+    void evictSecondLevelCache() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    /**
+     * Runs operation {@code warmup} times, then measures time and heap allocation
+     * of {@code iterations} runs in current thread and prints the result.
+     *
+     * @param name       name of measurement
+     * @param warmup     number of not measured runs
+     * @param iterations number of measured runs
+     * @param operation  operation that accepts number of iteration
+     * @return measurement result
+     */
+    protected Result measure(String name, int warmup, int iterations, IntConsumer operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.accept(i);
+        }
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.accept(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        Result result = new Result(name, iterations, elapsed, allocated);
+        System.out.println(result);
+        return result;
+    }
+
+    protected Result measure(String name, IntConsumer operation) {
+        return measure(name, WARMUP_ITERATIONS, MEASURED_ITERATIONS, operation);
+    }
+
+    protected record Result(String name, int iterations, long elapsedNanos, long allocatedBytes) {
+
+        public double millisPerOperation() {
+            return elapsedNanos / 1_000_000.0 / iterations;
+        }
+
+        public double operationsPerSecond() {
+            return iterations * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public long bytesPerOperation() {
+            return allocatedBytes / iterations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-50s %10.3f ms/op %12.1f ops/s %14d B/op",
+                    name, millisPerOperation(), operationsPerSecond(), bytesPerOperation());
+        }
+    }
+}
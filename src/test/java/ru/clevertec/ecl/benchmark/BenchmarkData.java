@@ -0,0 +1,77 @@
+package ru.clevertec.ecl.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Set-based generation of benchmark data.
+ */
+public final class BenchmarkData {
+
+    public static final String CERTIFICATE_PREFIX = "bench certificate ";
+    public static final String TAG_PREFIX = "bench tag ";
+
+    /**
+     * Blocks of 50 ids for passed number of rows taken from passed sequence, as ids have no column default.
+     */
+    private static final String ID_BLOCKS = """
+            SELECT n - 1 AS number, nextval(CAST(? AS REGCLASS)) AS first_id
+            FROM generate_series(1, (? + 49) / 50) n
+            """;
+
+    private BenchmarkData() {
+    }
+
+    public static void insertCertificates(JdbcTemplate jdbcTemplate, int count) {
+        jdbcTemplate.update("""
+                WITH block AS MATERIALIZED (%s)
+                INSERT INTO gift_shop.gift_certificates(id, name, description, price, duration, create_date, last_update_date)
+                SELECT block.first_id + (i - 1) %% 50,
+                       ? || i,
+                       'benchmark certificate number ' || i || ' for ' || (ARRAY['spa', 'dinner', 'karting', 'museum'])[i %% 4 + 1],
+                       (i %% 100) + 0.99,
+                       (i %% 30) + 1,
+                       now() - i * INTERVAL '1 second',
+                       now()
+                FROM generate_series(1, ?) AS i
+                         JOIN block ON block.number = (i - 1) / 50
+                """.formatted(ID_BLOCKS), "gift_shop.gift_certificates_id_seq", count, CERTIFICATE_PREFIX, count);
+    }
+
+    public static void insertTags(JdbcTemplate jdbcTemplate, int count) {
+        jdbcTemplate.update("""
+                WITH block AS MATERIALIZED (%s)
+                INSERT INTO gift_shop.tags(id, name)
+                SELECT block.first_id + (i - 1) %% 50, ? || i
+                FROM generate_series(1, ?) AS i
+                         JOIN block ON block.number = (i - 1) / 50
+                """.formatted(ID_BLOCKS), "gift_shop.tags_id_seq", count, TAG_PREFIX, count);
+    }
+
+    /**
+     * Links every benchmark certificate with every {@code step}-th benchmark tag.
+     * Rows are matched by numbers in their names, because ids are allocated in blocks and have gaps.
+     */
+    public static void linkTags(JdbcTemplate jdbcTemplate, int step) {
+        jdbcTemplate.update("""
+                INSERT INTO gift_shop.gift_certificate_tag(gift_certificate_id, tag_id)
+                SELECT gc.id, t.id
+                FROM gift_shop.gift_certificates gc
+                JOIN gift_shop.tags t ON (substr(gc.name, ?)::INT + substr(t.name, ?)::INT) % ? = 0
+                WHERE gc.name LIKE ? AND t.name LIKE ?
+                """, CERTIFICATE_PREFIX.length() + 1, TAG_PREFIX.length() + 1, step,
+                CERTIFICATE_PREFIX + "%", TAG_PREFIX + "%");
+    }
+
+    public static void insertOrders(JdbcTemplate jdbcTemplate, int userId) {
+        jdbcTemplate.update("""
+                INSERT INTO gift_shop.orders(total_cost, purchase_date, user_id, certificate_id)
+                SELECT gc.price, gc.create_date, ?, gc.id
+                FROM gift_shop.gift_certificates gc
+                WHERE gc.name LIKE ?
+                """, userId, CERTIFICATE_PREFIX + "%");
+    }
+
+    public static void analyze(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,71 @@
+package ru.clevertec.ecl.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.model.User;
+import ru.clevertec.ecl.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compares inserts of IDENTITY ids, that need a round trip per row to return generated id,
+ * with entities that take ids from pooled sequence and are flushed in JDBC batches.
+ */
+@Transactional
+@SpringBootTest
+class InsertBatchingBenchmark extends AbstractBenchmark {
+
+    private static final int ROWS = 500;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Warmup and measured runs get the same iteration numbers, names are made unique by counter.
+     */
+    private int batch;
+
+    @Test
+    void insertUsers() {
+        Result identity = measure("users: insert returning id per row", WARMUP, ITERATIONS, i -> {
+            for (String name : nextNames()) {
+                jdbcTemplate.queryForObject(
+                        """
+                                INSERT INTO gift_shop.users (id, name)
+                                VALUES (nextval('gift_shop.users_id_seq'), ?)
+                                RETURNING id
+                                """, Integer.class, name);
+            }
+        });
+        Result batched = measure("users: pooled sequence + batch", WARMUP, ITERATIONS, i -> {
+            List<User> users = nextNames().stream()
+                    .map(name -> User.builder().name(name).build())
+                    .toList();
+            userRepository.saveAll(users);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        System.out.printf("inserts/s: %.0f per row, %.0f batched%n",
+                identity.operationsPerSecond() * ROWS, batched.operationsPerSecond() * ROWS);
+    }
+
+    private List<String> nextNames() {
+        int current = batch++;
+        return IntStream.range(0, ROWS)
+                .mapToObj(row -> "bench user " + current + " " + row)
+                .toList();
+    }
+}
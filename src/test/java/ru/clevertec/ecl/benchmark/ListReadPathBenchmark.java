@@ -0,0 +1,141 @@
+package ru.clevertec.ecl.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.mapper.GiftCertificateMapper;
+import ru.clevertec.ecl.mapper.OrderMapper;
+import ru.clevertec.ecl.mapper.TagMapper;
+import ru.clevertec.ecl.model.Order;
+import ru.clevertec.ecl.repository.GiftCertificateRepository;
+import ru.clevertec.ecl.repository.TagRepository;
+import ru.clevertec.ecl.service.GiftCertificateService;
+import ru.clevertec.ecl.service.OrderService;
+import ru.clevertec.ecl.service.TagService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares entity + MapStruct read path of list endpoints with DTO projection path.
+ */
+@Transactional
+@SpringBootTest
+class ListReadPathBenchmark extends AbstractBenchmark {
+
+    private static final int CERTIFICATES = 5_000;
+    private static final int TAGS = 20;
+    private static final int PAGE_SIZE = 100;
+    private static final int PAGES = 10;
+    private static final int USER_ID = 1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private GiftCertificateRepository certificateRepository;
+
+    @Autowired
+    private GiftCertificateMapper certificateMapper;
+
+    @Autowired
+    private GiftCertificateService certificateService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        BenchmarkData.insertCertificates(jdbcTemplate, CERTIFICATES);
+        BenchmarkData.insertTags(jdbcTemplate, TAGS);
+        BenchmarkData.linkTags(jdbcTemplate, 4);
+        BenchmarkData.insertOrders(jdbcTemplate, USER_ID);
+        BenchmarkData.analyze(jdbcTemplate);
+    }
+
+    @Test
+    void certificatesPage() {
+        List<Integer> entityIds = certificateRepository.findAll(page(0))
+                .map(certificateMapper::toResponse)
+                .map(GiftCertificateResponse::getId)
+                .getContent();
+        List<Integer> projectionIds = certificateService.findAll(new GiftCertificateFilter(), page(0))
+                .map(GiftCertificateResponse::getId)
+                .getContent();
+        assertThat(projectionIds).isEqualTo(entityIds);
+
+        measure("certificates: entities + mapper", i -> {
+            entityManager.clear();
+            certificateRepository.findAll(page(i)).map(certificateMapper::toResponse);
+        });
+        measure("certificates: projection", i -> {
+            entityManager.clear();
+            certificateService.findAll(new GiftCertificateFilter(), page(i));
+        });
+    }
+
+    @Test
+    void tagsPage() {
+        measure("tags: entities + mapper", i -> {
+            entityManager.clear();
+            tagRepository.findAll(page(i % 2)).map(tagMapper::toResponse);
+        });
+        measure("tags: projection", i -> {
+            entityManager.clear();
+            tagService.findAll(page(i % 2));
+        });
+    }
+
+    @Test
+    void userOrdersPage() {
+        measure("orders: entities + mapper", i -> {
+            entityManager.clear();
+            entityManager.createQuery("""
+                            SELECT o FROM Order o
+                            JOIN FETCH o.user
+                            JOIN FETCH o.certificate
+                            WHERE o.user.id = :user_id
+                            ORDER BY o.id
+                            """, Order.class)
+                    .setParameter("user_id", USER_ID)
+                    .setFirstResult(i % PAGES * PAGE_SIZE)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultStream()
+                    .map(orderMapper::toResponse)
+                    .toList();
+        });
+        measure("orders: projection", i -> {
+            entityManager.clear();
+            orderService.getUserOrders(USER_ID, page(i));
+        });
+    }
+
+    private static Pageable page(int iteration) {
+        return PageRequest.of(iteration % PAGES, PAGE_SIZE, Sort.by("id"));
+    }
+}
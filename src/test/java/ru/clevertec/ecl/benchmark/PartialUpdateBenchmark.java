@@ -0,0 +1,150 @@
+package ru.clevertec.ecl.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.mapper.GiftCertificateMapper;
+import ru.clevertec.ecl.model.GiftCertificate;
+import ru.clevertec.ecl.model.Tag;
+import ru.clevertec.ecl.repository.GiftCertificateRepository;
+import ru.clevertec.ecl.service.GiftCertificateService;
+import ru.clevertec.ecl.service.TagService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares PATCH that loads certificate with its tags, copies passed fields and saves the entity
+ * with load-free update that sets only passed columns and changes only differing tag links.
+ */
+@Transactional
+@SpringBootTest
+class PartialUpdateBenchmark extends AbstractBenchmark {
+
+    private static final int CERTIFICATES = 1_000;
+    private static final int TAGS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private GiftCertificateRepository certificateRepository;
+
+    @Autowired
+    private GiftCertificateMapper certificateMapper;
+
+    @Autowired
+    private GiftCertificateService certificateService;
+
+    @Autowired
+    private TagService tagService;
+    private List<Integer> ids;
+
+    @BeforeEach
+    void setUp() {
+        BenchmarkData.insertCertificates(jdbcTemplate, CERTIFICATES);
+        BenchmarkData.insertTags(jdbcTemplate, TAGS);
+        BenchmarkData.linkTags(jdbcTemplate, 4);
+        BenchmarkData.analyze(jdbcTemplate);
+        ids = jdbcTemplate.queryForList("SELECT id FROM gift_shop.gift_certificates WHERE name LIKE ? ORDER BY id",
+                Integer.class, BenchmarkData.CERTIFICATE_PREFIX + "%");
+    }
+
+    @Test
+    void priceOnly() {
+        assertSameResult(priceRequest(0));
+
+        measure("price: load + save entity", i -> {
+            entityManager.clear();
+            loadAndSave(ids.get(i % CERTIFICATES), priceRequest(i));
+        });
+        measure("price: load-free update", i -> {
+            entityManager.clear();
+            certificateService.update(ids.get(i % CERTIFICATES), priceRequest(i));
+        });
+    }
+
+    @Test
+    void tagsChanged() {
+        assertSameResult(tagsRequest(0));
+
+        measure("tags: load + save entity", i -> {
+            entityManager.clear();
+            loadAndSave(ids.get(i % CERTIFICATES), tagsRequest(i));
+        });
+        measure("tags: load-free update", i -> {
+            entityManager.clear();
+            certificateService.update(ids.get(i % CERTIFICATES), tagsRequest(i));
+        });
+    }
+
+    private void assertSameResult(GiftCertificateRequest request) {
+        GiftCertificateResponse entityResult = loadAndSave(ids.get(0), request);
+        entityManager.clear();
+        GiftCertificateResponse updateResult = certificateService.update(ids.get(0), request);
+
+        assertThat(updateResult)
+                .usingRecursiveComparison()
+                .ignoringCollectionOrder()
+                .ignoringFields("createDate", "lastUpdateDate", "version")
+                .isEqualTo(entityResult);
+    }
+
+    /**
+     * Update path that was used before load-free update.
+     */
+    private GiftCertificateResponse loadAndSave(Integer id, GiftCertificateRequest request) {
+        GiftCertificate certificate = entityManager.createQuery("""
+                        SELECT gc FROM GiftCertificate gc
+                        LEFT JOIN FETCH gc.tags
+                        WHERE gc.id = :id
+                        """, GiftCertificate.class)
+                .setParameter("id", id)
+                .getSingleResult();
+        if (request.getName() != null)
+            certificate.setName(request.getName());
+        if (request.getDuration() != null)
+            certificate.setDuration(request.getDuration());
+        if (request.getPrice() != null)
+            certificate.setPrice(request.getPrice());
+        if (request.getDescription() != null)
+            certificate.setDescription(request.getDescription());
+        if (request.getTags() != null) {
+            List<String> names = request.getTags().stream()
+                    .map(Tag::getName)
+                    .toList();
+            certificate.setTags(new ArrayList<>(tagService.findOrCreateAll(names).values()));
+        }
+        return certificateMapper.toResponse(certificateRepository.saveAndFlush(certificate));
+    }
+
+    private static GiftCertificateRequest priceRequest(int iteration) {
+        GiftCertificateRequest request = new GiftCertificateRequest();
+        request.setPrice(iteration % 100 + 0.99);
+        request.setTags(null);
+        return request;
+    }
+
+    /**
+     * One tag is the same for every iteration and two vary, so some links are kept and others replaced.
+     */
+    private static GiftCertificateRequest tagsRequest(int iteration) {
+        GiftCertificateRequest request = new GiftCertificateRequest();
+        request.setTags(List.of(
+                new Tag(null, BenchmarkData.TAG_PREFIX + 1),
+                new Tag(null, BenchmarkData.TAG_PREFIX + (iteration % (TAGS - 1) + 2)),
+                new Tag(null, BenchmarkData.TAG_PREFIX + ((iteration + 7) % (TAGS - 1) + 2))));
+        return request;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.clevertec.ecl.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.certificate.TagMatch;
+import ru.clevertec.ecl.service.GiftCertificateService;
+import ru.clevertec.ecl.service.index.TagBitmapIndex;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares multi-tag filtering through {@link TagBitmapIndex} with the same filter
+ * executed by SQL query with tag subquery and count. Both read tags of the page.
+ */
+@Transactional
+@SpringBootTest
+class TagFilterBenchmark extends AbstractBenchmark {
+
+    private static final int CERTIFICATES = 200_000;
+    private static final int TAGS = 20;
+    private static final int PAGES = 10;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TagBitmapIndex tagIndex;
+
+    @Autowired
+    private GiftCertificateService certificateService;
+
+    @BeforeEach
+    void setUp() {
+        BenchmarkData.insertCertificates(jdbcTemplate, CERTIFICATES);
+        BenchmarkData.insertTags(jdbcTemplate, TAGS);
+        BenchmarkData.linkTags(jdbcTemplate, 3);
+        BenchmarkData.analyze(jdbcTemplate);
+        // joins the benchmark transaction, so uncommitted data is indexed
+        tagIndex.rebuild();
+    }
+
+    @ParameterizedTest
+    @EnumSource(TagMatch.class)
+    void tagFilter(TagMatch tagMatch) {
+        List<String> tagNames = List.of(BenchmarkData.TAG_PREFIX + 1, BenchmarkData.TAG_PREFIX + 2);
+        GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                .tagNames(tagNames)
+                .tagMatch(tagMatch)
+                .build();
+        // matches every certificate, but any criteria besides tags sends search to database
+        GiftCertificateFilter sqlFilter = GiftCertificateFilter.builder()
+                .tagNames(tagNames)
+                .tagMatch(tagMatch)
+                .minPrice(0.0)
+                .build();
+        assertThat(ids(certificateService.findAll(filter, page(0)).getContent()))
+                .isEqualTo(ids(certificateService.findAll(sqlFilter, page(0)).getContent()));
+
+        measure("tags " + tagMatch + ": sql", i -> certificateService.findAll(sqlFilter, page(i)));
+        measure("tags " + tagMatch + ": bitmap index", i -> certificateService.findAll(filter, page(i)));
+    }
+
+    @AfterTransaction
+    void restoreIndex() {
+        tagIndex.rebuild();
+    }
+
+    private static List<Integer> ids(List<GiftCertificateResponse> certificates) {
+        return certificates.stream()
+                .map(GiftCertificateResponse::getId)
+                .toList();
+    }
+
+    private static Pageable page(int iteration) {
+        return PageRequest.of(iteration % PAGES, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.clevertec.ecl.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.MatchMode;
+import ru.clevertec.ecl.service.GiftCertificateService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares text search over 1M certificates served by trigram and full-text
+ * indexes with the same queries executed as sequential scans.
+ */
+@Transactional
+@SpringBootTest
+class TextSearchBenchmark extends AbstractBenchmark {
+
+    private static final int CERTIFICATES = 1_000_000;
+    private static final int SEQ_SCAN_WARMUP = 3;
+    private static final int SEQ_SCAN_ITERATIONS = 20;
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GiftCertificateService certificateService;
+
+    @BeforeEach
+    void setUp() {
+        BenchmarkData.insertCertificates(jdbcTemplate, CERTIFICATES);
+        BenchmarkData.analyze(jdbcTemplate);
+    }
+
+    @Test
+    void substring() {
+        GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                .description("NUMBER 77777 ")
+                .build();
+        assertThat(certificateService.findAll(filter, PAGE)).isNotEmpty();
+        assertThat(plan(filter)).anyMatch(line -> line.contains("gift_certificates_description_trgm_idx"));
+
+        measure("substring: trigram index", i -> certificateService.findAll(filter, PAGE));
+        disableIndexScans();
+        measure("substring: seq scan", SEQ_SCAN_WARMUP, SEQ_SCAN_ITERATIONS,
+                i -> certificateService.findAll(filter, PAGE));
+    }
+
+    @Test
+    void fullText() {
+        GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                .text("77777 karting")
+                .match(MatchMode.FULLTEXT)
+                .build();
+        assertThat(certificateService.findAll(filter, PAGE)).isNotEmpty();
+        assertThat(plan(filter)).anyMatch(line -> line.contains("gift_certificates_fts_idx"));
+
+        measure("fulltext: tsvector index", i -> certificateService.findAll(filter, PAGE));
+        disableIndexScans();
+        measure("fulltext: seq scan", SEQ_SCAN_WARMUP, SEQ_SCAN_ITERATIONS,
+                i -> certificateService.findAll(filter, PAGE));
+    }
+
+    /**
+     * Plan of a select that has the same predicate as the one rendered for the filter.
+     */
+    private List<String> plan(GiftCertificateFilter filter) {
+        String sql = filter.getMatch() == MatchMode.FULLTEXT
+                ? """
+                EXPLAIN SELECT id FROM gift_shop.gift_certificates
+                WHERE to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, ''))
+                      @@ plainto_tsquery('simple', ?)
+                """
+                : """
+                EXPLAIN SELECT id FROM gift_shop.gift_certificates
+                WHERE lower(description) LIKE ?
+                """;
+        String parameter = filter.getMatch() == MatchMode.FULLTEXT
+                ? filter.getText()
+                : "%" + filter.getDescription().toLowerCase() + "%";
+        return jdbcTemplate.queryForList(sql, String.class, parameter);
+    }
+
+    private void disableIndexScans() {
+        jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_indexscan = off");
+    }
+}
@@ -0,0 +1,62 @@
+package ru.clevertec.ecl.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.clevertec.ecl.dto.load.LoadEntity;
+import ru.clevertec.ecl.dto.load.LoadFormat;
+import ru.clevertec.ecl.dto.load.LoadReport;
+import ru.clevertec.ecl.service.load.CopyLoadService;
+
+import java.net.URI;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminController.class)
+public class AdminControllerTest {
+
+    private static final String IMPORT_PATH = "/admin/import/";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CopyLoadService loadService;
+
+    @Test
+    void checkImportShouldReturnReport() throws Exception {
+        LoadReport report = new LoadReport(LoadEntity.USERS, LoadFormat.NDJSON, 2, 1, 10, 200);
+
+        doReturn(report)
+                .when(loadService).load(eq(LoadEntity.USERS), eq(LoadFormat.NDJSON), any());
+
+        mockMvc.perform(post(URI.create(IMPORT_PATH + "users?format=ndjson"))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\": \"john\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsInserted").value(1))
+                .andExpect(jsonPath("$.rowsPerSecond").value(200));
+
+        verify(loadService).load(eq(LoadEntity.USERS), eq(LoadFormat.NDJSON), any());
+    }
+
+    @Test
+    void checkImportShouldReturnBadRequestForUnknownEntity() throws Exception {
+        mockMvc.perform(post(URI.create(IMPORT_PATH + "orders"))
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("name\n"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(loadService);
+    }
+}
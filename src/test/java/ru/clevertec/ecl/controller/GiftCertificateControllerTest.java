@@ -8,22 +8,40 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.clevertec.ecl.dto.bulk.BulkImportResponse;
+import ru.clevertec.ecl.dto.bulk.BulkItemResult;
+import ru.clevertec.ecl.dto.certificate.CertificateVersion;
+import ru.clevertec.ecl.dto.certificate.Facet;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.dto.certificate.MatchMode;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.dto.page.FacetedPage;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.exception.PreconditionFailedException;
+import ru.clevertec.ecl.exception.UnsupportedSortException;
 import ru.clevertec.ecl.mapper.GiftCertificateMapper;
 import ru.clevertec.ecl.mapper.GiftCertificateMapperImpl;
-import ru.clevertec.ecl.service.GiftCertificateService;
+import ru.clevertec.ecl.service.GiftCertificateBulkService;
+import ru.clevertec.ecl.service.api.IGiftCertificateService;
 import ru.clevertec.ecl.util.GiftCertificateTestBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -32,18 +50,26 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(GiftCertificateController.class)
 public class GiftCertificateControllerTest {
 
     public static final String CERTIFICATE_PATH = "/gift-certificates";
+    private static final CertificateVersion VERSION =
+            new CertificateVersion(10, 3, "d41d8cd98f00b204e9800998ecf8427e", 1_680_000_000_000L);
+    private static final CertificateVersion.EntityTag ENTITY_TAG =
+            new CertificateVersion.EntityTag(VERSION.version(), VERSION.tagsDigest());
 
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
-    private GiftCertificateService certificateService;
+    private IGiftCertificateService certificateService;
+
+    @MockBean
+    private GiftCertificateBulkService bulkService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -66,13 +92,108 @@ public class GiftCertificateControllerTest {
                     .map(certificateMapper::toResponse);
 
             doReturn(expectedContent)
-                    .when(certificateService).findAll(any(), any(), any());
+                    .when(certificateService).findAll(any(), any());
 
             mockMvc.perform(get(URI.create(CERTIFICATE_PATH)))
                     .andExpect(status().isOk())
                     .andExpect(content().string(objectMapper.writeValueAsString(expectedContent)))
                     .andDo(print());
         }
+
+        @Test
+        void checkGetAllShouldPassAllFiltersToService() throws Exception {
+            GiftCertificateFilter expectedFilter = GiftCertificateFilter.builder()
+                    .tagNames(List.of("beauty", "spa"))
+                    .name("nails")
+                    .minPrice(10.0)
+                    .maxPrice(50.0)
+                    .build();
+
+            doReturn(new PageImpl<>(List.of()))
+                    .when(certificateService).findAll(any(), any());
+
+            mockMvc.perform(get(CERTIFICATE_PATH)
+                            .param("tag-name", "beauty", "spa")
+                            .param("name", "nails")
+                            .param("min-price", "10")
+                            .param("max-price", "50"))
+                    .andExpect(status().isOk());
+
+            verify(certificateService).findAll(eq(expectedFilter), any());
+        }
+
+        @Test
+        void checkGetAllShouldParseMatchModeIgnoringCase() throws Exception {
+            GiftCertificateFilter expectedFilter = GiftCertificateFilter.builder()
+                    .text("spa weekend")
+                    .match(MatchMode.FULLTEXT)
+                    .build();
+
+            doReturn(new PageImpl<>(List.of()))
+                    .when(certificateService).findAll(any(), any());
+
+            mockMvc.perform(get(CERTIFICATE_PATH)
+                            .param("text", "spa weekend")
+                            .param("match", "fulltext"))
+                    .andExpect(status().isOk());
+
+            verify(certificateService).findAll(eq(expectedFilter), any());
+        }
+
+        @Test
+        void checkGetAllShouldReturnFacetsWhenTheyAreRequested() throws Exception {
+            var expectedContent = new FacetedPage<>(
+                    List.of(certificateMapper.toResponse(TEST_BUILDER.build())),
+                    PageRequest.of(0, 20),
+                    1,
+                    Map.of("tags", Map.of("name1", 1L))
+            );
+
+            doReturn(expectedContent)
+                    .when(certificateService).findAllWithFacets(any(), any(), eq(Set.of(Facet.TAGS)));
+
+            mockMvc.perform(get(CERTIFICATE_PATH).param("facets", "tags"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.facets.tags.name1").value(1));
+
+            verify(certificateService, never()).findAll(any(), any());
+        }
+
+        @Test
+        void checkGetAllShouldReturnBadRequestOnUnknownMatchMode() throws Exception {
+            mockMvc.perform(get(CERTIFICATE_PATH).param("match", "regex"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void checkGetAllShouldReturnBadRequestOnUnsupportedSort() throws Exception {
+            doThrow(new UnsupportedSortException("Sorting by this property isn't supported", "tags"))
+                    .when(certificateService).findAll(any(), any());
+
+            mockMvc.perform(get(CERTIFICATE_PATH).param("sort", "tags"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class GetAllByCursorEndpointTest {
+
+        @Test
+        void checkGetAllByCursorShouldReturnCorrectResponse() throws Exception {
+            var expectedContent = new CursorPage<>(
+                    List.of(certificateMapper.toResponse(TEST_BUILDER.build())),
+                    "next"
+            );
+
+            doReturn(expectedContent)
+                    .when(certificateService).findAllByCursor(any(), any(), anyInt());
+
+            mockMvc.perform(get(CERTIFICATE_PATH).param("cursor", "").param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(objectMapper.writeValueAsString(expectedContent)));
+
+            verify(certificateService).findAllByCursor(any(), eq(""), eq(1));
+        }
     }
 
     @Nested
@@ -94,12 +215,74 @@ public class GiftCertificateControllerTest {
         void checkGetByIdShouldReturnCorrectResponse() throws Exception {
             int id = 10;
             var expectedResponse = certificateMapper.toResponse(TEST_BUILDER.build());
+            var expectedVersion = CertificateVersion.of(expectedResponse);
 
             doReturn(expectedResponse)
                     .when(certificateService).find(id);
 
             mockMvc.perform(get(URI.create(CERTIFICATE_PATH + "/" + id)))
                     .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + expectedVersion.eTag() + "\""))
+                    .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, expectedVersion.lastModified()))
+                    .andExpect(content().string(objectMapper.writeValueAsString(expectedResponse)));
+        }
+
+        @Test
+        void checkGetByIdWithoutConditionalHeadersShouldNotReadVersion() throws Exception {
+            int id = 10;
+
+            doReturn(certificateMapper.toResponse(TEST_BUILDER.build()))
+                    .when(certificateService).find(id);
+
+            mockMvc.perform(get(URI.create(CERTIFICATE_PATH + "/" + id)))
+                    .andExpect(status().isOk());
+
+            verify(certificateService, never()).findVersion(anyInt());
+        }
+
+        @Test
+        void checkGetByIdWithMatchingETagShouldReturnNotModifiedWithoutLoadingCertificate() throws Exception {
+            int id = 10;
+
+            doReturn(VERSION)
+                    .when(certificateService).findVersion(id);
+
+            mockMvc.perform(get(URI.create(CERTIFICATE_PATH + "/" + id))
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION.eTag() + "\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(certificateService, never()).find(anyInt());
+        }
+
+        @Test
+        void checkGetByIdNotModifiedSinceShouldReturnNotModified() throws Exception {
+            int id = 10;
+
+            doReturn(VERSION)
+                    .when(certificateService).findVersion(id);
+
+            mockMvc.perform(get(URI.create(CERTIFICATE_PATH + "/" + id))
+                            .header(HttpHeaders.IF_MODIFIED_SINCE, VERSION.lastModified()))
+                    .andExpect(status().isNotModified());
+
+            verify(certificateService, never()).find(anyInt());
+        }
+
+        @Test
+        void checkGetByIdWithStaleETagShouldReturnCertificate() throws Exception {
+            int id = 10;
+            var expectedResponse = certificateMapper.toResponse(TEST_BUILDER.build());
+
+            doReturn(VERSION)
+                    .when(certificateService).findVersion(id);
+            doReturn(expectedResponse)
+                    .when(certificateService).find(id);
+
+            mockMvc.perform(get(URI.create(CERTIFICATE_PATH + "/" + id))
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"10-stale\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + VERSION.eTag() + "\""))
                     .andExpect(content().string(objectMapper.writeValueAsString(expectedResponse)));
         }
     }
@@ -125,6 +308,53 @@ public class GiftCertificateControllerTest {
             verify(certificateService).update(id, request);
         }
 
+        @Test
+        void checkUpdateWithIfMatchShouldUpdateExpectedVersion() throws Exception {
+            var response = certificateMapper.toResponse(TEST_BUILDER.withVersion(4L).build());
+            var request = new GiftCertificateRequest();
+            int id = 10;
+
+            doReturn(response)
+                    .when(certificateService).update(id, request, ENTITY_TAG);
+
+            mockMvc.perform(patch(URI.create(CERTIFICATE_PATH + "/" + id))
+                            .header(HttpHeaders.IF_MATCH, "\"" + VERSION.eTag() + "\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + CertificateVersion.of(response).eTag() + "\""));
+
+            verify(certificateService, never()).update(id, request);
+        }
+
+        @Test
+        void checkUpdateWithStaleIfMatchShouldReturnPreconditionFailedStatus() throws Exception {
+            var request = new GiftCertificateRequest();
+            int id = 10;
+
+            doThrow(new PreconditionFailedException("Certificate was changed by another request", id))
+                    .when(certificateService).update(id, request, ENTITY_TAG);
+
+            mockMvc.perform(patch(URI.create(CERTIFICATE_PATH + "/" + id))
+                            .header(HttpHeaders.IF_MATCH, "\"" + VERSION.eTag() + "\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isPreconditionFailed());
+        }
+
+        @Test
+        void checkUpdateWithIfMatchOfOtherCertificateShouldReturnPreconditionFailedStatus() throws Exception {
+            var request = new GiftCertificateRequest();
+
+            mockMvc.perform(patch(URI.create(CERTIFICATE_PATH + "/" + 11))
+                            .header(HttpHeaders.IF_MATCH, "\"" + VERSION.eTag() + "\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isPreconditionFailed());
+
+            verify(certificateService, never()).update(anyInt(), any(), any(CertificateVersion.EntityTag.class));
+        }
+
         @Test
         void checkUpdateShouldReturnBadRequestStatus() throws Exception {
             int id = 1;
@@ -181,4 +411,29 @@ public class GiftCertificateControllerTest {
         }
     }
 
+    @Nested
+    class BulkImportEndpointTest {
+
+        @Test
+        void checkImportShouldReturnResultOfEveryItem() throws Exception {
+            BulkImportResponse response = new BulkImportResponse();
+            response.add(BulkItemResult.created(0, 10));
+            response.add(BulkItemResult.failed(1, "name must not be blank"));
+
+            doReturn(response)
+                    .when(bulkService).importAll(any());
+
+            mockMvc.perform(post(URI.create(CERTIFICATE_PATH + "/bulk"))
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"name\":\"first\"}\n{\"name\":\"\"}\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.items[0].id").value(10))
+                    .andExpect(jsonPath("$.items[1].error").value("name must not be blank"));
+
+            verify(bulkService).importAll(any());
+        }
+    }
+
 }
@@ -0,0 +1,56 @@
+package ru.clevertec.ecl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.clevertec.ecl.dto.bulk.BulkImportResponse;
+import ru.clevertec.ecl.dto.bulk.BulkItemResult;
+import ru.clevertec.ecl.dto.order.BulkOrderItem;
+import ru.clevertec.ecl.service.order.BulkOrderService;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OrderController.class)
+public class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void checkOrderAllShouldReturnResultOfEveryItem() throws Exception {
+        List<BulkOrderItem> items = List.of(new BulkOrderItem(1, 2), new BulkOrderItem(1, 99));
+        BulkImportResponse expected = new BulkImportResponse(1, 1, new ArrayList<>(List.of(
+                BulkItemResult.created(0, 5),
+                BulkItemResult.failed(1, "Gift certificate not found")
+        )));
+
+        doReturn(expected)
+                .when(bulkOrderService).orderAll(items);
+
+        mockMvc.perform(post(URI.create("/orders/batch"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(expected)));
+
+        verify(bulkOrderService).orderAll(items);
+    }
+}
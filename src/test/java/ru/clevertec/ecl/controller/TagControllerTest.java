@@ -8,10 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.clevertec.ecl.dto.tag.TagRequest;
+import ru.clevertec.ecl.dto.tag.TagResponse;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.exception.TagAlreadyExistsException;
 import ru.clevertec.ecl.mapper.TagMapper;
 import ru.clevertec.ecl.mapper.TagMapperImpl;
 import ru.clevertec.ecl.service.TagService;
@@ -73,6 +76,23 @@ public class TagControllerTest {
                     .andExpect(content().string(objectMapper.writeValueAsString(expected)))
                     .andDo(print());
         }
+
+        @Test
+        void checkGetAllWithETagOfSamePageShouldReturnNotModified() throws Exception {
+            var expected = new PageImpl<>(List.of(TEST_BUILDER.build()))
+                    .map(tagMapper::toResponse);
+
+            doReturn(expected)
+                    .when(tagService).findAll(any());
+            String eTag = mockMvc.perform(get(URI.create(TAG_PATH)))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get(URI.create(TAG_PATH))
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified());
+        }
     }
 
     @Nested
@@ -100,8 +120,49 @@ public class TagControllerTest {
 
             mockMvc.perform(get(URI.create(TAG_PATH + "/" + id)))
                     .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
                     .andExpect(content().string(objectMapper.writeValueAsString(expected)));
         }
+
+        @Test
+        void checkGetByIdWithMatchingETagShouldReturnNotModified() throws Exception {
+            int id = 10;
+            var expected = tagMapper.toResponse(TEST_BUILDER.build());
+
+            doReturn(expected)
+                    .when(tagService).find(id);
+
+            String eTag = mockMvc.perform(get(URI.create(TAG_PATH + "/" + id)))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get(URI.create(TAG_PATH + "/" + id))
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        void checkGetByIdOfRenamedTagShouldReturnNewTag() throws Exception {
+            int id = 10;
+            var tag = tagMapper.toResponse(TEST_BUILDER.build());
+
+            doReturn(tag)
+                    .when(tagService).find(id);
+            String eTag = mockMvc.perform(get(URI.create(TAG_PATH + "/" + id)))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(HttpHeaders.ETAG);
+            var renamed = new TagResponse(tag.getId(), "renamed");
+            doReturn(renamed)
+                    .when(tagService).find(id);
+
+            mockMvc.perform(get(URI.create(TAG_PATH + "/" + id))
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(objectMapper.writeValueAsString(renamed)));
+        }
     }
 
     @Nested
@@ -180,5 +241,20 @@ public class TagControllerTest {
 
             verify(tagService).save(request);
         }
+
+        @Test
+        void checkCreateShouldReturnConflictStatusForExistingName() throws Exception {
+            var request = new TagRequest("beauty");
+
+            doThrow(new TagAlreadyExistsException("Tag with such name already exists", "beauty"))
+                    .when(tagService).save(request);
+
+            mockMvc.perform(post(URI.create(TAG_PATH))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isConflict());
+
+            verify(tagService).save(request);
+        }
     }
 }
@@ -12,12 +12,16 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.clevertec.ecl.dto.order.BasketOrderRequest;
+import ru.clevertec.ecl.dto.order.OrderItemResponse;
+import ru.clevertec.ecl.dto.order.OrderResponse;
+import ru.clevertec.ecl.dto.page.CursorPage;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
 import ru.clevertec.ecl.mapper.OrderMapper;
 import ru.clevertec.ecl.mapper.OrderMapperImpl;
 import ru.clevertec.ecl.model.User;
-import ru.clevertec.ecl.service.OrderService;
 import ru.clevertec.ecl.service.UserService;
+import ru.clevertec.ecl.service.api.IOrderService;
 import ru.clevertec.ecl.util.OrderTestBuilder;
 import ru.clevertec.ecl.util.TestData;
 
@@ -28,6 +32,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -45,7 +50,7 @@ public class UserControllerTest {
     private UserService userService;
 
     @MockBean
-    private OrderService orderService;
+    private IOrderService orderService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -79,6 +84,56 @@ public class UserControllerTest {
 
             verify(orderService).getUserOrders(userId, pageable);
         }
+
+        @Test
+        void checkGetUserOrdersByCursorShouldReturnCursorPage() throws Exception {
+            int userId = 1;
+            var expected = new CursorPage<>(List.of(orderMapper.toResponse(ORDER_TEST_BUILDER.build())), "next");
+
+            doReturn(expected)
+                    .when(orderService).getUserOrdersByCursor(userId, "", 20);
+
+            mockMvc.perform(get(URI.create(USER_PATH + userId + "/orders?cursor=")))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(objectMapper.writeValueAsString(expected)));
+
+            verify(orderService).getUserOrdersByCursor(userId, "", 20);
+        }
+    }
+
+    @Nested
+    class MakeBasketOrderEndpointTest {
+
+        @Test
+        void checkMakeBasketOrderShouldReturnOrderWithItems() throws Exception {
+            int userId = 1;
+            List<Integer> certificateIds = List.of(1, 3, 1);
+            var expected = new OrderResponse(132.12, null, List.of(
+                    new OrderItemResponse(1, 56.0, 2),
+                    new OrderItemResponse(3, 20.12, 1)
+            ));
+
+            doReturn(expected)
+                    .when(orderService).makeOrder(userId, certificateIds);
+
+            mockMvc.perform(post(URI.create(USER_PATH + userId + "/orders/basket"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new BasketOrderRequest(certificateIds))))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(objectMapper.writeValueAsString(expected)));
+
+            verify(orderService).makeOrder(userId, certificateIds);
+        }
+
+        @Test
+        void checkMakeBasketOrderShouldReturnBadRequestForEmptyBasket() throws Exception {
+            mockMvc.perform(post(URI.create(USER_PATH + 1 + "/orders/basket"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new BasketOrderRequest(List.of()))))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(orderService);
+        }
     }
 
     @Nested
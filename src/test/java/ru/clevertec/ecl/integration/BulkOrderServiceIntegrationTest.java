@@ -0,0 +1,91 @@
+package ru.clevertec.ecl.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.clevertec.ecl.dto.bulk.BulkImportResponse;
+import ru.clevertec.ecl.dto.bulk.BulkItemResult;
+import ru.clevertec.ecl.dto.order.BulkOrderItem;
+import ru.clevertec.ecl.service.order.BulkOrderService;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chunks are committed by worker threads, so test isn't transactional and removes created orders.
+ */
+@SpringBootTest
+public class BulkOrderServiceIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int USER_ID = 2;
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM gift_shop.orders WHERE user_id = ?", USER_ID);
+    }
+
+    @Test
+    void checkOrderAllShouldCreateOrdersOfAllChunks() {
+        List<BulkOrderItem> items = IntStream.range(0, 7)
+                .mapToObj(i -> new BulkOrderItem(USER_ID, i % 3 + 1))
+                .toList();
+
+        BulkImportResponse actual = bulkOrderService.orderAll(items);
+
+        assertThat(actual.getCreated()).isEqualTo(7);
+        assertThat(actual.getItems()).extracting(BulkItemResult::getIndex)
+                .containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(actual.getItems()).extracting(BulkItemResult::getId)
+                .doesNotContainNull()
+                .doesNotHaveDuplicates();
+        assertThat(countOrders()).isEqualTo(7);
+    }
+
+    @Test
+    void checkOrderAllShouldReportMissingUsersAndCertificates() {
+        List<BulkOrderItem> items = List.of(
+                new BulkOrderItem(USER_ID, 1),
+                new BulkOrderItem(Integer.MAX_VALUE, 1),
+                new BulkOrderItem(USER_ID, Integer.MAX_VALUE),
+                new BulkOrderItem(null, 1)
+        );
+
+        BulkImportResponse actual = bulkOrderService.orderAll(items);
+
+        assertThat(actual.getCreated()).isEqualTo(1);
+        assertThat(actual.getFailed()).isEqualTo(3);
+        assertThat(actual.getItems()).extracting(BulkItemResult::getError)
+                .containsExactly(null, "User not found", "Gift certificate not found",
+                        "userId and certificateId must not be null");
+        assertThat(countOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void checkOrderAllWithMoreIdsThanStatementParametersShouldCheckThemAll() {
+        List<BulkOrderItem> items = IntStream.range(0, 40_000)
+                .mapToObj(i -> new BulkOrderItem(USER_ID, i == 0 ? 1 : 1_000_000 + i))
+                .toList();
+
+        BulkImportResponse actual = bulkOrderService.orderAll(items);
+
+        assertThat(actual.getCreated()).isEqualTo(1);
+        assertThat(actual.getFailed()).isEqualTo(39_999);
+        assertThat(actual.getItems().get(1).getError()).isEqualTo("Gift certificate not found");
+        assertThat(countOrders()).isEqualTo(1);
+    }
+
+    private Integer countOrders() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM gift_shop.orders WHERE user_id = ?", Integer.class, USER_ID);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.clevertec.ecl.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.model.Tag;
+import ru.clevertec.ecl.service.TagService;
+import ru.clevertec.ecl.service.api.IGiftCertificateService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search results are cached only outside of transactions and invalidated after commit,
+ * so test isn't transactional and removes created rows.
+ */
+@SpringBootTest
+public class CertificateSearchCacheIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String NAME = "search cache";
+    private static final String TAG = "search cache tag";
+
+    @Autowired
+    private IGiftCertificateService certificateService;
+
+    @Autowired
+    private TagService tagService;
+    private final List<Integer> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        createdIds.forEach(certificateService::delete);
+        tagService.findAllByNameIn(List.of(TAG))
+                .forEach(tag -> tagService.delete(tag.getId()));
+    }
+
+    @Test
+    void checkFindAllShouldSeeSavedCertificate() {
+        assertThat(searchByName()).isEmpty();
+
+        Integer id = save();
+
+        assertThat(searchByName()).containsExactly(id);
+    }
+
+    @Test
+    void checkFindAllShouldNotSeeRenamedCertificate() {
+        save();
+        assertThat(searchByName()).hasSize(1);
+
+        GiftCertificateRequest request = new GiftCertificateRequest();
+        request.setName("renamed");
+        certificateService.update(createdIds.get(0), request);
+
+        assertThat(searchByName()).isEmpty();
+    }
+
+    @Test
+    void checkFindAllShouldNotSeeDeletedCertificate() {
+        Integer id = save();
+        assertThat(searchByName()).containsExactly(id);
+
+        certificateService.delete(id);
+        createdIds.remove(id);
+
+        assertThat(searchByName()).isEmpty();
+    }
+
+    @Test
+    void checkFindAllShouldNotMatchDeletedTag() {
+        Integer id = save();
+        GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                .tagNames(List.of(TAG))
+                .build();
+        assertThat(certificateService.findAll(filter, PageRequest.of(0, 10)))
+                .extracting(GiftCertificateResponse::getId)
+                .containsExactly(id);
+
+        Tag tag = tagService.findAllByNameIn(List.of(TAG)).get(0);
+        tagService.delete(tag.getId());
+
+        assertThat(certificateService.findAll(filter, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    private Integer save() {
+        GiftCertificateRequest request = new GiftCertificateRequest(NAME, 10.0, "description", 5,
+                List.of(new Tag(null, TAG)));
+        Integer id = certificateService.save(request).getId();
+        createdIds.add(id);
+        return id;
+    }
+
+    private List<Integer> searchByName() {
+        GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                .name(NAME)
+                .build();
+        return certificateService.findAll(filter, PageRequest.of(0, 10))
+                .map(GiftCertificateResponse::getId)
+                .getContent();
+    }
+}
@@ -0,0 +1,158 @@
+package ru.clevertec.ecl.integration;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.dto.load.LoadEntity;
+import ru.clevertec.ecl.dto.load.LoadFormat;
+import ru.clevertec.ecl.dto.load.LoadReport;
+import ru.clevertec.ecl.service.load.CopyLoadService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+public class CopyLoadServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private CopyLoadService loadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Nested
+    class CertificatesTest {
+
+        @Test
+        void checkLoadCsvShouldInsertCertificatesAndLinkTags() {
+            String csv = """
+                    name,description,price,duration,tags
+                    copy first,"first, loaded",10.5,5,beauty|copy tag
+                    copy second,,20,7,copy tag
+                    """;
+
+            LoadReport actual = loadService.load(LoadEntity.CERTIFICATES, LoadFormat.CSV, stream(csv));
+
+            assertThat(actual.getRowsRead()).isEqualTo(2);
+            assertThat(actual.getRowsInserted()).isEqualTo(2);
+            assertThat(tagsOf("copy first")).containsExactly("beauty", "copy tag");
+            assertThat(tagsOf("copy second")).containsExactly("copy tag");
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT description FROM gift_shop.gift_certificates WHERE name = 'copy first'", String.class))
+                    .isEqualTo("first, loaded");
+        }
+
+        @Test
+        void checkLoadNdjsonShouldInsertCertificatesAndLinkTags() {
+            String ndjson = """
+                    {"name": "copy first", "price": 10.5, "duration": 5, "tags": ["beauty", "copy tag"]}
+
+                    {"name": "copy second", "price": 20, "duration": 7, "tags": [{"name": "copy tag"}]}
+                    """;
+
+            LoadReport actual = loadService.load(LoadEntity.CERTIFICATES, LoadFormat.NDJSON, stream(ndjson));
+
+            assertThat(actual.getRowsRead()).isEqualTo(2);
+            assertThat(actual.getRowsInserted()).isEqualTo(2);
+            assertThat(tagsOf("copy first")).containsExactly("beauty", "copy tag");
+            assertThat(tagsOf("copy second")).containsExactly("copy tag");
+        }
+    }
+
+    @Nested
+    class NamesTest {
+
+        @Test
+        void checkLoadTagsShouldSkipExistingNames() {
+            String csv = """
+                    name
+                    beauty
+                    copy tag
+                    copy tag
+                    """;
+
+            LoadReport actual = loadService.load(LoadEntity.TAGS, LoadFormat.CSV, stream(csv));
+
+            assertThat(actual.getRowsRead()).isEqualTo(3);
+            assertThat(actual.getRowsInserted()).isEqualTo(1);
+        }
+
+        @Test
+        void checkLoadUsersShouldInsertNewUsers() {
+            String ndjson = """
+                    {"name": "copy user 1"}
+                    {"name": "copy user 2"}
+                    """;
+
+            LoadReport actual = loadService.load(LoadEntity.USERS, LoadFormat.NDJSON, stream(ndjson));
+
+            assertThat(actual.getRowsInserted()).isEqualTo(2);
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM gift_shop.users WHERE name LIKE 'copy user %'", Integer.class))
+                    .isEqualTo(2);
+        }
+
+        @Test
+        void checkLoadShouldTakeOneBlockOfIdsAndNoIdsForExistingNames() {
+            String csv = """
+                    name
+                    copy user 1
+                    copy user 2
+                    """;
+            long before = lastValue("users_id_seq");
+
+            loadService.load(LoadEntity.USERS, LoadFormat.CSV, stream(csv));
+            long afterFirst = lastValue("users_id_seq");
+            LoadReport actual = loadService.load(LoadEntity.USERS, LoadFormat.CSV, stream(csv));
+
+            assertThat(afterFirst - before).isEqualTo(50);
+            assertThat(actual.getRowsInserted()).isZero();
+            assertThat(lastValue("users_id_seq")).isEqualTo(afterFirst);
+            assertThat(jdbcTemplate.queryForList(
+                    "SELECT id FROM gift_shop.users WHERE name LIKE 'copy user %' ORDER BY name", Long.class))
+                    .containsExactly(afterFirst, afterFirst + 1);
+        }
+
+        @Test
+        void checkLoadOfExistingTagsShouldNotTakeIds() {
+            String csv = """
+                    name
+                    beauty
+                    sport
+                    """;
+            long before = lastValue("tags_id_seq");
+
+            LoadReport actual = loadService.load(LoadEntity.TAGS, LoadFormat.CSV, stream(csv));
+
+            assertThat(actual.getRowsInserted()).isZero();
+            assertThat(lastValue("tags_id_seq")).isEqualTo(before);
+        }
+    }
+
+    private List<String> tagsOf(String certificateName) {
+        return jdbcTemplate.queryForList("""
+                SELECT t.name
+                FROM gift_shop.gift_certificates c
+                         JOIN gift_shop.gift_certificate_tag ct ON ct.gift_certificate_id = c.id
+                         JOIN gift_shop.tags t ON t.id = ct.tag_id
+                WHERE c.name = ?
+                ORDER BY t.name
+                """, String.class, certificateName);
+    }
+
+    private long lastValue(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM gift_shop." + sequence, Long.class);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package ru.clevertec.ecl.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rows are inserted with SQL after id filters are built, as another process would do,
+ * and committed, so test isn't transactional and removes them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EntityIdFiltersIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String NAME = "inserted elsewhere";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM gift_shop.gift_certificates WHERE name = ?", NAME);
+        jdbcTemplate.update("DELETE FROM gift_shop.tags WHERE name = ?", NAME);
+        jdbcTemplate.update("DELETE FROM gift_shop.users WHERE name = ?", NAME);
+    }
+
+    @Test
+    void checkGetOfCertificateInsertedOutsideOfServicesShouldReturnIt() throws Exception {
+        int id = nextId("gift_certificates_id_seq");
+        jdbcTemplate.update("""
+                INSERT INTO gift_shop.gift_certificates
+                    (id, name, description, price, duration, create_date, last_update_date)
+                VALUES (?, ?, 'description', 10, 5, now(), now())
+                """, id, NAME);
+
+        mockMvc.perform(get("/gift-certificates/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(NAME));
+    }
+
+    @Test
+    void checkGetOfTagInsertedOutsideOfServicesShouldReturnIt() throws Exception {
+        int id = nextId("tags_id_seq");
+        jdbcTemplate.update("INSERT INTO gift_shop.tags (id, name) VALUES (?, ?)", id, NAME);
+
+        mockMvc.perform(get("/tags/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(NAME));
+    }
+
+    @Test
+    void checkGetOfUserInsertedOutsideOfServicesShouldReturnIt() throws Exception {
+        int id = nextId("users_id_seq");
+        jdbcTemplate.update("INSERT INTO gift_shop.users (id, name) VALUES (?, ?)", id, NAME);
+
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(NAME));
+    }
+
+    @Test
+    void checkGetOfMissingCertificateShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/gift-certificates/{id}", Integer.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private int nextId(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT nextval('gift_shop.%s')".formatted(sequence), Integer.class);
+    }
+}
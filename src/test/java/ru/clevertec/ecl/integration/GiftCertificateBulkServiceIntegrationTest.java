@@ -0,0 +1,104 @@
+package ru.clevertec.ecl.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.dto.bulk.BulkImportResponse;
+import ru.clevertec.ecl.dto.bulk.BulkItemResult;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.model.Tag;
+import ru.clevertec.ecl.service.GiftCertificateBulkService;
+import ru.clevertec.ecl.service.GiftCertificateService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chunk size is set to 2 in test configuration, so every test body spans several chunks.
+ */
+@Transactional
+@SpringBootTest
+public class GiftCertificateBulkServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private GiftCertificateBulkService bulkService;
+
+    @Autowired
+    private GiftCertificateService certificateService;
+
+    @Test
+    void checkImportAllShouldCreateCertificatesFromJsonArray() {
+        String body = """
+                [
+                  {"name": "first", "price": 10.0, "duration": 5, "tags": [{"name": "beauty"}, {"name": "bulk tag"}]},
+                  {"name": "second", "price": 20.0, "duration": 5, "tags": [{"name": "bulk tag"}]},
+                  {"name": "third", "price": 30.0, "duration": 5}
+                ]
+                """;
+
+        BulkImportResponse actual = bulkService.importAll(stream(body));
+
+        assertThat(actual.getCreated()).isEqualTo(3);
+        assertThat(actual.getFailed()).isZero();
+        GiftCertificateResponse first = certificateService.find(actual.getItems().get(0).getId());
+        GiftCertificateResponse second = certificateService.find(actual.getItems().get(1).getId());
+        assertThat(first.getName()).isEqualTo("first");
+        assertThat(first.getTags()).extracting(Tag::getName).containsExactlyInAnyOrder("beauty", "bulk tag");
+        assertThat(second.getTags()).containsExactlyElementsOf(
+                first.getTags().stream().filter(tag -> tag.getName().equals("bulk tag")).toList());
+    }
+
+    @Test
+    void checkImportAllShouldCreateCertificatesFromNdjson() {
+        String body = """
+                {"name": "first", "price": 10.0, "duration": 5}
+                {"name": "second", "price": 20.0, "duration": 5}
+                """;
+
+        BulkImportResponse actual = bulkService.importAll(stream(body));
+
+        assertThat(actual.getItems()).extracting(BulkItemResult::getIndex).containsExactly(0, 1);
+        assertThat(actual.getItems()).allSatisfy(item -> assertThat(item.getId()).isNotNull());
+    }
+
+    @Test
+    void checkImportAllShouldReportInvalidItemsAndCreateOthers() {
+        String body = """
+                {"name": "", "price": 10.0, "duration": 5}
+                {"name": "valid", "price": 20.0, "duration": 5}
+                {"name": "no duration", "price": 20.0}
+                {"name": "wrong price", "price": "free", "duration": 5}
+                {"name": "last", "price": 20.0, "duration": 5}
+                """;
+
+        BulkImportResponse actual = bulkService.importAll(stream(body));
+
+        assertThat(actual.getItems()).extracting(BulkItemResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(actual.getItems()).extracting(item -> item.getError() == null)
+                .containsExactly(false, true, false, false, true);
+        assertThat(actual.getCreated()).isEqualTo(2);
+        assertThat(actual.getFailed()).isEqualTo(3);
+    }
+
+    @Test
+    void checkImportAllShouldStopOnMalformedJson() {
+        String body = """
+                {"name": "first", "price": 10.0, "duration": 5}
+                {"name": "second", "price"
+                """;
+
+        BulkImportResponse actual = bulkService.importAll(stream(body));
+
+        assertThat(actual.getCreated()).isEqualTo(1);
+        assertThat(actual.getItems()).hasSize(2);
+        assertThat(actual.getItems().get(1).getError()).startsWith("Malformed JSON");
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
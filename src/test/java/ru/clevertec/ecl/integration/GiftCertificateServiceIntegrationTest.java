@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -12,11 +13,20 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.dto.certificate.CertificateVersion;
+import ru.clevertec.ecl.dto.certificate.Facet;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.certificate.MatchMode;
+import ru.clevertec.ecl.dto.certificate.TagMatch;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.dto.page.FacetedPage;
 import ru.clevertec.ecl.dto.tag.TagRequest;
 import ru.clevertec.ecl.dto.tag.TagResponse;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.exception.PreconditionFailedException;
+import ru.clevertec.ecl.exception.UnsupportedSortException;
 import ru.clevertec.ecl.mapper.GiftCertificateMapper;
 import ru.clevertec.ecl.mapper.TagMapper;
 import ru.clevertec.ecl.model.GiftCertificate;
@@ -28,7 +38,9 @@ import ru.clevertec.ecl.util.GiftCertificateTestBuilder;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -90,6 +102,38 @@ public class GiftCertificateServiceIntegrationTest extends AbstractIntegrationTe
         }
     }
 
+    @Nested
+    class FindVersionTest {
+
+        @Test
+        void checkFindVersionShouldBeStableWhileCertificateIsNotChanged() {
+            CertificateVersion first = certificateService.findVersion(1);
+            CertificateVersion second = certificateService.findVersion(1);
+
+            assertThat(second).isEqualTo(first);
+            assertThat(first.lastModified())
+                    .isEqualTo(certificateService.find(1).getLastUpdateDate().toInstant().toEpochMilli());
+        }
+
+        @Test
+        void checkFindVersionShouldChangeETagWhenTagOfCertificateIsRenamed() {
+            CertificateVersion before = certificateService.findVersion(1);
+            Integer tagId = certificateService.find(1).getTags().get(0).getId();
+
+            tagService.update(tagId, new TagRequest("renamed tag of certificate"));
+            CertificateVersion after = certificateService.findVersion(1);
+
+            assertThat(after.eTag()).isNotEqualTo(before.eTag());
+            assertThat(after.lastModified()).isEqualTo(before.lastModified());
+        }
+
+        @Test
+        void checkFindVersionShouldThrowEntityNotFoundException() {
+            assertThrows(EntityNotFoundException.class,
+                    () -> certificateService.findVersion(Integer.MAX_VALUE));
+        }
+    }
+
     @Nested
     class FindAllTest {
 
@@ -126,6 +170,79 @@ public class GiftCertificateServiceIntegrationTest extends AbstractIntegrationTe
             assertThrows(EntityNotFoundException.class,
                     () -> certificateService.update(id, null));
         }
+
+        @Test
+        void checkUpdateShouldKeepFieldsAndTagsThatAreNotPassed() {
+            Integer id = 1;
+            GiftCertificateResponse before = certificateService.find(id);
+            GiftCertificateRequest request = new GiftCertificateRequest();
+            request.setDuration(42);
+
+            GiftCertificateResponse actual = certificateService.update(id, request);
+
+            assertThat(actual.getDuration()).isEqualTo(42);
+            assertThat(actual.getName()).isEqualTo(before.getName());
+            assertThat(actual.getPrice()).isEqualTo(before.getPrice());
+            assertThat(actual.getDescription()).isEqualTo(before.getDescription());
+            assertThat(actual.getTags()).containsExactlyInAnyOrderElementsOf(before.getTags());
+            assertThat(actual.getLastUpdateDate()).isAfter(before.getLastUpdateDate());
+        }
+
+        @Test
+        void checkConditionalUpdateShouldChangePassedFieldsAndIncrementVersion() {
+            Integer id = 2;
+            CertificateVersion before = certificateService.findVersion(id);
+            GiftCertificateRequest request = new GiftCertificateRequest();
+            request.setPrice(123.0);
+
+            GiftCertificateResponse actual = certificateService.update(id, request, entityTag(before));
+
+            assertThat(actual.getPrice()).isEqualTo(123.0);
+            assertThat(actual.getVersion()).isEqualTo(before.version() + 1);
+            assertThat(CertificateVersion.of(actual).eTag()).isEqualTo(certificateService.findVersion(id).eTag());
+            assertThat(certificateService.find(id).getPrice()).isEqualTo(123.0);
+        }
+
+        @Test
+        void checkConditionalUpdateWithStaleVersionShouldThrowPreconditionFailedException() {
+            Integer id = 2;
+            CertificateVersion.EntityTag expected = entityTag(certificateService.findVersion(id));
+            GiftCertificateRequest request = new GiftCertificateRequest();
+            request.setName("changed by first request");
+
+            certificateService.update(id, request, expected);
+
+            assertThrows(PreconditionFailedException.class,
+                    () -> certificateService.update(id, request, expected));
+        }
+
+        @Test
+        void checkConditionalUpdateAfterRenameOfTagShouldThrowPreconditionFailedException() {
+            Integer id = 1;
+            CertificateVersion before = certificateService.findVersion(id);
+            GiftCertificateRequest request = new GiftCertificateRequest();
+            request.setPrice(99.0);
+
+            tagService.update(1, new TagRequest("renamed before update"));
+
+            assertThat(certificateService.findVersion(id).version()).isEqualTo(before.version());
+            assertThrows(PreconditionFailedException.class,
+                    () -> certificateService.update(id, request, entityTag(before)));
+        }
+
+        @Test
+        void checkConditionalUpdateShouldReplaceTags() {
+            Integer id = 1;
+            CertificateVersion.EntityTag expected = entityTag(certificateService.findVersion(id));
+            GiftCertificateRequest request = new GiftCertificateRequest();
+            request.setTags(List.of(new Tag(null, "first tag name"), new Tag(null, "brand new tag")));
+
+            certificateService.update(id, request, expected);
+
+            assertThat(certificateService.find(id).getTags())
+                    .extracting(Tag::getName)
+                    .containsExactlyInAnyOrder("first tag name", "brand new tag");
+        }
     }
 
     @Nested
@@ -186,7 +303,7 @@ public class GiftCertificateServiceIntegrationTest extends AbstractIntegrationTe
         void checkFindAllWithParamsShouldReturnNotEmptyList() {
             Pageable pageable = PageRequest.of(page, size);
             Page<GiftCertificateResponse> response = certificateService
-                    .findAll(null, null, pageable);
+                    .findAll(new GiftCertificateFilter(), pageable);
             assertThat(response).isNotNull();
             assertThat(response).isNotEmpty();
         }
@@ -196,7 +313,7 @@ public class GiftCertificateServiceIntegrationTest extends AbstractIntegrationTe
         void checkFindAllWithParamsShouldReturnEmptyList(int pageNumber) {
             Pageable pageable = PageRequest.of(pageNumber, size);
             Page<GiftCertificateResponse> response = certificateService
-                    .findAll(null, null, pageable);
+                    .findAll(new GiftCertificateFilter(), pageable);
             assertThat(response).isNotNull();
             assertThat(response).isEmpty();
         }
@@ -206,7 +323,7 @@ public class GiftCertificateServiceIntegrationTest extends AbstractIntegrationTe
             Sort sortByCreateDate = Sort.by(Sort.Direction.ASC, "createDate");
             Pageable pageable = PageRequest.of(page, size, sortByCreateDate);
             Page<GiftCertificateResponse> response = certificateService
-                    .findAll(null, null, pageable);
+                    .findAll(new GiftCertificateFilter(), pageable);
             assertThat(response.getContent()).isNotNull();
             assertThat(response.getContent()).isNotEmpty();
             assertThat(response.getContent())
@@ -219,8 +336,11 @@ public class GiftCertificateServiceIntegrationTest extends AbstractIntegrationTe
         void checkFindAllWithParamsShouldReturnCertificatesWithNeededTag() {
             String tagName = "beauty";
             Pageable pageable = PageRequest.of(page, size);
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .tagNames(List.of(tagName))
+                    .build();
             Page<GiftCertificateResponse> response = certificateService
-                    .findAll(tagName, null, pageable);
+                    .findAll(filter, pageable);
             assertThat(response).isNotNull();
             assertThat(response).isNotEmpty();
 
@@ -232,6 +352,250 @@ public class GiftCertificateServiceIntegrationTest extends AbstractIntegrationTe
                 assertThat(tag).isPresent();
             }
         }
+
+        @Test
+        void checkFindAllWithParamsShouldReturnCertificatesWithAllNeededTags() {
+            List<String> tagNames = List.of("beauty", "sport");
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .tagNames(tagNames)
+                    .build();
+
+            Page<GiftCertificateResponse> response = certificateService
+                    .findAll(filter, PageRequest.of(page, size));
+
+            assertThat(response.getContent())
+                    .extracting(GiftCertificateResponse::getId)
+                    .containsExactly(3);
+            assertThat(response.getContent().get(0).getTags())
+                    .extracting(Tag::getName)
+                    .containsAll(tagNames);
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldReturnCertificatesWithAnyOfTags() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .tagNames(List.of("sport", "first tag name"))
+                    .tagMatch(TagMatch.ANY)
+                    .build();
+
+            Page<GiftCertificateResponse> response = certificateService
+                    .findAll(filter, PageRequest.of(page, size));
+
+            assertThat(response.getContent())
+                    .extracting(GiftCertificateResponse::getId)
+                    .containsExactly(1, 2, 3);
+        }
+
+        @ParameterizedTest
+        @EnumSource(TagMatch.class)
+        void checkFindAllByTagIndexShouldReturnSameCertificatesAsQuery(TagMatch tagMatch) {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .tagNames(List.of("beauty", "first tag name"))
+                    .tagMatch(tagMatch)
+                    .build();
+
+            // sort by id is served by tag index, sort by name always goes to database
+            Page<GiftCertificateResponse> byIndex = certificateService
+                    .findAll(filter, PageRequest.of(page, size, Sort.by("id")));
+            Page<GiftCertificateResponse> byQuery = certificateService
+                    .findAll(filter, PageRequest.of(page, size, Sort.by("name")));
+
+            assertThat(byIndex.getTotalElements()).isEqualTo(byQuery.getTotalElements());
+            assertThat(byIndex.getContent()).containsExactlyInAnyOrderElementsOf(byQuery.getContent());
+        }
+
+        @Test
+        void checkFindAllWithFacetsShouldCountCertificatesOfEachTag() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .description("description")
+                    .build();
+
+            FacetedPage<GiftCertificateResponse> response = certificateService
+                    .findAllWithFacets(filter, PageRequest.of(page, size), Set.of(Facet.TAGS));
+
+            assertThat(response.getContent())
+                    .extracting(GiftCertificateResponse::getId)
+                    .containsExactlyInAnyOrder(1, 3);
+            assertThat(response.getFacets().get("tags")).containsExactly(
+                    Map.entry("beauty", 2L),
+                    Map.entry("entertainment", 1L),
+                    Map.entry("first tag name", 1L),
+                    Map.entry("sport", 1L)
+            );
+        }
+
+        @Test
+        void checkFindAllWithFacetsByTagIndexShouldReturnSameCountsAsQuery() {
+            GiftCertificateFilter byIndex = GiftCertificateFilter.builder()
+                    .tagNames(List.of("beauty"))
+                    .build();
+            GiftCertificateFilter byQuery = GiftCertificateFilter.builder()
+                    .tagNames(List.of("beauty"))
+                    .minPrice(0.0)
+                    .build();
+
+            Map<String, Long> expected = certificateService
+                    .findAllWithFacets(byQuery, PageRequest.of(page, size), Set.of(Facet.TAGS))
+                    .getFacets()
+                    .get("tags");
+            Map<String, Long> actual = certificateService
+                    .findAllWithFacets(byIndex, PageRequest.of(page, size), Set.of(Facet.TAGS))
+                    .getFacets()
+                    .get("tags");
+
+            assertThat(actual).containsExactlyEntriesOf(expected);
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldReturnCertificatesInPriceRange() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .minPrice(50.0)
+                    .maxPrice(56.0)
+                    .build();
+
+            Page<GiftCertificateResponse> response = certificateService
+                    .findAll(filter, PageRequest.of(page, size));
+
+            assertThat(response.getContent())
+                    .extracting(GiftCertificateResponse::getId)
+                    .containsExactlyInAnyOrder(1, 2);
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldReturnCertificatesWithNameSubstring() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .name("second")
+                    .build();
+
+            Page<GiftCertificateResponse> response = certificateService
+                    .findAll(filter, PageRequest.of(page, size));
+
+            assertThat(response.getContent())
+                    .extracting(GiftCertificateResponse::getName)
+                    .containsExactly("secondName");
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldIgnoreCaseOfDescription() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .description("AWESOME")
+                    .build();
+
+            Page<GiftCertificateResponse> response = certificateService
+                    .findAll(filter, PageRequest.of(page, size));
+
+            assertThat(response.getContent())
+                    .extracting(GiftCertificateResponse::getId)
+                    .containsExactly(2);
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldFindTextSubstringInNameOrDescription() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .text("third")
+                    .build();
+
+            Page<GiftCertificateResponse> response = certificateService
+                    .findAll(filter, PageRequest.of(page, size));
+
+            assertThat(response.getContent())
+                    .extracting(GiftCertificateResponse::getId)
+                    .containsExactly(3);
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldMatchAllWordsInFullTextMode() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .text("Certificate awesome")
+                    .match(MatchMode.FULLTEXT)
+                    .build();
+
+            Page<GiftCertificateResponse> response = certificateService
+                    .findAll(filter, PageRequest.of(page, size));
+
+            assertThat(response.getContent())
+                    .extracting(GiftCertificateResponse::getId)
+                    .containsExactly(2);
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldNotMatchPartOfWordInFullTextMode() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .text("description")
+                    .match(MatchMode.FULLTEXT)
+                    .build();
+
+            Page<GiftCertificateResponse> response = certificateService
+                    .findAll(filter, PageRequest.of(page, size));
+
+            // "3description" is a single word
+            assertThat(response.getContent())
+                    .extracting(GiftCertificateResponse::getId)
+                    .containsExactly(1);
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldTreatLikeWildcardsLiterally() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .description("%")
+                    .build();
+
+            Page<GiftCertificateResponse> response = certificateService
+                    .findAll(filter, PageRequest.of(page, size));
+
+            assertThat(response).isEmpty();
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldThrowUnsupportedSortException() {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("tags"));
+
+            assertThrows(UnsupportedSortException.class,
+                    () -> certificateService.findAll(new GiftCertificateFilter(), pageable));
+        }
+    }
+
+    @Nested
+    class FindAllByCursorTest {
+
+        @Test
+        void checkFindAllByCursorShouldTraverseAllCertificatesInCreateDateOrder() {
+            List<GiftCertificateResponse> traversed = new ArrayList<>();
+            String cursor = null;
+            do {
+                CursorPage<GiftCertificateResponse> page = certificateService
+                        .findAllByCursor(new GiftCertificateFilter(), cursor, 1);
+                traversed.addAll(page.getContent());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            Page<GiftCertificateResponse> all = certificateService.findAll(PageRequest.of(0, 10));
+            assertThat(traversed).hasSameSizeAs(all.getContent());
+            assertThat(traversed)
+                    .isSortedAccordingTo(Comparator.comparing(GiftCertificateResponse::getCreateDate));
+        }
+
+        @Test
+        void checkFindAllByCursorShouldReturnCertificatesWithNeededTag() {
+            String tagName = "beauty";
+
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .tagNames(List.of(tagName))
+                    .build();
+            CursorPage<GiftCertificateResponse> page = certificateService
+                    .findAllByCursor(filter, null, 10);
+
+            assertThat(page.getContent()).isNotEmpty();
+            assertThat(page.getNextCursor()).isNull();
+            for (var certificate : page.getContent()) {
+                assertThat(certificate.getTags())
+                        .anyMatch(t -> tagName.equals(t.getName()));
+            }
+        }
+    }
+
+    private static CertificateVersion.EntityTag entityTag(CertificateVersion version) {
+        return new CertificateVersion.EntityTag(version.version(), version.tagsDigest());
     }
 
     private void compareExceptTime(GiftCertificateResponse actual, GiftCertificateResponse expected) {
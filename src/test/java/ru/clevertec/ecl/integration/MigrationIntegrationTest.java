@@ -0,0 +1,157 @@
+package ru.clevertec.ecl.integration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs migrations on an empty database of the test container and on a database created
+ * from schema before migrations, then compares resulting schema with the one created by {@code sql/init.sql}.
+ */
+public class MigrationIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String DATABASE = "migrations";
+
+    private static final String COLUMNS = """
+            SELECT table_name, column_name, data_type, is_nullable, column_default
+            FROM information_schema.columns
+            WHERE table_schema = 'gift_shop'
+              AND table_name <> 'flyway_schema_history'
+            ORDER BY table_name, column_name
+            """;
+
+    private static final String INDEXES = """
+            SELECT tablename, indexname
+            FROM pg_indexes
+            WHERE schemaname = 'gift_shop'
+              AND tablename <> 'flyway_schema_history'
+            ORDER BY tablename, indexname
+            """;
+
+    private static final String FOREIGN_KEYS = """
+            SELECT conrelid::regclass::text AS table_name, confrelid::regclass::text AS referenced, confdeltype
+            FROM pg_constraint
+            WHERE contype = 'f'
+              AND connamespace = 'gift_shop'::regnamespace
+            ORDER BY 1, 2, 3
+            """;
+
+    private JdbcTemplate testDatabase;
+    private JdbcTemplate migratedDatabase;
+    private DriverManagerDataSource migratedDataSource;
+
+    @BeforeEach
+    void setUp() {
+        testDatabase = new JdbcTemplate(dataSource(container.getJdbcUrl()));
+        testDatabase.execute("DROP DATABASE IF EXISTS " + DATABASE);
+        testDatabase.execute("CREATE DATABASE " + DATABASE);
+        String url = "jdbc:postgresql://%s:%d/%s".formatted(
+                container.getHost(), container.getFirstMappedPort(), DATABASE);
+        migratedDataSource = dataSource(url);
+        migratedDatabase = new JdbcTemplate(migratedDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        testDatabase.execute("DROP DATABASE IF EXISTS " + DATABASE + " WITH (FORCE)");
+    }
+
+    @Test
+    void checkMigrationsShouldCreateSchemaOfInitScript() {
+        MigrateResult result = flyway().load().migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrationsExecuted).isEqualTo(8);
+        assertSameSchema();
+    }
+
+    @Test
+    void checkMigrationsShouldUpgradeSchemaCreatedBeforeMigrationsAndKeepData() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql"))
+                .execute(migratedDataSource);
+        migratedDatabase.batchUpdate(
+                "INSERT INTO gift_shop.users(name) VALUES ('first user')",
+                """
+                        INSERT INTO gift_shop.gift_certificates(name, description, price, duration, create_date, last_update_date)
+                        VALUES ('first', 'description', 10, 5, now(), now()),
+                               ('second', 'description', 20, 5, now(), now())
+                        """,
+                "INSERT INTO gift_shop.tags(name) VALUES ('first tag'), ('second tag')",
+                "INSERT INTO gift_shop.gift_certificate_tag VALUES (1, 1), (1, 1), (1, 2), (2, 1)",
+                """
+                        INSERT INTO gift_shop.orders(total_cost, purchase_date, user_id, certificate_id)
+                        VALUES (10, now(), 1, 1)
+                        """,
+                "INSERT INTO gift_shop.order_certificate VALUES (1, 2), (1, 2)");
+
+        MigrateResult result = flyway()
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrationsExecuted).isEqualTo(7);
+        assertSameSchema();
+        assertThat(migratedDatabase.queryForList("SELECT * FROM gift_shop.gift_certificate_tag ORDER BY 1, 2"))
+                .containsExactly(
+                        Map.of("gift_certificate_id", 1, "tag_id", 1),
+                        Map.of("gift_certificate_id", 1, "tag_id", 2),
+                        Map.of("gift_certificate_id", 2, "tag_id", 1));
+        assertThat(migratedDatabase.queryForList("SELECT * FROM gift_shop.order_certificate"))
+                .containsExactly(Map.of("order_id", 1, "certificate_id", 2, "price", 20.0, "quantity", 2));
+        assertThat(migratedDatabase.queryForList("SELECT version FROM gift_shop.gift_certificates", Long.class))
+                .containsOnly(0L);
+        assertThat(migratedDatabase.queryForObject("SELECT certificate_id FROM gift_shop.orders", Integer.class))
+                .isEqualTo(1);
+        // pooled-lo blocks of 50 ids start after existing rows
+        assertThat(nextValues("gift_certificates_id_seq")).containsExactly(3L, 53L);
+        assertThat(nextValues("tags_id_seq")).containsExactly(3L, 53L);
+        assertThat(nextValues("users_id_seq")).containsExactly(2L, 52L);
+        assertThat(nextValues("orders_id_seq")).containsExactly(2L, 3L);
+    }
+
+    /**
+     * Configuration of migrations as in application.yaml.
+     */
+    private FluentConfiguration flyway() {
+        return Flyway.configure()
+                .dataSource(migratedDataSource)
+                .schemas("gift_shop");
+    }
+
+    private List<Long> nextValues(String sequence) {
+        String sql = "SELECT nextval('gift_shop.%s')".formatted(sequence);
+        return List.of(
+                migratedDatabase.queryForObject(sql, Long.class),
+                migratedDatabase.queryForObject(sql, Long.class));
+    }
+
+    private void assertSameSchema() {
+        assertSameRows(COLUMNS);
+        assertSameRows(INDEXES);
+        assertSameRows(FOREIGN_KEYS);
+    }
+
+    private void assertSameRows(String sql) {
+        List<Map<String, Object>> expected = testDatabase.queryForList(sql);
+        List<Map<String, Object>> actual = migratedDatabase.queryForList(sql);
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    private static DriverManagerDataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, container.getUsername(), container.getPassword());
+    }
+}
@@ -0,0 +1,85 @@
+package ru.clevertec.ecl.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.clevertec.ecl.dto.order.OrderResponse;
+import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.service.BatchingOrderService;
+import ru.clevertec.ecl.service.api.IOrderService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Places concurrent orders through group commit pipeline in committed transactions.
+ */
+@SpringBootTest(properties = "order-ingestion.mode=batched")
+public class OrderBatchingIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int USER_ID = 2;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM gift_shop.orders WHERE user_id = ?", USER_ID);
+    }
+
+    @Test
+    void checkOrderServiceShouldBeBatching() {
+        assertThat(orderService).isInstanceOf(BatchingOrderService.class);
+    }
+
+    @Test
+    void checkConcurrentOrdersShouldAllBeCreated() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<OrderResponse>> futures = IntStream.range(0, THREADS)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return orderService.makeOrder(USER_ID, i % 2 == 0 ? 1 : 3);
+                    }))
+                    .toList();
+            start.countDown();
+            List<OrderResponse> orders = new ArrayList<>();
+            for (Future<OrderResponse> future : futures) {
+                orders.add(future.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(orders).extracting(OrderResponse::getTotalCost)
+                    .containsOnly(56.0, 20.12)
+                    .hasSize(THREADS);
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM gift_shop.orders WHERE user_id = ?", Integer.class, USER_ID))
+                    .isEqualTo(THREADS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void checkMakeOrderShouldThrowEntityNotFoundExceptionForMissingCertificate() {
+        EntityNotFoundException actual = assertThrows(EntityNotFoundException.class,
+                () -> orderService.makeOrder(USER_ID, Integer.MAX_VALUE));
+
+        assertThat(actual.getRequestedId()).isEqualTo(Integer.MAX_VALUE);
+    }
+}
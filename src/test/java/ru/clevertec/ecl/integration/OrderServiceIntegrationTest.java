@@ -7,11 +7,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.dto.order.OrderItemResponse;
 import ru.clevertec.ecl.dto.order.OrderResponse;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.exception.InvalidCursorException;
 import ru.clevertec.ecl.repository.OrderRepository;
 import ru.clevertec.ecl.service.OrderService;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest
@@ -35,7 +45,50 @@ public class OrderServiceIntegrationTest extends AbstractIntegrationTest {
 
             assertThat(actual).isNotNull();
             assertThat(actual.getPurchaseDate()).isNotNull();
-            assertThat(actual.getTotalCost()).isNotNull();
+            assertThat(actual.getTotalCost()).isEqualTo(20.12);
+        }
+
+        @Test
+        void checkMakeOrderShouldThrowEntityNotFoundExceptionForMissingUser() {
+            EntityNotFoundException actual = assertThrows(EntityNotFoundException.class,
+                    () -> orderService.makeOrder(Integer.MAX_VALUE, 3));
+
+            assertThat(actual.getRequestedId()).isEqualTo(Integer.MAX_VALUE);
+        }
+
+        @Test
+        void checkMakeOrderShouldThrowEntityNotFoundExceptionForMissingCertificate() {
+            EntityNotFoundException actual = assertThrows(EntityNotFoundException.class,
+                    () -> orderService.makeOrder(1, Integer.MAX_VALUE));
+
+            assertThat(actual.getRequestedId()).isEqualTo(Integer.MAX_VALUE);
+        }
+    }
+
+    @Nested
+    class MakeBasketOrderTest {
+
+        @Test
+        void checkMakeOrderShouldReturnOrderWithItemsAndTotalOfCurrentPrices() {
+            OrderResponse actual = orderService.makeOrder(2, List.of(1, 3, 1));
+
+            assertThat(actual.getPurchaseDate()).isNotNull();
+            assertThat(actual.getTotalCost()).isCloseTo(2 * 56 + 20.12, within(1e-9));
+            assertThat(actual.getItems()).containsExactlyInAnyOrder(
+                    new OrderItemResponse(1, 56.0, 2),
+                    new OrderItemResponse(3, 20.12, 1)
+            );
+        }
+
+        @Test
+        void checkMakeOrderShouldNotCreateOrderIfAnyCertificateIsMissing() {
+            long before = orderRepository.count();
+
+            EntityNotFoundException actual = assertThrows(EntityNotFoundException.class,
+                    () -> orderService.makeOrder(2, List.of(1, Integer.MAX_VALUE)));
+
+            assertThat(actual.getRequestedId()).isEqualTo(Integer.MAX_VALUE);
+            assertThat(orderRepository.count()).isEqualTo(before);
         }
     }
 
@@ -65,4 +118,33 @@ public class OrderServiceIntegrationTest extends AbstractIntegrationTest {
             assertThat(actual.getContent()).isEmpty();
         }
     }
+
+    @Nested
+    class GetUserOrdersByCursorTest {
+
+        @Test
+        void checkGetUserOrdersByCursorShouldWalkThroughAllOrdersNewestFirst() {
+            orderService.makeOrder(1, 1);
+            orderService.makeOrder(1, 3);
+            List<OrderResponse> all = new ArrayList<>();
+
+            CursorPage<OrderResponse> page = orderService.getUserOrdersByCursor(1, null, 2);
+            all.addAll(page.getContent());
+            while (page.getNextCursor() != null) {
+                page = orderService.getUserOrdersByCursor(1, page.getNextCursor(), 2);
+                all.addAll(page.getContent());
+            }
+
+            assertThat(all).hasSize(3);
+            assertThat(all).extracting(OrderResponse::getPurchaseDate)
+                    .isSortedAccordingTo(Comparator.reverseOrder());
+            assertThat(all.get(2).getTotalCost()).isEqualTo(55.32);
+        }
+
+        @Test
+        void checkGetUserOrdersByCursorShouldThrowInvalidCursorException() {
+            assertThrows(InvalidCursorException.class,
+                    () -> orderService.getUserOrdersByCursor(1, "not a cursor", 2));
+        }
+    }
 }
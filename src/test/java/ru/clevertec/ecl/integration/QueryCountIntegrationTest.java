@@ -0,0 +1,241 @@
+package ru.clevertec.ecl.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.benchmark.BenchmarkData;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.model.Tag;
+import ru.clevertec.ecl.repository.TagRepository;
+import ru.clevertec.ecl.service.GiftCertificateService;
+import ru.clevertec.ecl.service.OrderService;
+import ru.clevertec.ecl.service.TagService;
+import ru.clevertec.ecl.service.cache.TagDictionary;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pins number of SQL statements executed by read and write paths,
+ * so N+1 selects can't sneak back with growth of page size.
+ * Every test starts with empty second-level cache and with more certificates, tags and orders
+ * than the largest page, so pages of every size are full.
+ */
+@Transactional
+@SpringBootTest
+public class QueryCountIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int ROWS = 60;
+
+    @Autowired
+    private GiftCertificateService certificateService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TagDictionary tagDictionary;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        BenchmarkData.insertCertificates(jdbcTemplate, ROWS);
+        BenchmarkData.insertTags(jdbcTemplate, ROWS);
+        BenchmarkData.linkTags(jdbcTemplate, 10);
+        BenchmarkData.insertOrders(jdbcTemplate, 1);
+    }
+
+    @Nested
+    class CertificateEndpointsTest {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 50})
+        void checkFindAllShouldExecuteSameNumberOfStatementsForAnyPageSize(int size) {
+            long actual = countStatements(() -> certificateService.findAll(PageRequest.of(0, size)));
+
+            // page, count, tags of the whole page
+            assertThat(actual).isEqualTo(3);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 50})
+        void checkFindAllWithParamsShouldExecuteSameNumberOfStatementsForAnyPageSize(int size) {
+            long actual = countStatements(
+                    () -> certificateService.findAll(new GiftCertificateFilter(), PageRequest.of(0, size))
+            );
+
+            // page, count, tags of the whole page
+            assertThat(actual).isEqualTo(3);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 50})
+        void checkFindAllByTagsShouldNotCountRowsInDatabase(int size) {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .tagNames(List.of("beauty"))
+                    .build();
+
+            long actual = countStatements(() -> certificateService.findAll(filter, PageRequest.of(0, size)));
+
+            // certificates of page ids from tag index, tags of the whole page
+            assertThat(actual).isEqualTo(2);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 50})
+        void checkFindAllByCursorShouldExecuteSameNumberOfStatementsForAnyPageSize(int size) {
+            long actual = countStatements(
+                    () -> certificateService.findAllByCursor(new GiftCertificateFilter(), null, size)
+            );
+
+            // slice, tags of the whole slice
+            assertThat(actual).isEqualTo(2);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 3, 6})
+        void checkSaveWithCachedTagsShouldExecuteSameNumberOfStatementsForAnyNumberOfTags(int tagCount) {
+            List<String> names = List.of("first tag name", "beauty", "sport", "entertainment", "gambling", "food")
+                    .subList(0, tagCount);
+            tagDictionary.putAll(tagRepository.findAllByNameIn(names));
+            List<Tag> tags = names.stream()
+                    .map(name -> new Tag(null, name))
+                    .toList();
+            GiftCertificateRequest request = new GiftCertificateRequest("new", 10.0, "description", 5, tags);
+
+            long actual = countStatements(() -> certificateService.save(request));
+
+            // insert of certificate, batch of tag links, select of id block once per 50 ids
+            assertThat(actual).isBetween(2L, 3L);
+        }
+
+        @Test
+        void checkFindShouldReadCertificateAndTagsOnce() {
+            long cold = countStatements(() -> certificateService.find(3));
+            long warm = countStatements(() -> certificateService.find(3));
+
+            // certificate, tags of certificate, then both are taken from second-level cache
+            assertThat(cold).isEqualTo(2);
+            assertThat(warm).isZero();
+        }
+
+        @Test
+        void checkFindVersionShouldExecuteOneStatement() {
+            long actual = countStatements(() -> certificateService.findVersion(3));
+
+            assertThat(actual).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class TagEndpointsTest {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 50})
+        void checkFindAllShouldExecuteSameNumberOfStatementsForAnyPageSize(int size) {
+            long actual = countStatements(() -> tagService.findAll(PageRequest.of(0, size)));
+
+            // page, count
+            assertThat(actual).isEqualTo(2);
+        }
+
+        @Test
+        void checkFindShouldReadTagOnce() {
+            long cold = countStatements(() -> tagService.find(2));
+            long warm = countStatements(() -> tagService.find(2));
+
+            assertThat(cold).isEqualTo(1);
+            assertThat(warm).isZero();
+        }
+
+        @Test
+        void checkFindOfMissingTagShouldNotExecuteStatements() {
+            long actual = countStatements(() -> assertThrows(EntityNotFoundException.class,
+                    () -> tagService.find(Integer.MAX_VALUE)));
+
+            assertThat(actual).isZero();
+        }
+    }
+
+    @Nested
+    class OrderEndpointsTest {
+
+        @Test
+        void checkMakeOrderShouldExecuteOneStatement() {
+            long actual = countStatements(() -> orderService.makeOrder(1, 3));
+
+            // insert of order selecting price of certificate
+            assertThat(actual).isEqualTo(1);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3})
+        void checkMakeBasketOrderShouldExecuteSameNumberOfStatementsForAnyNumberOfCertificates(int count) {
+            List<Integer> certificateIds = List.of(1, 2, 3).subList(0, count);
+
+            long actual = countStatements(() -> orderService.makeOrder(1, certificateIds));
+
+            // insert of order with its line items, select of line items for response
+            assertThat(actual).isEqualTo(2);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 50})
+        void checkGetUserOrdersShouldExecuteSameNumberOfStatementsForAnyPageSize(int size) {
+            long actual = countStatements(() -> orderService.getUserOrders(1, PageRequest.of(0, size)));
+
+            // page, count
+            assertThat(actual).isEqualTo(2);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 50})
+        void checkGetUserOrdersByCursorShouldExecuteOneStatementForAnyPageSize(int size) {
+            long actual = countStatements(() -> orderService.getUserOrdersByCursor(1, null, size));
+
+            // slice of order projections, no joins and no count
+            assertThat(actual).isEqualTo(1);
+        }
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}
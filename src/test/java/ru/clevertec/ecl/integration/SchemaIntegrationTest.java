@@ -0,0 +1,75 @@
+package ru.clevertec.ecl.integration;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.clevertec.ecl.service.TagService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks keys and indexes of join tables.
+ * Seed tables are tiny, so sequential scans are disabled to see which indexes plans are able to use.
+ */
+@Transactional
+@SpringBootTest
+public class SchemaIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void checkTagFilterShouldScanIndexesOfJoinTable() {
+        // tag filter of GiftCertificateSearchRepositoryImpl looks up certificates by tags of passed names
+        String plan = explain("""
+                SELECT gct.gift_certificate_id
+                FROM gift_shop.gift_certificate_tag gct
+                WHERE gct.tag_id = (SELECT t.id FROM gift_shop.tags t WHERE t.name = 'beauty')
+                """);
+
+        assertThat(plan)
+                .contains("gift_certificate_tag_tag_id_gift_certificate_id_idx")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void checkTagsOfCertificateShouldScanPrimaryKeyOfJoinTable() {
+        String plan = explain("SELECT tag_id FROM gift_shop.gift_certificate_tag WHERE gift_certificate_id = 3");
+
+        assertThat(plan)
+                .contains("gift_certificate_tag_pkey")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void checkDeleteOfTagShouldRemoveItsLinks() {
+        tagService.delete(2);
+        entityManager.flush();
+
+        Integer links = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM gift_shop.gift_certificate_tag WHERE tag_id = 2", Integer.class);
+        assertThat(links).isZero();
+    }
+
+    private String explain(String sql) {
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", lines);
+    }
+}
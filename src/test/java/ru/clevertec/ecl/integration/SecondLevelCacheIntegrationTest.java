@@ -0,0 +1,108 @@
+package ru.clevertec.ecl.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.tag.TagRequest;
+import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.model.GiftCertificate;
+import ru.clevertec.ecl.model.Tag;
+import ru.clevertec.ecl.service.GiftCertificateService;
+import ru.clevertec.ecl.service.TagService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that cached certificates and tags follow changes committed by services,
+ * so test isn't transactional and removes created rows.
+ */
+@SpringBootTest
+public class SecondLevelCacheIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String FIRST_TAG = "cached first";
+    private static final String SECOND_TAG = "cached second";
+    private static final String RENAMED_TAG = "cached renamed";
+
+    @Autowired
+    private GiftCertificateService certificateService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private Integer certificateId;
+
+    @BeforeEach
+    void setUp() {
+        GiftCertificateRequest request = new GiftCertificateRequest("cached", 10.0, "description", 5,
+                List.of(new Tag(null, FIRST_TAG), new Tag(null, SECOND_TAG)));
+        certificateId = certificateService.save(request).getId();
+        certificateService.find(certificateId);
+        assertThat(entityManagerFactory.getCache().contains(GiftCertificate.class, certificateId)).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM gift_shop.gift_certificates WHERE id = ?", certificateId);
+        tagService.findAllByNameIn(List.of(FIRST_TAG, SECOND_TAG, RENAMED_TAG))
+                .forEach(tag -> tagService.delete(tag.getId()));
+    }
+
+    @Test
+    void checkFindShouldNotReturnDeletedTag() {
+        tagService.delete(tagId(SECOND_TAG));
+
+        GiftCertificateResponse actual = certificateService.find(certificateId);
+
+        assertThat(actual.getTags()).extracting(Tag::getName)
+                .containsExactly(FIRST_TAG);
+    }
+
+    @Test
+    void checkFindShouldReturnRenamedTag() {
+        tagService.update(tagId(SECOND_TAG), new TagRequest(RENAMED_TAG));
+
+        GiftCertificateResponse actual = certificateService.find(certificateId);
+
+        assertThat(actual.getTags()).extracting(Tag::getName)
+                .containsExactlyInAnyOrder(FIRST_TAG, RENAMED_TAG);
+    }
+
+    @Test
+    void checkFindShouldReturnUpdatedCertificate() {
+        GiftCertificateRequest request = new GiftCertificateRequest("updated", 20.0, "description", 5,
+                List.of(new Tag(null, FIRST_TAG)));
+        certificateService.update(certificateId, request);
+
+        GiftCertificateResponse actual = certificateService.find(certificateId);
+
+        assertThat(actual.getName()).isEqualTo("updated");
+        assertThat(actual.getTags()).extracting(Tag::getName)
+                .containsExactly(FIRST_TAG);
+    }
+
+    @Test
+    void checkFindShouldThrowEntityNotFoundExceptionForDeletedCertificate() {
+        certificateService.delete(certificateId);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> certificateService.find(certificateId));
+    }
+
+    private Integer tagId(String name) {
+        return tagService.findAllByNameIn(List.of(name)).get(0).getId();
+    }
+}
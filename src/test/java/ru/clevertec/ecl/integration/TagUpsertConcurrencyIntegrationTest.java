@@ -0,0 +1,126 @@
+package ru.clevertec.ecl.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.tag.TagRequest;
+import ru.clevertec.ecl.dto.tag.TagResponse;
+import ru.clevertec.ecl.exception.TagAlreadyExistsException;
+import ru.clevertec.ecl.model.Tag;
+import ru.clevertec.ecl.service.GiftCertificateService;
+import ru.clevertec.ecl.service.TagService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs concurrent creations of the same new tags in separate committed transactions.
+ */
+@SpringBootTest
+public class TagUpsertConcurrencyIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final String PREFIX = "concurrent tag ";
+
+    @Autowired
+    private GiftCertificateService certificateService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private final List<Integer> certificateIds = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        certificateIds.forEach(certificateService::delete);
+        jdbcTemplate.queryForList("SELECT id FROM gift_shop.tags WHERE name LIKE ?", Integer.class, PREFIX + "%")
+                .forEach(tagService::delete);
+    }
+
+    @Test
+    void checkConcurrentSavesOfCertificatesWithSameNewTagsShouldShareTags() throws Exception {
+        List<String> names = List.of(PREFIX + "c", PREFIX + "a", PREFIX + "b");
+
+        List<GiftCertificateResponse> saved = runConcurrently(() -> {
+            List<Tag> tags = names.stream()
+                    .map(name -> new Tag(null, name))
+                    .toList();
+            GiftCertificateResponse response = certificateService.save(
+                    new GiftCertificateRequest("concurrent", 10.0, "description", 5, tags));
+            certificateIds.add(response.getId());
+            return response;
+        });
+
+        assertThat(saved).hasSize(THREADS);
+        List<Integer> expectedTagIds = saved.get(0).getTags().stream()
+                .map(Tag::getId)
+                .toList();
+        assertThat(saved).allSatisfy(certificate -> assertThat(certificate.getTags())
+                .extracting(Tag::getId)
+                .containsExactlyElementsOf(expectedTagIds));
+        assertThat(countTags()).isEqualTo(names.size());
+    }
+
+    @Test
+    void checkConcurrentSavesOfSameTagShouldCreateItOnce() throws Exception {
+        String name = PREFIX + "single";
+
+        List<Object> results = runConcurrently(() -> {
+            try {
+                return tagService.save(new TagRequest(name));
+            } catch (TagAlreadyExistsException e) {
+                return e;
+            }
+        });
+
+        assertThat(results).filteredOn(TagResponse.class::isInstance).hasSize(1);
+        assertThat(results).filteredOn(TagAlreadyExistsException.class::isInstance).hasSize(THREADS - 1);
+        assertThat(countTags()).isEqualTo(1);
+    }
+
+    private <T> List<T> runConcurrently(Callable<T> task) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = IntStream.range(0, THREADS)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return task.call();
+                    }))
+                    .toList();
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } catch (TimeoutException e) {
+            throw new AssertionError("Concurrent saves didn't finish in time", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Integer countTags() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM gift_shop.tags WHERE name LIKE ?", Integer.class, PREFIX + "%");
+    }
+}
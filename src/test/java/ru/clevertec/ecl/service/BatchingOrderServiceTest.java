@@ -0,0 +1,114 @@
+package ru.clevertec.ecl.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.clevertec.ecl.config.OrderIngestionProperties;
+import ru.clevertec.ecl.dto.order.OrderResponse;
+import ru.clevertec.ecl.exception.OrderQueueFullException;
+import ru.clevertec.ecl.model.Order;
+import ru.clevertec.ecl.repository.OrderRepository;
+import ru.clevertec.ecl.service.order.OrderBatcher;
+import ru.clevertec.ecl.util.GiftCertificateTestBuilder;
+import ru.clevertec.ecl.util.OrderTestBuilder;
+import ru.clevertec.ecl.util.UserTestBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BatchingOrderServiceTest {
+
+    private static final Duration MAX_WAIT = Duration.ofMillis(50);
+
+    @Mock
+    private OrderRepository mockRepository;
+
+    @Mock
+    private TransactionTemplate mockTransactionTemplate;
+
+    @Mock
+    private OrderService mockOrderService;
+    private OrderBatcher orderBatcher;
+    private BatchingOrderService batchingOrderService;
+
+    @BeforeEach
+    void setUp() {
+        OrderIngestionProperties properties = new OrderIngestionProperties(
+                OrderIngestionProperties.Mode.BATCHED, 10, Duration.ofMillis(1), 100, MAX_WAIT);
+        orderBatcher = new OrderBatcher(mockRepository, mockTransactionTemplate, properties, new SimpleMeterRegistry());
+        batchingOrderService = new BatchingOrderService(orderBatcher, mockOrderService, properties);
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(mockTransactionTemplate).execute(any());
+        orderBatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        orderBatcher.stop();
+    }
+
+    @Test
+    void checkMakeOrderTimedOutInQueueShouldNotBeInserted() throws Exception {
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Order first = order(1, 2);
+        doAnswer(invocation -> {
+            inserting.countDown();
+            release.await();
+            return List.of(first);
+        }).when(mockRepository).insertOrders(List.of(1), List.of(2));
+
+        CompletableFuture<Optional<Order>> busy = orderBatcher.submit(1, 2).result();
+        assertThat(inserting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThrows(OrderQueueFullException.class, () -> batchingOrderService.makeOrder(3, 4));
+        release.countDown();
+
+        assertThat(busy.get(5, TimeUnit.SECONDS)).contains(first);
+        orderBatcher.stop();
+        verify(mockRepository, never()).insertOrders(List.of(3), List.of(4));
+    }
+
+    @Test
+    void checkMakeOrderTimedOutDuringInsertShouldWaitForItsGroup() {
+        Order created = order(1, 2);
+        OrderResponse expected = new OrderResponse();
+        doAnswer(invocation -> {
+            Thread.sleep(MAX_WAIT.toMillis() * 4);
+            return List.of(created);
+        }).when(mockRepository).insertOrders(List.of(1), List.of(2));
+        doReturn(expected)
+                .when(mockOrderService).toResponse(1, 2, Optional.of(created));
+
+        OrderResponse actual = batchingOrderService.makeOrder(1, 2);
+
+        assertThat(actual).isSameAs(expected);
+    }
+
+    private static Order order(Integer userId, Integer certificateId) {
+        return new OrderTestBuilder()
+                .withUser(new UserTestBuilder().withId(userId).build())
+                .withCertificate(new GiftCertificateTestBuilder().withId(certificateId).build())
+                .withTotalCost(10.0)
+                .build();
+    }
+}
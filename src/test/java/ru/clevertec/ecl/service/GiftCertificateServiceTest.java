@@ -1,5 +1,7 @@
 package ru.clevertec.ecl.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -7,60 +9,90 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import ru.clevertec.ecl.dto.certificate.CertificateVersion;
+import ru.clevertec.ecl.dto.certificate.Facet;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateRequest;
 import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.dto.certificate.TagMatch;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.dto.page.FacetedPage;
+import ru.clevertec.ecl.dto.page.SeekCursor;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.exception.InvalidCursorException;
+import ru.clevertec.ecl.exception.PreconditionFailedException;
 import ru.clevertec.ecl.mapper.GiftCertificateMapper;
 import ru.clevertec.ecl.mapper.GiftCertificateMapperImpl;
-import ru.clevertec.ecl.mapper.TagMapper;
-import ru.clevertec.ecl.mapper.TagMapperImpl;
 import ru.clevertec.ecl.model.GiftCertificate;
+import ru.clevertec.ecl.model.Tag;
 import ru.clevertec.ecl.repository.GiftCertificateRepository;
+import ru.clevertec.ecl.repository.projection.CertificateTagView;
 import ru.clevertec.ecl.service.GiftCertificateService;
 import ru.clevertec.ecl.service.TagService;
+import ru.clevertec.ecl.service.event.CertificateChangedEvent;
+import ru.clevertec.ecl.service.event.CertificateDeletedEvent;
+import ru.clevertec.ecl.service.event.CertificateTagsChangedEvent;
+import ru.clevertec.ecl.service.index.TagBitmapIndex;
 import ru.clevertec.ecl.util.GiftCertificateTestBuilder;
 import ru.clevertec.ecl.util.TestData;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 
 @ExtendWith(MockitoExtension.class)
 public class GiftCertificateServiceTest {
 
+    private static final String TAGS_DIGEST = "d41d8cd98f00b204e9800998ecf8427e";
 
     @Mock
     private TagService mockTagService;
 
     @Mock
     private GiftCertificateRepository mockRepository;
+
+    @Mock
+    private TagBitmapIndex mockTagIndex;
+
+    @Mock
+    private ApplicationEventPublisher mockEventPublisher;
     private GiftCertificateTestBuilder GC_BUILDER;
     private GiftCertificateMapper certificateMapper;
     private GiftCertificateService certificateService;
-    private TagMapper tagMapper;
 
 
     @BeforeEach
     void setUp() {
         certificateMapper = (GiftCertificateMapper) new GiftCertificateMapperImpl();
-        tagMapper = (TagMapper) new TagMapperImpl();
         certificateService = new GiftCertificateService(
                 certificateMapper,
-                tagMapper,
                 mockRepository,
-                mockTagService
+                mockTagService,
+                mockTagIndex,
+                mockEventPublisher
         );
         GC_BUILDER = new GiftCertificateTestBuilder();
     }
@@ -80,6 +112,15 @@ public class GiftCertificateServiceTest {
             Integer actualId = idCaptor.getValue();
             assertThat(actualId).isEqualTo(id);
         }
+
+        @Test
+        void checkDeleteShouldPublishCertificateDeletedEvent() {
+            Integer id = 1;
+
+            certificateService.delete(id);
+
+            verify(mockEventPublisher).publishEvent(new CertificateDeletedEvent(id));
+        }
     }
 
     @Nested
@@ -92,10 +133,10 @@ public class GiftCertificateServiceTest {
             GiftCertificateResponse expected = certificateMapper.toResponse(certificateToSave);
 
             doReturn(certificateToSave)
-                    .when(mockRepository).save(certificateToSave);
+                    .when(mockRepository).saveAndFlush(certificateToSave);
             GiftCertificateResponse actual = certificateService.save(request);
 
-            verify(mockRepository).save(TestData.defaultCertificate());
+            verify(mockRepository).saveAndFlush(TestData.defaultCertificate());
             assertThat(actual).isEqualTo(expected);
         }
     }
@@ -104,33 +145,138 @@ public class GiftCertificateServiceTest {
     class UpdateTest {
 
         @Test
-        void checkUpdateShouldReturnSameEntity() {
+        void checkUpdateShouldReturnUpdatedCertificateWithPassedTags() {
             Integer id = 1;
-            GiftCertificate certificate  = GC_BUILDER.withId(null).build();
+            GiftCertificate certificate = GC_BUILDER.withId(id).build();
             GiftCertificateRequest request = certificateMapper.toRequest(certificate);
             GiftCertificateResponse expected = certificateMapper.toResponse(certificate);
-            expected.setId(id);
 
-            doReturn(Optional.of(certificate))
-                    .when(mockRepository).findById(id);
-            doReturn(GC_BUILDER.withId(id).build())
-                    .when(mockRepository).save(certificate);
+            Map<String, Tag> existingTags = new LinkedHashMap<>();
+            certificate.getTags().forEach(tag -> existingTags.put(tag.getName(), tag));
+
+            doReturn(Optional.of(certificateMapper.toResponse(GC_BUILDER.withId(id).withTags(List.of()).build())))
+                    .when(mockRepository).updateFields(id, request);
+            doReturn(existingTags)
+                    .when(mockTagService).findOrCreateAll(List.copyOf(existingTags.keySet()));
 
             GiftCertificateResponse actual = certificateService.update(id, request);
 
-            verify(mockRepository).save(certificate);
+            verify(mockRepository).replaceTags(id, List.of(1, 2, 3));
             assertThat(actual).isEqualTo(expected);
         }
 
+        @Test
+        void checkUpdateShouldNotReadCertificate() {
+            Integer id = 1;
+            GiftCertificateRequest request = new GiftCertificateRequest();
+            request.setName("new name");
+
+            doReturn(Optional.of(certificateMapper.toResponse(GC_BUILDER.withId(id).build())))
+                    .when(mockRepository).updateFields(id, request);
+
+            certificateService.update(id, request);
+
+            verify(mockRepository, never()).findById(id);
+            verify(mockRepository, never()).replaceTags(any(), any());
+            verify(mockEventPublisher).publishEvent(new CertificateChangedEvent(id));
+        }
+
+        @Test
+        void checkUpdateOfPriceOnlyShouldExecuteOnlyUpdateAndKeepTags() throws JsonProcessingException {
+            Integer id = 1;
+            GiftCertificateRequest request = new ObjectMapper()
+                    .readValue("{\"price\": 15.0}", GiftCertificateRequest.class);
+
+            doReturn(Optional.of(certificateMapper.toResponse(GC_BUILDER.withId(id).build())))
+                    .when(mockRepository).updateFields(id, request);
+
+            certificateService.update(id, request);
+
+            verify(mockRepository).updateFields(id, request);
+            verifyNoMoreInteractions(mockRepository);
+            verifyNoInteractions(mockTagService);
+        }
+
         @Test
         void checkUpdateShouldThrowEntityNotFoundException() {
             Integer id = -1;
+            GiftCertificateRequest request = new GiftCertificateRequest();
 
             doReturn(Optional.empty())
-                    .when(mockRepository).findById(id);
+                    .when(mockRepository).updateFields(id, request);
 
             assertThrows(EntityNotFoundException.class,
-                    () -> certificateService.update(id, any()));
+                    () -> certificateService.update(id, request));
+        }
+
+        @Test
+        void checkConditionalUpdateShouldNotReadCertificate() {
+            Integer id = 1;
+            long version = 3;
+            GiftCertificateRequest request = new GiftCertificateRequest();
+            request.setPrice(15.0);
+            GiftCertificateResponse expected = certificateMapper.toResponse(GC_BUILDER.withId(id).build());
+
+            doReturn(Optional.of(expected))
+                    .when(mockRepository).updateFieldsIfMatches(id, version, TAGS_DIGEST, request);
+
+            GiftCertificateResponse actual = certificateService.update(id, request,
+                    new CertificateVersion.EntityTag(version, TAGS_DIGEST));
+
+            assertThat(actual).isEqualTo(expected);
+            verify(mockRepository, never()).findById(id);
+            verify(mockRepository, never()).replaceTags(any(), any());
+            verify(mockEventPublisher).publishEvent(new CertificateChangedEvent(id));
+        }
+
+        @Test
+        void checkConditionalUpdateShouldReplaceTags() {
+            Integer id = 1;
+            long version = 3;
+            Tag tag = new Tag(7, "spa");
+            GiftCertificateRequest request = new GiftCertificateRequest();
+            request.setTags(List.of(new Tag(null, "spa")));
+            GiftCertificateResponse updated = certificateMapper.toResponse(GC_BUILDER.withId(id).build());
+
+            doReturn(Optional.of(updated))
+                    .when(mockRepository).updateFieldsIfMatches(id, version, TAGS_DIGEST, request);
+            doReturn(Map.of("spa", tag))
+                    .when(mockTagService).findOrCreateAll(List.of("spa"));
+
+            GiftCertificateResponse actual = certificateService.update(id, request,
+                    new CertificateVersion.EntityTag(version, TAGS_DIGEST));
+
+            assertThat(actual.getTags()).containsExactly(tag);
+            verify(mockRepository).replaceTags(id, List.of(7));
+            verify(mockEventPublisher).publishEvent(new CertificateTagsChangedEvent(id, Map.of(7, "spa")));
+        }
+
+        @Test
+        void checkConditionalUpdateShouldThrowPreconditionFailedExceptionWhenEntityTagDiffers() {
+            Integer id = 1;
+            GiftCertificateRequest request = new GiftCertificateRequest();
+
+            doReturn(Optional.empty())
+                    .when(mockRepository).updateFieldsIfMatches(id, 2L, TAGS_DIGEST, request);
+            doReturn(true)
+                    .when(mockRepository).existsById(id);
+
+            assertThrows(PreconditionFailedException.class,
+                    () -> certificateService.update(id, request, new CertificateVersion.EntityTag(2L, TAGS_DIGEST)));
+        }
+
+        @Test
+        void checkConditionalUpdateShouldThrowEntityNotFoundExceptionWhenCertificateIsMissing() {
+            Integer id = -1;
+            GiftCertificateRequest request = new GiftCertificateRequest();
+
+            doReturn(Optional.empty())
+                    .when(mockRepository).updateFieldsIfMatches(id, 2L, TAGS_DIGEST, request);
+            doReturn(false)
+                    .when(mockRepository).existsById(id);
+
+            assertThrows(EntityNotFoundException.class,
+                    () -> certificateService.update(id, request, new CertificateVersion.EntityTag(2L, TAGS_DIGEST)));
         }
     }
 
@@ -166,19 +312,173 @@ public class GiftCertificateServiceTest {
             GiftCertificate certificate = GC_BUILDER.build();
             GiftCertificateResponse expectedResponse = certificateMapper.toResponse(certificate);
             Page<GiftCertificateResponse> expectedPage = new PageImpl<>(List.of(expectedResponse));
-
-            doReturn(new PageImpl<>(List.of(certificate)))
-                    .when(mockRepository).findAll(any(), any(), any());
+            GiftCertificateResponse projection = certificateMapper
+                    .toResponse(GC_BUILDER.withTags(new ArrayList<>()).build());
+            List<CertificateTagView> tagRows = certificate.getTags()
+                    .stream()
+                    .map(t -> new CertificateTagView(certificate.getId(), t.getId(), t.getName()))
+                    .toList();
+
+            doReturn(new PageImpl<>(List.of(projection)))
+                    .when(mockRepository).search(any(), any());
+            doReturn(tagRows)
+                    .when(mockRepository).findTagsByCertificateIdIn(Set.of(certificate.getId()));
 
             Page<GiftCertificateResponse> actualPage = certificateService
-                    .findAll(any(), any(), any());
+                    .findAll(new GiftCertificateFilter(), TestData.defaultPageable());
 
-            verify(mockRepository).findAll(any(), any(), any());
+            verify(mockRepository).search(any(), any());
             assertThat(actualPage).isEqualTo(expectedPage);
         }
+
+        @Test
+        void checkFindAllWithOnlyTagsShouldReadPageIdsFromTagIndex() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .tagNames(List.of("name1"))
+                    .build();
+            GiftCertificateResponse first = certificateMapper.toResponse(GC_BUILDER.withId(7).build());
+            GiftCertificateResponse second = certificateMapper.toResponse(GC_BUILDER.withId(5).build());
+
+            doReturn(Optional.of(RoaringBitmap.bitmapOf(1, 3, 5, 7)))
+                    .when(mockTagIndex).find(filter.getTagNames(), TagMatch.ALL);
+            doReturn(List.of(second, first))
+                    .when(mockRepository).findResponsesByIdIn(List.of(7, 5));
+
+            Page<GiftCertificateResponse> actualPage = certificateService
+                    .findAll(filter, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+            verify(mockRepository, never()).search(any(), any());
+            assertThat(actualPage.getContent()).containsExactly(first, second);
+            assertThat(actualPage.getTotalElements()).isEqualTo(4);
+        }
+
+        @Test
+        void checkFindAllWithOtherSortShouldNotUseTagIndex() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .tagNames(List.of("name1"))
+                    .build();
+            Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+
+            doReturn(Page.empty())
+                    .when(mockRepository).search(filter, pageable);
+
+            certificateService.findAll(filter, pageable);
+
+            verify(mockTagIndex, never()).find(any(), any());
+        }
+
+        @Test
+        void checkFindAllWithFacetsShouldCountTagsByIndexForTagOnlyFilter() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .tagNames(List.of("name1"))
+                    .build();
+            Map<String, Long> counts = Map.of("name1", 2L, "name2", 1L);
+
+            doReturn(Optional.of(RoaringBitmap.bitmapOf()))
+                    .when(mockTagIndex).find(filter.getTagNames(), TagMatch.ALL);
+            doReturn(Optional.of(counts))
+                    .when(mockTagIndex).countByTag(filter.getTagNames(), TagMatch.ALL);
+
+            FacetedPage<GiftCertificateResponse> actual = certificateService
+                    .findAllWithFacets(filter, TestData.defaultPageable(), Set.of(Facet.TAGS));
+
+            verify(mockRepository, never()).countByTag(any());
+            assertThat(actual.getFacets()).containsEntry("tags", counts);
+        }
+
+        @Test
+        void checkFindAllWithFacetsShouldCountTagsByQueryForOtherCriteria() {
+            GiftCertificateFilter filter = GiftCertificateFilter.builder()
+                    .description("spa")
+                    .build();
+            Map<String, Long> counts = Map.of("name1", 2L);
+
+            doReturn(Page.empty())
+                    .when(mockRepository).search(any(), any());
+            doReturn(counts)
+                    .when(mockRepository).countByTag(filter);
+
+            FacetedPage<GiftCertificateResponse> actual = certificateService
+                    .findAllWithFacets(filter, TestData.defaultPageable(), Set.of(Facet.TAGS));
+
+            verify(mockTagIndex, never()).countByTag(any(), any());
+            assertThat(actual.getFacets()).containsEntry("tags", counts);
+        }
+
+        @Test
+        void checkFindAllWithParamsShouldNotQueryTagsOfEmptyPage() {
+            doReturn(Page.empty())
+                    .when(mockRepository).search(any(), any());
+
+            Page<GiftCertificateResponse> actualPage = certificateService
+                    .findAll(new GiftCertificateFilter(), TestData.defaultPageable());
+
+            verify(mockRepository, never()).findTagsByCertificateIdIn(any());
+            assertThat(actualPage).isEmpty();
+        }
     }
 
 
+    @Nested
+    class FindAllByCursorTest {
+
+        @Test
+        void checkFindAllByCursorShouldReturnCursorOfLastElement() {
+            int size = 2;
+            GiftCertificateFilter filter = new GiftCertificateFilter();
+            GiftCertificateResponse first = certificateMapper.toResponse(GC_BUILDER.withId(1).build());
+            GiftCertificateResponse last = certificateMapper.toResponse(GC_BUILDER.withId(2).build());
+
+            doReturn(new SliceImpl<>(List.of(first, last), PageRequest.ofSize(size), true))
+                    .when(mockRepository).searchAfter(filter, null, size);
+
+            CursorPage<GiftCertificateResponse> actual = certificateService
+                    .findAllByCursor(filter, null, size);
+
+            assertThat(actual.getContent()).hasSize(size);
+            SeekCursor nextCursor = SeekCursor.decode(actual.getNextCursor());
+            assertThat(nextCursor.id()).isEqualTo(last.getId());
+            assertThat(nextCursor.timestamp()).isEqualTo(last.getCreateDate().toInstant());
+        }
+
+        @Test
+        void checkFindAllByCursorShouldSeekAfterCursorPosition() {
+            int size = 10;
+            GiftCertificateFilter filter = new GiftCertificateFilter();
+            GiftCertificateResponse certificate = certificateMapper.toResponse(GC_BUILDER.withId(5).build());
+            SeekCursor cursor = SeekCursor.of(certificate.getCreateDate(), 4);
+
+            doReturn(new SliceImpl<>(List.of(certificate), PageRequest.ofSize(size), false))
+                    .when(mockRepository).searchAfter(filter, cursor, size);
+
+            CursorPage<GiftCertificateResponse> actual = certificateService
+                    .findAllByCursor(filter, cursor.encode(), size);
+
+            assertThat(actual.getContent()).containsExactly(certificate);
+            assertThat(actual.getNextCursor()).isNull();
+        }
+
+        @Test
+        void checkFindAllByCursorShouldClampPageSize() {
+            GiftCertificateFilter filter = new GiftCertificateFilter();
+
+            doReturn(new SliceImpl<>(List.of()))
+                    .when(mockRepository).searchAfter(filter, null, 100);
+
+            CursorPage<GiftCertificateResponse> actual = certificateService
+                    .findAllByCursor(filter, "", 1_000);
+
+            assertThat(actual.getContent()).isEmpty();
+            assertThat(actual.getNextCursor()).isNull();
+        }
+
+        @Test
+        void checkFindAllByCursorShouldThrowInvalidCursorException() {
+            assertThrows(InvalidCursorException.class,
+                    () -> certificateService.findAllByCursor(new GiftCertificateFilter(), "not a cursor", 10));
+        }
+    }
+
     @Nested
     class FindByIdTest {
 
@@ -213,5 +513,19 @@ public class GiftCertificateServiceTest {
                     () -> certificateService.find(id));
         }
 
+        @Test
+        void checkFindEntityShouldNotFetchTags() {
+            Integer id = 1;
+            GiftCertificate certificate = GC_BUILDER.withId(id).build();
+
+            doReturn(Optional.of(certificate))
+                    .when(mockRepository).findById(id);
+
+            GiftCertificate actual = certificateService.findEntity(id);
+
+            verify(mockRepository).findById(id);
+            assertThat(actual).isEqualTo(certificate);
+        }
+
     }
 }
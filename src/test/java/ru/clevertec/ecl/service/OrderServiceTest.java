@@ -8,16 +8,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.clevertec.ecl.dto.order.OrderItemResponse;
 import ru.clevertec.ecl.dto.order.OrderResponse;
+import ru.clevertec.ecl.dto.page.CursorPage;
+import ru.clevertec.ecl.dto.page.SeekCursor;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
-import ru.clevertec.ecl.mapper.GiftCertificateMapper;
-import ru.clevertec.ecl.mapper.GiftCertificateMapperImpl;
 import ru.clevertec.ecl.mapper.OrderMapper;
 import ru.clevertec.ecl.mapper.OrderMapperImpl;
 import ru.clevertec.ecl.model.Order;
+import ru.clevertec.ecl.model.OrderItem;
 import ru.clevertec.ecl.model.User;
 import ru.clevertec.ecl.repository.OrderRepository;
+import ru.clevertec.ecl.repository.projection.OrderHistoryView;
 import ru.clevertec.ecl.service.GiftCertificateService;
 import ru.clevertec.ecl.service.OrderService;
 import ru.clevertec.ecl.service.UserService;
@@ -26,13 +31,18 @@ import ru.clevertec.ecl.util.OrderTestBuilder;
 import ru.clevertec.ecl.util.TestData;
 import ru.clevertec.ecl.util.UserTestBuilder;
 
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
@@ -46,19 +56,16 @@ class OrderServiceTest {
     @Mock
     private GiftCertificateService certificateService;
     private OrderService orderService;
-    private GiftCertificateMapper certificateMapper;
     private OrderMapper orderMapper;
     private OrderTestBuilder ORDER_BUILDER;
 
     @BeforeEach
     void setUp() {
-        certificateMapper = (GiftCertificateMapper) new GiftCertificateMapperImpl();
         orderMapper = (OrderMapper) new OrderMapperImpl();
         orderService = new OrderService(
                 userService,
                 orderMapper,
                 mockRepository,
-                certificateMapper,
                 certificateService
         );
         ORDER_BUILDER = new OrderTestBuilder();
@@ -73,7 +80,6 @@ class OrderServiceTest {
             int certificateId = 5;
             var user = new UserTestBuilder().build();
             var certificate = new GiftCertificateTestBuilder().withId(certificateId).build();
-            var certResponse = certificateMapper.toResponse(certificate);
             var order = Order.builder()
                     .certificate(certificate)
                     .totalCost(certificate.getPrice())
@@ -81,16 +87,13 @@ class OrderServiceTest {
                     .build();
             var expected = orderMapper.toResponse(order);
 
-            doReturn(user)
-                    .when(userService).find(userId);
-            doReturn(certResponse)
-                    .when(certificateService).find(certificateId);
-            doReturn(order)
-                    .when(mockRepository).save(order);
+            doReturn(Optional.of(order))
+                    .when(mockRepository).insertOrder(userId, certificateId);
 
             OrderResponse actual = orderService.makeOrder(userId, certificateId);
             assertThat(actual).isNotNull();
             assertThat(actual).isEqualTo(expected);
+            verifyNoInteractions(userService, certificateService);
         }
 
         @Test
@@ -113,13 +116,53 @@ class OrderServiceTest {
                     .when(userService).find(userId);
 
             doThrow(EntityNotFoundException.class)
-                    .when(certificateService).find(certificateId);
+                    .when(certificateService).findEntity(certificateId);
 
             assertThrows(EntityNotFoundException.class,
                     () -> orderService.makeOrder(userId, certificateId));
         }
     }
 
+    @Nested
+    class MakeBasketOrderTest {
+
+        @Test
+        void checkMakeOrderShouldInsertRepeatedCertificatesAsQuantity() {
+            int userId = 1;
+            var order = ORDER_BUILDER.withCertificate(null).build();
+            order.setItems(List.of(new OrderItem(1, 56.0, 2), new OrderItem(3, 20.12, 1)));
+            Map<Integer, Integer> quantities = new LinkedHashMap<>();
+            quantities.put(1, 2);
+            quantities.put(3, 1);
+
+            doReturn(Optional.of(order))
+                    .when(mockRepository).insertBasketOrder(userId, quantities);
+
+            OrderResponse actual = orderService.makeOrder(userId, List.of(1, 3, 1));
+
+            assertThat(actual.getTotalCost()).isEqualTo(order.getTotalCost());
+            assertThat(actual.getItems()).containsExactly(
+                    new OrderItemResponse(1, 56.0, 2),
+                    new OrderItemResponse(3, 20.12, 1)
+            );
+            verifyNoInteractions(userService, certificateService);
+        }
+
+        @Test
+        void checkMakeOrderShouldThrowEntityNotFoundExceptionForMissingCertificate() {
+            int userId = 1;
+            int certificateId = 11;
+
+            doReturn(Optional.empty())
+                    .when(mockRepository).insertBasketOrder(userId, Map.of(1, 1, certificateId, 1));
+            doThrow(EntityNotFoundException.class)
+                    .when(certificateService).findEntity(certificateId);
+
+            assertThrows(EntityNotFoundException.class,
+                    () -> orderService.makeOrder(userId, List.of(1, certificateId)));
+        }
+    }
+
     @Nested
     class GetUserOrdersTest {
 
@@ -134,8 +177,8 @@ class OrderServiceTest {
             ));
             Page<OrderResponse> expected = orders.map(orderMapper::toResponse);
 
-            doReturn(orders)
-                    .when(mockRepository).findAllByUserId(userId, pageable);
+            doReturn(expected)
+                    .when(mockRepository).findAllResponsesByUserId(userId, pageable);
 
             Page<OrderResponse> actual = orderService.getUserOrders(userId, pageable);
             assertThat(actual).isNotNull();
@@ -146,14 +189,51 @@ class OrderServiceTest {
         void checkGetUserOrdersShouldReturnEmptyPage() {
             int userId = 1;
             Pageable pageable = TestData.defaultPageable();
-            Page<Order> orders = new PageImpl<>(new ArrayList<>());
+            Page<OrderResponse> orders = new PageImpl<>(new ArrayList<>());
 
             doReturn(orders)
-                    .when(mockRepository).findAllByUserId(userId, pageable);
+                    .when(mockRepository).findAllResponsesByUserId(userId, pageable);
 
             Page<OrderResponse> actual = orderService.getUserOrders(userId, pageable);
             assertThat(actual).isNotNull();
             assertThat(actual.getContent()).isEmpty();
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class GetUserOrdersByCursorTest {
+
+        @Test
+        void checkGetUserOrdersByCursorShouldReturnCursorOfLastOrder() {
+            int userId = 1;
+            ZonedDateTime purchaseDate = ZonedDateTime.parse("2023-04-26T09:22:54Z");
+            OrderHistoryView first = new OrderHistoryView(7, 10.0, purchaseDate.plusDays(1));
+            OrderHistoryView last = new OrderHistoryView(3, 20.0, purchaseDate);
+
+            doReturn(new SliceImpl<>(List.of(first, last), PageRequest.ofSize(2), true))
+                    .when(mockRepository).findSliceByUserId(userId, PageRequest.ofSize(2));
+
+            CursorPage<OrderResponse> actual = orderService.getUserOrdersByCursor(userId, null, 2);
+
+            assertThat(actual.getContent()).containsExactly(
+                    new OrderResponse(10.0, purchaseDate.plusDays(1)),
+                    new OrderResponse(20.0, purchaseDate));
+            assertThat(actual.getNextCursor()).isEqualTo(SeekCursor.of(purchaseDate, 3).encode());
+        }
+
+        @Test
+        void checkGetUserOrdersByCursorShouldSeekAfterCursor() {
+            int userId = 1;
+            ZonedDateTime purchaseDate = ZonedDateTime.parse("2023-04-26T09:22:54Z");
+            String cursor = SeekCursor.of(purchaseDate, 3).encode();
+
+            doReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(100), false))
+                    .when(mockRepository).findSliceByUserIdAfter(userId, purchaseDate, 3, PageRequest.ofSize(100));
+
+            CursorPage<OrderResponse> actual = orderService.getUserOrdersByCursor(userId, cursor, 1000);
+
+            assertThat(actual.getContent()).isEmpty();
+            assertThat(actual.getNextCursor()).isNull();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.clevertec.ecl.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -9,21 +10,29 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import ru.clevertec.ecl.dto.tag.TagRequest;
 import ru.clevertec.ecl.dto.tag.TagResponse;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
+import ru.clevertec.ecl.exception.TagAlreadyExistsException;
 import ru.clevertec.ecl.mapper.TagMapper;
 import ru.clevertec.ecl.mapper.TagMapperImpl;
 import ru.clevertec.ecl.model.Tag;
 import ru.clevertec.ecl.repository.TagRepository;
 import ru.clevertec.ecl.service.TagService;
+import ru.clevertec.ecl.service.cache.SingleFlight;
+import ru.clevertec.ecl.service.cache.TagDictionary;
+import ru.clevertec.ecl.service.index.EntityIdFilters;
 import ru.clevertec.ecl.util.TagTestBuilder;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,21 +40,31 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class TagServiceTest {
 
     @Mock
     private TagRepository mockRepository;
+
+    @Mock
+    private ApplicationEventPublisher mockEventPublisher;
     private TagMapper tagMapper;
+    private TagDictionary tagDictionary;
+    private EntityIdFilters idFilters;
     private TagService tagService;
     private TagTestBuilder TAG_BUILDER;
 
     @BeforeEach
     void setUp() {
         tagMapper = (TagMapper) new TagMapperImpl();
-        tagService = new TagService(mockRepository, tagMapper);
+        tagDictionary = new TagDictionary();
+        idFilters = new EntityIdFilters(new JdbcTemplate());
+        tagService = new TagService(mockRepository, tagMapper, tagDictionary, mockEventPublisher,
+                new SingleFlight(new SimpleMeterRegistry()), idFilters);
         TAG_BUILDER = new TagTestBuilder();
     }
 
@@ -66,6 +85,15 @@ class TagServiceTest {
             Integer actualId = idCaptor.getValue();
             assertThat(actualId).isEqualTo(id);
         }
+
+        @Test
+        void checkDeleteShouldDeleteLinksToCertificates() {
+            Integer id = 1;
+
+            tagService.delete(id);
+
+            verify(mockRepository).deleteLinksByTagId(id);
+        }
     }
 
     @Nested
@@ -79,16 +107,89 @@ class TagServiceTest {
             TagRequest request = tagMapper.toRequest(tagWithoutId);
             TagResponse expected = tagMapper.toResponse(tagWithId);
 
-            doReturn(tagWithId)
-                    .when(mockRepository).save(tagWithoutId);
+            doReturn(Optional.of(tagWithId))
+                    .when(mockRepository).insertIfAbsent(name);
             TagResponse actual = tagService.save(request);
 
-            verify(mockRepository).save(any());
+            verify(mockRepository).insertIfAbsent(name);
             assertThat(actual).isEqualTo(expected);
         }
+
+        @Test
+        void checkSaveShouldThrowTagAlreadyExistsExceptionWhenNameIsTaken() {
+            String name = "someName";
+
+            doReturn(Optional.empty())
+                    .when(mockRepository).insertIfAbsent(name);
+
+            assertThrows(TagAlreadyExistsException.class,
+                    () -> tagService.save(new TagRequest(name)));
+        }
+
+        @Test
+        void checkSaveShouldAddIdToFilter() {
+            String name = "someName";
+            idFilters.getTags().build(new RoaringBitmap());
+
+            doReturn(Optional.of(new Tag(1, name)))
+                    .when(mockRepository).insertIfAbsent(name);
+            tagService.save(new TagRequest(name));
+
+            assertThat(idFilters.getTags().mightContain(1)).isTrue();
+        }
     }
 
 
+    @Nested
+    class FindOrCreateAllTest {
+
+        @Test
+        void checkFindOrCreateAllShouldNotQueryCachedTags() {
+            Tag cached = new Tag(1, "cached");
+            tagDictionary.putAll(List.of(cached));
+
+            Map<String, Tag> actual = tagService.findOrCreateAll(List.of("cached"));
+
+            verifyNoInteractions(mockRepository);
+            assertThat(actual).containsExactly(Map.entry("cached", cached));
+        }
+
+        @Test
+        void checkFindOrCreateAllShouldUpsertMissingTagsInOneCall() {
+            Tag cached = new Tag(1, "cached");
+            Tag existing = new Tag(2, "existing");
+            Tag created = new Tag(3, "new");
+            tagDictionary.putAll(List.of(cached));
+
+            doReturn(List.of(created, existing))
+                    .when(mockRepository).findOrInsertAll(List.of("existing", "new"));
+
+            Map<String, Tag> actual = tagService.findOrCreateAll(List.of("existing", "cached", "new", "existing"));
+
+            assertThat(actual).containsExactly(
+                    Map.entry("existing", existing),
+                    Map.entry("cached", cached),
+                    Map.entry("new", created)
+            );
+            assertThat(tagDictionary.get("existing")).isEqualTo(existing);
+        }
+
+        @Test
+        void checkUpdateShouldEvictRenamedTag() {
+            Tag tag = new Tag(1, "old name");
+            tagDictionary.putAll(List.of(tag));
+
+            doReturn(Optional.of(tag))
+                    .when(mockRepository).findById(1);
+            doReturn(new Tag(1, "new name"))
+                    .when(mockRepository).save(any());
+
+            tagService.update(1, new TagRequest("new name"));
+
+            assertThat(tagDictionary.get("old name")).isNull();
+        }
+    }
+
     @Test
     void checkUpdateShouldReturnExpectedResponse() {
         Integer id = 1;
@@ -113,12 +214,12 @@ class TagServiceTest {
         Page<TagResponse> expected = tags.map(tagMapper::toResponse);
         Pageable pageable = PageRequest.of(1, 1);
 
-        doReturn(tags)
-                .when(mockRepository).findAll(pageable);
+        doReturn(expected)
+                .when(mockRepository).findAllResponses(pageable);
 
         Page<TagResponse> actual = tagService.findAll(pageable);
 
-        verify(mockRepository).findAll(pageable);
+        verify(mockRepository).findAllResponses(pageable);
         assertThat(actual).isEqualTo(expected);
     }
 
@@ -146,4 +247,28 @@ class TagServiceTest {
         assertThrows(EntityNotFoundException.class,
                 () -> tagService.find(id));
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkFindShouldNotReadRepositoryForFilteredOutId() {
+        idFilters.getTags().build(RoaringBitmap.bitmapOf(1, 2));
+
+        assertThrows(EntityNotFoundException.class,
+                () -> tagService.find(3));
+        verify(mockRepository).existsById(3);
+        verify(mockRepository, never()).findById(any());
+    }
+
+    @Test
+    void checkFindShouldReadTagMissingFromFilterThatExistsInDatabase() {
+        idFilters.getTags().build(RoaringBitmap.bitmapOf(1, 2));
+        doReturn(true)
+                .when(mockRepository).existsById(3);
+        doReturn(Optional.of(new Tag(3, "inserted elsewhere")))
+                .when(mockRepository).findById(3);
+
+        TagResponse actual = tagService.find(3);
+
+        assertThat(actual.getName()).isEqualTo("inserted elsewhere");
+        assertThat(idFilters.getTags().mightContain(3)).isTrue();
+    }
+}
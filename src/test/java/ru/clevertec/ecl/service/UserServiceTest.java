@@ -1,18 +1,23 @@
 package ru.clevertec.ecl.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import ru.clevertec.ecl.exception.EntityNotFoundException;
 import ru.clevertec.ecl.model.User;
 import ru.clevertec.ecl.repository.UserRepository;
 import ru.clevertec.ecl.service.UserService;
+import ru.clevertec.ecl.service.cache.SingleFlight;
+import ru.clevertec.ecl.service.index.EntityIdFilters;
 import ru.clevertec.ecl.util.TestData;
 import ru.clevertec.ecl.util.UserTestBuilder;
 
@@ -32,6 +37,12 @@ class UserServiceTest {
 
     @Mock
     private UserRepository mockRepository;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
+    @Spy
+    private EntityIdFilters idFilters = new EntityIdFilters(new JdbcTemplate());
     private UserTestBuilder USER_BUILDER;
 
     @BeforeEach
@@ -0,0 +1,109 @@
+package ru.clevertec.ecl.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.clevertec.ecl.config.SearchCacheProperties;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateFilter;
+import ru.clevertec.ecl.dto.certificate.GiftCertificateResponse;
+import ru.clevertec.ecl.service.event.CertificateChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CertificateSearchCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private CertificateSearchCache searchCache;
+    private AtomicInteger searches;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchCache = new CertificateSearchCache(new SearchCacheProperties(100, Duration.ofMinutes(1)), meterRegistry);
+        searches = new AtomicInteger();
+    }
+
+    @Test
+    void checkGetShouldSearchOnceForSameNormalizedFilter() {
+        GiftCertificateFilter first = GiftCertificateFilter.builder()
+                .tagNames(List.of("spa", "beauty"))
+                .name("Dinner")
+                .build();
+        GiftCertificateFilter second = GiftCertificateFilter.builder()
+                .tagNames(List.of("beauty", "spa", "beauty"))
+                .name("dinner")
+                .build();
+
+        Page<GiftCertificateResponse> expected = get(first, PageRequest.of(0, 10));
+        Page<GiftCertificateResponse> actual = get(second, PageRequest.of(0, 10));
+
+        assertThat(actual).isSameAs(expected);
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void checkGetShouldSearchAgainForOtherPageOrSort() {
+        GiftCertificateFilter filter = new GiftCertificateFilter();
+
+        get(filter, PageRequest.of(0, 10));
+        get(filter, PageRequest.of(1, 10));
+        get(filter, PageRequest.of(0, 10, Sort.by("name")));
+
+        assertThat(searches).hasValue(3);
+    }
+
+    @Test
+    void checkGetShouldSearchAgainAfterWrite() {
+        GiftCertificateFilter filter = new GiftCertificateFilter();
+
+        get(filter, PageRequest.of(0, 10));
+        searchCache.onCertificateChanged(new CertificateChangedEvent(1));
+        get(filter, PageRequest.of(0, 10));
+
+        assertThat(searches).hasValue(2);
+    }
+
+    @Test
+    void checkGetShouldNotCacheInsideTransaction() {
+        GiftCertificateFilter filter = new GiftCertificateFilter();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            get(filter, PageRequest.of(0, 10));
+            get(filter, PageRequest.of(0, 10));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertThat(searches).hasValue(2);
+    }
+
+    @Test
+    void checkGetShouldExportHitRatio() {
+        GiftCertificateFilter filter = new GiftCertificateFilter();
+
+        get(filter, PageRequest.of(0, 10));
+        get(filter, PageRequest.of(0, 10));
+
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", "certificate-search").gauge().value())
+                .isEqualTo(0.5);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    private Page<GiftCertificateResponse> get(GiftCertificateFilter filter, PageRequest pageable) {
+        return searchCache.get(filter, pageable, () -> {
+            searches.incrementAndGet();
+            return new PageImpl<>(List.of(), pageable, 0);
+        });
+    }
+}
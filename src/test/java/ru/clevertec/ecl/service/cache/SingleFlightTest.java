@@ -0,0 +1,134 @@
+package ru.clevertec.ecl.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.clevertec.ecl.exception.EntityNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private MeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void checkLoadShouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.load("tag", 1, () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "beauty";
+            })));
+        }
+        waitForCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("beauty");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("singleflight.loads").tag("name", "tag").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void checkLoadShouldRethrowExceptionOfLoadToWaitingCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> leader = executor.submit(() -> singleFlight.load("tag", 1, () -> {
+            await(release);
+            throw new EntityNotFoundException("Tag not found", 1);
+        }));
+        Future<?> waiter = executor.submit(() -> singleFlight.load("tag", 1, () -> "unexpected"));
+        waitForCoalesced(1);
+        release.countDown();
+
+        for (Future<?> result : List.of(leader, waiter)) {
+            Exception actual = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertThat(actual).hasCauseInstanceOf(EntityNotFoundException.class);
+        }
+    }
+
+    @Test
+    void checkLoadShouldLoadAgainAfterPreviousLoadCompleted() {
+        singleFlight.load("tag", 1, loads::incrementAndGet);
+        singleFlight.load("tag", 1, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void checkLoadShouldNotShareLoadsOfDifferentNames() {
+        Integer tag = singleFlight.load("tag", 1, () -> 1);
+        Integer user = singleFlight.load("user", 1, () -> 2);
+
+        assertThat(tag).isEqualTo(1);
+        assertThat(user).isEqualTo(2);
+    }
+
+    @Test
+    void checkLoadShouldNotBeCoalescedInsideTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            singleFlight.load("tag", 1, loads::incrementAndGet);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.find("singleflight.loads").counter()).isNull();
+    }
+
+    private void waitForCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(coalesced()).isEqualTo(expected);
+    }
+
+    private double coalesced() {
+        var counter = meterRegistry.find("singleflight.coalesced").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
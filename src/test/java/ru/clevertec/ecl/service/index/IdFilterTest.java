@@ -0,0 +1,78 @@
+package ru.clevertec.ecl.service.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdFilterTest {
+
+    private IdFilter idFilter;
+
+    @BeforeEach
+    void setUp() {
+        idFilter = new IdFilter();
+    }
+
+    @Test
+    void checkMightContainShouldAllowAnyIdBeforeBuild() {
+        assertThat(idFilter.mightContain(100)).isTrue();
+    }
+
+    @Test
+    void checkMightContainShouldRejectIdsThatWereNotAdded() {
+        idFilter.build(RoaringBitmap.bitmapOf(1, 2, 3));
+
+        assertThat(idFilter.mightContain(2)).isTrue();
+        assertThat(idFilter.mightContain(4)).isFalse();
+        assertThat(idFilter.mightContain(-1)).isFalse();
+        assertThat(idFilter.mightContain(null)).isFalse();
+    }
+
+    @Test
+    void checkBuildShouldKeepIdsAddedBeforeIt() {
+        idFilter.addAll(List.of(50, 51));
+
+        idFilter.build(RoaringBitmap.bitmapOf(1));
+
+        assertThat(idFilter.mightContain(51)).isTrue();
+        assertThat(idFilter.size()).isEqualTo(3);
+    }
+
+    @Test
+    void checkRemoveShouldRejectRemovedId() {
+        idFilter.build(RoaringBitmap.bitmapOf(1, 2));
+
+        idFilter.remove(2);
+
+        assertThat(idFilter.mightContain(2)).isFalse();
+    }
+
+    @Test
+    void checkMightContainShouldAddIdMissingFromFilterThatExistsInDatabase() {
+        idFilter.build(RoaringBitmap.bitmapOf(1));
+
+        assertThat(idFilter.mightContain(2, id -> true)).isTrue();
+        assertThat(idFilter.mightContain(2)).isTrue();
+    }
+
+    @Test
+    void checkMightContainShouldRejectIdMissingFromFilterAndDatabase() {
+        idFilter.build(RoaringBitmap.bitmapOf(1));
+
+        assertThat(idFilter.mightContain(2, id -> false)).isFalse();
+        assertThat(idFilter.mightContain(null, id -> true)).isFalse();
+    }
+
+    @Test
+    void checkMightContainShouldNotCheckDatabaseForIdInFilter() {
+        idFilter.build(RoaringBitmap.bitmapOf(1));
+
+        assertThat(idFilter.mightContain(1, id -> {
+            throw new AssertionError("database is checked");
+        })).isTrue();
+    }
+}
@@ -0,0 +1,258 @@
+package ru.clevertec.ecl.service.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.clevertec.ecl.dto.certificate.TagMatch;
+import ru.clevertec.ecl.repository.GiftCertificateRepository;
+import ru.clevertec.ecl.repository.projection.CertificateTagView;
+import ru.clevertec.ecl.service.event.CertificateDeletedEvent;
+import ru.clevertec.ecl.service.event.CertificateTagsChangedEvent;
+import ru.clevertec.ecl.service.event.CertificatesImportedEvent;
+import ru.clevertec.ecl.service.event.CertificatesLoadedEvent;
+import ru.clevertec.ecl.service.event.TagChangedEvent;
+import ru.clevertec.ecl.service.event.TagDeletedEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+
+@ExtendWith(MockitoExtension.class)
+class TagBitmapIndexTest {
+
+    @Mock
+    private GiftCertificateRepository mockRepository;
+
+    @Mock
+    private PlatformTransactionManager mockTransactionManager;
+    private TagBitmapIndex tagIndex;
+
+    @BeforeEach
+    void setUp() {
+        tagIndex = new TagBitmapIndex(mockRepository, mockTransactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tagIndex.stop();
+    }
+
+    @Test
+    void checkFindShouldReturnEmptyOptionalBeforeRebuild() {
+        assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL)).isEmpty();
+    }
+
+    @Nested
+    class FindTest {
+
+        @BeforeEach
+        void setUp() {
+            rebuildWith(
+                    new CertificateTagView(1, 1, "beauty"),
+                    new CertificateTagView(1, 2, "spa"),
+                    new CertificateTagView(2, 1, "beauty"),
+                    new CertificateTagView(3, 2, "spa"),
+                    new CertificateTagView(4, 3, "food")
+            );
+        }
+
+        @Test
+        void checkFindAllShouldIntersectTags() {
+            assertThat(tagIndex.find(List.of("beauty", "spa"), TagMatch.ALL))
+                    .contains(RoaringBitmap.bitmapOf(1));
+        }
+
+        @Test
+        void checkFindAnyShouldUniteTags() {
+            assertThat(tagIndex.find(List.of("beauty", "spa"), TagMatch.ANY))
+                    .contains(RoaringBitmap.bitmapOf(1, 2, 3));
+        }
+
+        @Test
+        void checkFindAllShouldReturnNothingForUnknownTag() {
+            assertThat(tagIndex.find(List.of("beauty", "unknown"), TagMatch.ALL))
+                    .contains(new RoaringBitmap());
+        }
+
+        @Test
+        void checkCountByTagShouldCountMatchingCertificatesPerTag() {
+            Map<String, Long> actual = tagIndex.countByTag(List.of("spa"), TagMatch.ALL).orElseThrow();
+
+            assertThat(actual).containsExactly(
+                    Map.entry("spa", 2L),
+                    Map.entry("beauty", 1L)
+            );
+        }
+
+        @Test
+        void checkCountByTagWithoutTagsShouldCountAllCertificates() {
+            Map<String, Long> actual = tagIndex.countByTag(List.of(), TagMatch.ALL).orElseThrow();
+
+            assertThat(actual).containsExactly(
+                    Map.entry("beauty", 2L),
+                    Map.entry("spa", 2L),
+                    Map.entry("food", 1L)
+            );
+        }
+
+        @Test
+        void checkFindShouldNotExposeIndexBitmaps() {
+            tagIndex.find(List.of("beauty"), TagMatch.ALL)
+                    .orElseThrow()
+                    .add(100);
+
+            assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL))
+                    .contains(RoaringBitmap.bitmapOf(1, 2));
+        }
+    }
+
+    @Nested
+    class EventsTest {
+
+        @BeforeEach
+        void setUp() {
+            rebuildWith(
+                    new CertificateTagView(1, 1, "beauty"),
+                    new CertificateTagView(2, 1, "beauty"),
+                    new CertificateTagView(2, 2, "spa")
+            );
+        }
+
+        @Test
+        void checkCertificateTagsChangedShouldReplaceTagsOfCertificate() {
+            tagIndex.onCertificateTagsChanged(new CertificateTagsChangedEvent(2, Map.of(3, "food")));
+
+            assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(1));
+            assertThat(tagIndex.find(List.of("spa"), TagMatch.ALL)).contains(new RoaringBitmap());
+            assertThat(tagIndex.find(List.of("food"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(2));
+        }
+
+        @Test
+        void checkCertificatesImportedShouldAddCertificatesToTags() {
+            tagIndex.onCertificatesImported(new CertificatesImportedEvent(Map.of(
+                    5, Map.of(1, "beauty", 3, "food"),
+                    6, Map.of(3, "food")
+            )));
+
+            assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(1, 2, 5));
+            assertThat(tagIndex.find(List.of("food"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(5, 6));
+        }
+
+        @Test
+        void checkCertificateDeletedShouldRemoveCertificateFromAllTags() {
+            tagIndex.onCertificateDeleted(new CertificateDeletedEvent(2));
+
+            assertThat(tagIndex.find(List.of("beauty", "spa"), TagMatch.ANY))
+                    .contains(RoaringBitmap.bitmapOf(1));
+        }
+
+        @Test
+        void checkTagChangedShouldRenameTag() {
+            tagIndex.onTagChanged(new TagChangedEvent(1, "nails"));
+
+            assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL)).contains(new RoaringBitmap());
+            assertThat(tagIndex.find(List.of("nails"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(1, 2));
+        }
+
+        @Test
+        void checkTagDeletedShouldRemoveTag() {
+            tagIndex.onTagDeleted(new TagDeletedEvent(2));
+
+            assertThat(tagIndex.find(List.of("spa"), TagMatch.ALL)).contains(new RoaringBitmap());
+        }
+    }
+
+    @Nested
+    class RebuildTest {
+
+        @Test
+        void checkRebuildShouldApplyChangesCommittedWhileLinksAreRead() {
+            doAnswer(invocation -> {
+                // committed after links were read, so they aren't in the stream
+                tagIndex.onCertificateTagsChanged(new CertificateTagsChangedEvent(3, Map.of(2, "spa")));
+                tagIndex.onCertificateDeleted(new CertificateDeletedEvent(1));
+                return Stream.of(
+                        new CertificateTagView(1, 1, "beauty"),
+                        new CertificateTagView(2, 1, "beauty"));
+            }).when(mockRepository).streamAllTagLinks();
+
+            tagIndex.rebuild();
+
+            assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(2));
+            assertThat(tagIndex.find(List.of("spa"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(3));
+        }
+
+        @Test
+        void checkRebuildShouldNotOverwriteChangesAppliedDuringIt() {
+            rebuildWith(new CertificateTagView(1, 1, "beauty"));
+            doAnswer(invocation -> {
+                tagIndex.onTagChanged(new TagChangedEvent(1, "nails"));
+                return Stream.of(new CertificateTagView(1, 1, "beauty"));
+            }).when(mockRepository).streamAllTagLinks();
+
+            tagIndex.rebuild();
+
+            assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL)).contains(new RoaringBitmap());
+            assertThat(tagIndex.find(List.of("nails"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(1));
+        }
+
+        @Test
+        void checkChangesAfterRebuildShouldNotBeRecorded() {
+            rebuildWith(new CertificateTagView(1, 1, "beauty"));
+            tagIndex.onCertificateDeleted(new CertificateDeletedEvent(1));
+            doReturn(Stream.of(new CertificateTagView(2, 1, "beauty")))
+                    .when(mockRepository).streamAllTagLinks();
+
+            tagIndex.rebuild();
+
+            assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(2));
+        }
+
+        @Test
+        void checkCertificatesLoadedShouldRebuildInBackgroundAndAnswerNothingUntilThen() throws Exception {
+            rebuildWith(new CertificateTagView(1, 1, "beauty"));
+            CountDownLatch release = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                release.await();
+                return Stream.of(
+                        new CertificateTagView(1, 1, "beauty"),
+                        new CertificateTagView(2, 1, "beauty"));
+            }).when(mockRepository).streamAllTagLinks();
+
+            tagIndex.onCertificatesLoaded(new CertificatesLoadedEvent(1));
+
+            assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL)).isEmpty();
+            release.countDown();
+            awaitIndex();
+            assertThat(tagIndex.find(List.of("beauty"), TagMatch.ALL)).contains(RoaringBitmap.bitmapOf(1, 2));
+        }
+    }
+
+    /**
+     * Waits until index answers again after background rebuild.
+     */
+    private void awaitIndex() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (tagIndex.find(List.of(), TagMatch.ALL).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void rebuildWith(CertificateTagView... links) {
+        doReturn(Stream.of(links))
+                .when(mockRepository).streamAllTagLinks();
+        tagIndex.rebuild();
+    }
+}
@@ -0,0 +1,198 @@
+package ru.clevertec.ecl.service.order;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.clevertec.ecl.config.OrderIngestionProperties;
+import ru.clevertec.ecl.model.Order;
+import ru.clevertec.ecl.repository.OrderRepository;
+import ru.clevertec.ecl.service.order.OrderBatcher.PendingOrder;
+import ru.clevertec.ecl.util.GiftCertificateTestBuilder;
+import ru.clevertec.ecl.util.OrderTestBuilder;
+import ru.clevertec.ecl.util.UserTestBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBatcherTest {
+
+    @Mock
+    private OrderRepository mockRepository;
+
+    @Mock
+    private TransactionTemplate mockTransactionTemplate;
+    private MeterRegistry meterRegistry;
+    private OrderBatcher orderBatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderBatcher = new OrderBatcher(
+                mockRepository,
+                mockTransactionTemplate,
+                new OrderIngestionProperties(
+                        OrderIngestionProperties.Mode.BATCHED, 10, Duration.ofMillis(10), 100, Duration.ofSeconds(5)),
+                meterRegistry
+        );
+        lenient().doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(mockTransactionTemplate).execute(any());
+    }
+
+    @Nested
+    class FlushTest {
+
+        @Test
+        void checkFlushShouldCompleteEachCallerWithItsOrder() {
+            Order first = order(1, 2, 10.0);
+            Order second = order(2, 3, 20.0);
+            List<PendingOrder> batch = List.of(pending(2, 3), pending(1, 2));
+
+            doReturn(List.of(first, second))
+                    .when(mockRepository).insertOrders(List.of(2, 1), List.of(3, 2));
+
+            orderBatcher.flush(batch);
+
+            assertThat(batch.get(0).result()).isCompletedWithValue(Optional.of(second));
+            assertThat(batch.get(1).result()).isCompletedWithValue(Optional.of(first));
+        }
+
+        @Test
+        void checkFlushShouldCompleteSameOrdersWithDifferentRows() {
+            Order first = order(1, 2, 10.0);
+            Order second = order(1, 2, 11.0);
+            List<PendingOrder> batch = List.of(pending(1, 2), pending(1, 2));
+
+            doReturn(List.of(first, second))
+                    .when(mockRepository).insertOrders(List.of(1, 1), List.of(2, 2));
+
+            orderBatcher.flush(batch);
+
+            assertThat(List.of(batch.get(0).result().join(), batch.get(1).result().join()))
+                    .containsExactlyInAnyOrder(Optional.of(first), Optional.of(second));
+        }
+
+        @Test
+        void checkFlushShouldCompleteCallerWithEmptyOptionalIfOrderWasNotInserted() {
+            Order created = order(1, 2, 10.0);
+            List<PendingOrder> batch = List.of(pending(1, 2), pending(1, 99));
+
+            doReturn(List.of(created))
+                    .when(mockRepository).insertOrders(List.of(1, 1), List.of(2, 99));
+
+            orderBatcher.flush(batch);
+
+            assertThat(batch.get(0).result()).isCompletedWithValue(Optional.of(created));
+            assertThat(batch.get(1).result()).isCompletedWithValue(Optional.empty());
+        }
+
+        @Test
+        void checkFlushShouldFailAllCallersIfInsertFails() {
+            List<PendingOrder> batch = List.of(pending(1, 2), pending(2, 3));
+
+            doThrow(IllegalStateException.class)
+                    .when(mockRepository).insertOrders(any(), any());
+
+            orderBatcher.flush(batch);
+
+            assertThat(batch).allSatisfy(order -> assertThat(order.result()).isCompletedExceptionally());
+        }
+
+        @Test
+        void checkFlushShouldSkipWithdrawnOrders() {
+            Order created = order(2, 3, 20.0);
+            List<PendingOrder> batch = List.of(pending(1, 2), pending(2, 3));
+
+            doReturn(List.of(created))
+                    .when(mockRepository).insertOrders(List.of(2), List.of(3));
+
+            assertThat(orderBatcher.withdraw(batch.get(0))).isTrue();
+            orderBatcher.flush(batch);
+
+            assertThat(batch.get(0).result()).isCancelled();
+            assertThat(batch.get(1).result()).isCompletedWithValue(Optional.of(created));
+            assertThat(orderBatcher.withdraw(batch.get(1))).isFalse();
+        }
+
+        @Test
+        void checkFlushShouldRecordBatchSize() {
+            doReturn(List.of())
+                    .when(mockRepository).insertOrders(any(), any());
+
+            orderBatcher.flush(List.of(pending(1, 2), pending(2, 3), pending(3, 4)));
+
+            assertThat(meterRegistry.get("orders.batch.size").summary().max()).isEqualTo(3.0);
+            assertThat(meterRegistry.get("orders.queue.delay").timer().count()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void checkSubmitShouldCompleteOrderByWorker() throws Exception {
+        Order created = order(1, 2, 10.0);
+
+        doReturn(List.of(created))
+                .when(mockRepository).insertOrders(List.of(1), List.of(2));
+
+        orderBatcher.start();
+        try {
+            assertThat(orderBatcher.submit(1, 2).result().get()).contains(created);
+        } finally {
+            orderBatcher.stop();
+        }
+    }
+
+    @Test
+    void checkSubmitAfterStopShouldBeRejected() throws Exception {
+        orderBatcher.start();
+        orderBatcher.stop();
+
+        assertThrows(IllegalStateException.class, () -> orderBatcher.submit(1, 2));
+    }
+
+    @Test
+    void checkWorkerErrorShouldFailQueuedOrdersAndRejectNewOnes() throws Exception {
+        doThrow(new OutOfMemoryError("test"))
+                .when(mockRepository).insertOrders(any(), any());
+
+        orderBatcher.start();
+        CompletableFuture<Optional<Order>> queued = orderBatcher.submit(1, 2).result();
+
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        orderBatcher.stop();
+        assertThrows(IllegalStateException.class, () -> orderBatcher.submit(1, 2));
+    }
+
+    private static PendingOrder pending(Integer userId, Integer certificateId) {
+        return new PendingOrder(userId, certificateId, new CompletableFuture<>(), System.nanoTime());
+    }
+
+    private static Order order(Integer userId, Integer certificateId, Double totalCost) {
+        return new OrderTestBuilder()
+                .withUser(new UserTestBuilder().withId(userId).build())
+                .withCertificate(new GiftCertificateTestBuilder().withId(certificateId).build())
+                .withTotalCost(totalCost)
+                .build();
+    }
+}
@@ -23,6 +23,7 @@ public class GiftCertificateTestBuilder {
     private Double price = 90.12;
     private ZonedDateTime createDate = ZonedDateTime.now();
     private ZonedDateTime lastUpdateDate = ZonedDateTime.now();
+    private Long version = 0L;
     private List<Tag> tags = List.of(
             new Tag(1, "name1"),
             new Tag(2, "name2"),
@@ -38,6 +39,7 @@ public class GiftCertificateTestBuilder {
                 .price(price)
                 .createDate(createDate)
                 .lastUpdateDate(lastUpdateDate)
+                .version(version)
                 .tags(tags)
                 .build();
     }
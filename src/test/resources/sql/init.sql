@@ -1,65 +1,131 @@
 CREATE SCHEMA IF NOT EXISTS gift_shop;
 
+-- increment must match allocationSize of entity id generators: Hibernate takes the value
+-- of sequence as the first id of a block of 50 (pooled-lo optimizer).
+-- Ids have no column default, so SQL inserts take them from blocks reserved with nextval too
+CREATE SEQUENCE IF NOT EXISTS gift_shop.users_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS gift_shop.users
 (
-    id   SERIAL PRIMARY KEY,
+    id   INT PRIMARY KEY,
     name VARCHAR(255) UNIQUE NOT NULL
 );
 
+ALTER SEQUENCE gift_shop.users_id_seq OWNED BY gift_shop.users.id;
+
+CREATE SEQUENCE IF NOT EXISTS gift_shop.gift_certificates_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS gift_shop.gift_certificates
 (
-    id               SERIAL PRIMARY KEY,
+    id               INT PRIMARY KEY,
     name             VARCHAR(255)             NOT NULL,
     description      VARCHAR(255),
     price            DOUBLE PRECISION         NOT NULL,
     duration         INT                      NOT NULL CHECK (duration > 0),
     create_date      TIMESTAMP WITH TIME ZONE NOT NULL,
-    last_update_date TIMESTAMP WITH TIME ZONE NOT NULL
+    last_update_date TIMESTAMP WITH TIME ZONE NOT NULL,
+    version          BIGINT                   NOT NULL DEFAULT 0
 );
 
+ALTER SEQUENCE gift_shop.gift_certificates_id_seq OWNED BY gift_shop.gift_certificates.id;
+
+CREATE INDEX IF NOT EXISTS gift_certificates_create_date_id_idx
+    ON gift_shop.gift_certificates (create_date, id);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS gift_certificates_name_trgm_idx
+    ON gift_shop.gift_certificates USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS gift_certificates_description_trgm_idx
+    ON gift_shop.gift_certificates USING gin (lower(description) gin_trgm_ops);
+
+-- expression must match the one rendered by fts_match and fts_rank functions
+CREATE INDEX IF NOT EXISTS gift_certificates_fts_idx
+    ON gift_shop.gift_certificates
+    USING gin (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
+
+-- orders are inserted only with SQL using column default, so their ids aren't allocated in blocks
+CREATE SEQUENCE IF NOT EXISTS gift_shop.orders_id_seq;
+
 CREATE TABLE IF NOT EXISTS gift_shop.orders
 (
-    id             SERIAL PRIMARY KEY,
+    id             INT PRIMARY KEY DEFAULT nextval('gift_shop.orders_id_seq'),
     total_cost     DOUBLE PRECISION         NOT NULL,
     purchase_date  TIMESTAMP WITH TIME ZONE NOT NULL,
-    user_id        SERIAL REFERENCES gift_shop.users (id),
-    certificate_id SERIAL REFERENCES gift_shop.gift_certificates (id)
+    user_id        INT                      NOT NULL REFERENCES gift_shop.users (id),
+    -- certificate of single certificate order, orders of many certificates have line items instead
+    certificate_id INT REFERENCES gift_shop.gift_certificates (id)
 );
 
+ALTER SEQUENCE gift_shop.orders_id_seq OWNED BY gift_shop.orders.id;
+
+-- history of user orders newest first, seek pagination continues from (purchase_date, id) of the last row
+CREATE INDEX IF NOT EXISTS orders_user_id_purchase_date_id_idx
+    ON gift_shop.orders (user_id, purchase_date DESC, id);
+
+-- foreign key checks of certificate deletes
+CREATE INDEX IF NOT EXISTS orders_certificate_id_idx
+    ON gift_shop.orders (certificate_id);
+
+-- line items of orders with many certificates, price is the one at the moment of purchase
+CREATE TABLE IF NOT EXISTS gift_shop.order_certificate
+(
+    order_id       INT              NOT NULL REFERENCES gift_shop.orders (id) ON DELETE CASCADE,
+    certificate_id INT              NOT NULL REFERENCES gift_shop.gift_certificates (id),
+    price          DOUBLE PRECISION NOT NULL,
+    quantity       INT              NOT NULL CHECK (quantity > 0),
+    PRIMARY KEY (order_id, certificate_id)
+);
+
+-- foreign key checks of certificate deletes
+CREATE INDEX IF NOT EXISTS order_certificate_certificate_id_idx
+    ON gift_shop.order_certificate (certificate_id);
+
+CREATE SEQUENCE IF NOT EXISTS gift_shop.tags_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS gift_shop.tags
 (
-    id   SERIAL PRIMARY KEY,
+    id   INT PRIMARY KEY,
     name VARCHAR(255) NOT NULL UNIQUE
 );
 
+ALTER SEQUENCE gift_shop.tags_id_seq OWNED BY gift_shop.tags.id;
+
+-- links go away with their certificate or tag
 CREATE TABLE IF NOT EXISTS gift_shop.gift_certificate_tag
 (
-    gift_certificate_id SERIAL REFERENCES gift_shop.gift_certificates (id),
-    tag_id              SERIAL REFERENCES gift_shop.tags (id)
+    gift_certificate_id INT NOT NULL REFERENCES gift_shop.gift_certificates (id) ON DELETE CASCADE,
+    tag_id              INT NOT NULL REFERENCES gift_shop.tags (id) ON DELETE CASCADE,
+    PRIMARY KEY (gift_certificate_id, tag_id)
 );
 
-insert into gift_shop.tags(name)
-values ('first tag name');
-insert into gift_shop.tags(name)
-values ('beauty');
-insert into gift_shop.tags(name)
-values ('sport');
-insert into gift_shop.tags(name)
-values ('entertainment');
-insert into gift_shop.tags(name)
-values ('gambling');
-insert into gift_shop.tags(name)
-values ('food');
+-- certificates of tag for tag filters, primary key serves tags of certificate
+CREATE INDEX IF NOT EXISTS gift_certificate_tag_tag_id_gift_certificate_id_idx
+    ON gift_shop.gift_certificate_tag (tag_id, gift_certificate_id);
 
+insert into gift_shop.tags(id, name)
+values (1, 'first tag name');
+insert into gift_shop.tags(id, name)
+values (2, 'beauty');
+insert into gift_shop.tags(id, name)
+values (3, 'sport');
+insert into gift_shop.tags(id, name)
+values (4, 'entertainment');
+insert into gift_shop.tags(id, name)
+values (5, 'gambling');
+insert into gift_shop.tags(id, name)
+values (6, 'food');
 
-insert into gift_shop.gift_certificates(name, description, price, duration, create_date, last_update_date)
-values ('firstName', 'some description', 56, 11.20, '2023-4-27 10:23:54+02', '2023-4-27 10:23:54+02');
 
-insert into gift_shop.gift_certificates(name, description, price, duration, create_date, last_update_date)
-values ('secondName', 'awesome certificate', 55.32, 3, '2023-4-26 11:22:54+02', '2023-4-26 11:22:54+02');
+insert into gift_shop.gift_certificates(id, name, description, price, duration, create_date, last_update_date)
+values (1, 'firstName', 'some description', 56, 11.20, '2023-4-27 10:23:54+02', '2023-4-27 10:23:54+02');
 
-insert into gift_shop.gift_certificates(name, description, price, duration, create_date, last_update_date)
-values ('thirdName', '3description', 20.12, 20, '2023-4-22 15:23:42+02', '2023-4-22 15:23:42+02');
+insert into gift_shop.gift_certificates(id, name, description, price, duration, create_date, last_update_date)
+values (2, 'secondName', 'awesome certificate', 55.32, 3, '2023-4-26 11:22:54+02', '2023-4-26 11:22:54+02');
+
+insert into gift_shop.gift_certificates(id, name, description, price, duration, create_date, last_update_date)
+values (3, 'thirdName', '3description', 20.12, 20, '2023-4-22 15:23:42+02', '2023-4-22 15:23:42+02');
 
 insert into gift_shop.gift_certificate_tag
 values (1, 1);
@@ -74,10 +140,16 @@ values (3, 3);
 insert into gift_shop.gift_certificate_tag
 values (3, 2);
 
-insert into gift_shop.users("name")
-values ('first name');
-insert into gift_shop.users("name")
-values ('second name');
+insert into gift_shop.users(id, "name")
+values (1, 'first name');
+insert into gift_shop.users(id, "name")
+values (2, 'second name');
+
+insert into gift_shop.orders(id, total_cost, purchase_date, user_id, certificate_id)
+values (1, 55.32, '2023-4-26 11:22:54+02', 1, 2);
 
-insert into gift_shop.orders(total_cost, purchase_date, user_id, certificate_id)
-values (55.32, '2023-4-26 11:22:54+02', 1, 2);
\ No newline at end of file
+-- seed rows have explicit ids, next blocks of ids start after them
+select setval('gift_shop.tags_id_seq', 6);
+select setval('gift_shop.gift_certificates_id_seq', 3);
+select setval('gift_shop.users_id_seq', 2);
+select setval('gift_shop.orders_id_seq', 1);